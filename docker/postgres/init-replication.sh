@@ -0,0 +1,10 @@
+#!/bin/bash
+# Rôle de réplication + accès streaming pour le replica local (profil compose "replica").
+# Exécuté uniquement à l'initialisation d'un volume vide.
+set -e
+
+psql -v ON_ERROR_STOP=1 --username "$POSTGRES_USER" --dbname "$POSTGRES_DB" <<-SQL
+    CREATE ROLE replicator WITH REPLICATION LOGIN PASSWORD 'replicator';
+SQL
+
+echo "host replication replicator all scram-sha-256" >> "$PGDATA/pg_hba.conf"
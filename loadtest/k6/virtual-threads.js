@@ -0,0 +1,55 @@
+// Comparaison platform threads vs virtual threads à 2000 connexions concurrentes.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e USERNAME=student1 -e PASSWORD=secret \
+//          loadtest/k6/virtual-threads.js
+//
+// Voir loadtest/README.md pour le protocole (deux runs, mêmes données, métriques à relever).
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const PEAK_VUS = parseInt(__ENV.PEAK_VUS || '2000', 10);
+
+export const options = {
+    scenarios: {
+        browse: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: PEAK_VUS },
+                { duration: '2m', target: PEAK_VUS },
+                { duration: '15s', target: 0 },
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+// Un seul login (les refresh tokens sont limités par max-active-sessions)
+export function setup() {
+    const res = http.post(`${BASE_URL}/api/auth/login`,
+        JSON.stringify({ username: __ENV.USERNAME, password: __ENV.PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' } });
+    check(res, { 'login 200': (r) => r.status === 200 });
+    return { token: res.json('accessToken') };
+}
+
+// Mix lecture : catalogue, mes cours, dashboard (JDBC + Redis)
+const PATHS = [
+    '/api/student/courses/catalog',
+    '/api/student/courses/my-courses',
+    '/api/student/courses/dashboard',
+];
+
+export default function (data) {
+    const path = PATHS[Math.floor(Math.random() * PATHS.length)];
+    const res = http.get(`${BASE_URL}${path}`, {
+        headers: { Authorization: `Bearer ${data.token}` },
+        tags: { name: path },
+    });
+    check(res, { 'status 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,69 @@
+package com.example.mondecole_pocket.config;
+
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-cache tuning bound from {@code app.cache.<name>.*}.
+ * The {@code default} block applies to every cache that is not listed explicitly.
+ *
+ * @param ttl           Redis entry TTL (also bounds the L1 entry lifetime)
+ * @param maxEntryBytes serialized size budget, larger entries are refused (0 = unlimited)
+ * @param l1MaxSize     in-process L1 entries kept in front of Redis (0 = no L1)
+ * @param nullCaching   whether null results are cached
+ */
+public record CacheSpec(Duration ttl, DataSize maxEntryBytes, Integer l1MaxSize, Boolean nullCaching) {
+
+    public static final String DEFAULT = "default";
+
+    private static final CacheSpec FALLBACK =
+            new CacheSpec(Duration.ofMinutes(5), DataSize.ofKilobytes(512), 0, true);
+
+    /** Bind every {@code app.cache.<name>} block, keyed by normalized cache name */
+    public static Map<String, CacheSpec> bind(Environment environment) {
+        Map<String, CacheSpec> raw = Binder.get(environment)
+                .bind("app.cache", Bindable.mapOf(String.class, CacheSpec.class))
+                .orElse(Map.of());
+
+        CacheSpec defaults = raw.getOrDefault(DEFAULT, FALLBACK).withDefaults(FALLBACK);
+
+        Map<String, CacheSpec> specs = new HashMap<>();
+        raw.forEach((name, spec) -> specs.put(normalize(name), spec.withDefaults(defaults)));
+        specs.put(DEFAULT, defaults);
+        return specs;
+    }
+
+    /** Resolve the spec of a cache, falling back to the default block */
+    public static CacheSpec resolve(Map<String, CacheSpec> specs, String cacheName) {
+        return specs.getOrDefault(normalize(cacheName), specs.get(DEFAULT));
+    }
+
+    /** "user-stats", "userStats" and "userstats" all designate the same cache */
+    static String normalize(String name) {
+        return name.replace("-", "").replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    CacheSpec withDefaults(CacheSpec parent) {
+        return new CacheSpec(
+                ttl != null ? ttl : parent.ttl,
+                maxEntryBytes != null ? maxEntryBytes : parent.maxEntryBytes,
+                l1MaxSize != null ? l1MaxSize : parent.l1MaxSize,
+                nullCaching != null ? nullCaching : parent.nullCaching
+        );
+    }
+
+    public boolean l1Enabled() {
+        return l1MaxSize != null && l1MaxSize > 0;
+    }
+
+    public boolean hasByteBudget() {
+        return maxEntryBytes != null && maxEntryBytes.toBytes() > 0;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.mondecole_pocket.config;
+
+import com.example.mondecole_pocket.repository.CourseRepository;
+import com.example.mondecole_pocket.repository.OrganizationRepository;
+import com.example.mondecole_pocket.security.TenantContext;
+import com.example.mondecole_pocket.service.StudentCourseService;
+import com.example.mondecole_pocket.service.TenantSnapshotService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Warm-up before the pod receives traffic.
+ * ApplicationRunners complete before Spring Boot switches readiness to
+ * ACCEPTING_TRAFFIC, so /actuator/health/readiness stays DOWN while this runs.
+ * Preloads tenant snapshots and course outlines of the most active organizations
+ * and drives the catalog / course detail paths (queries, mapping, JSON) for the JIT.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheWarmer implements ApplicationRunner {
+
+    /** No enrollment: exercises the student paths without touching real data */
+    private static final Long WARMUP_STUDENT_ID = -1L;
+
+    private final OrganizationRepository organizationRepository;
+    private final CourseRepository courseRepository;
+    private final TenantSnapshotService tenantSnapshotService;
+    private final StudentCourseService studentCourseService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.warmup.organizations:20}")
+    private int organizations;
+
+    @Value("${app.warmup.courses-per-organization:30}")
+    private int coursesPerOrganization;
+
+    @Value("${app.warmup.activity-days:7}")
+    private int activityDays;
+
+    @Value("${app.warmup.time-budget:20s}")
+    private Duration timeBudget;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        long deadline = System.nanoTime() + timeBudget.toNanos();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "completed";
+        int items = 0;
+
+        try {
+            List<Long> organizationIds = organizationRepository.findMostActiveOrganizationIds(
+                    LocalDateTime.now().minusDays(activityDays), organizations);
+
+            for (Long organizationId : organizationIds) {
+                if (System.nanoTime() > deadline) {
+                    outcome = "budget_exhausted";
+                    break;
+                }
+                items += warmOrganization(organizationId, deadline);
+            }
+            if (System.nanoTime() > deadline) {
+                outcome = "budget_exhausted";
+            }
+        } catch (Exception e) {
+            outcome = "failed";
+            log.warn("⚠️ Cache warm-up aborted: {}", e.getMessage());
+        } finally {
+            long nanos = sample.stop(Timer.builder("cache.warmup.duration")
+                    .description("Startup cache warm-up duration")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+            log.info("🔥 Cache warm-up {}: {} items in {} ms", outcome, items, nanos / 1_000_000);
+        }
+    }
+
+    private int warmOrganization(Long organizationId, long deadline) {
+        int warmed = 0;
+        TenantContext.setTenantId(organizationId);
+        try {
+            if (tenantSnapshotService.find(organizationId) == null) {
+                return 0;
+            }
+            warmed += count("tenant");
+
+            // Catalogue : mêmes requêtes / mapping / sérialisation que le endpoint
+            objectMapper.writeValueAsBytes(studentCourseService.browseCourses(
+                    WARMUP_STUDENT_ID, PageRequest.of(0, 12, Sort.by("publishedAt").descending())));
+            warmed += count("catalog");
+
+            List<Long> courseIds = courseRepository.findPublishedIds(
+                    organizationId, PageRequest.of(0, coursesPerOrganization));
+            for (Long courseId : courseIds) {
+                if (System.nanoTime() > deadline) {
+                    break;
+                }
+                // Remplit le cache courseOutline au passage
+                studentCourseService.streamCourseDetail(courseId, WARMUP_STUDENT_ID)
+                        .writeTo(OutputStream.nullOutputStream());
+                warmed += count("course_outline");
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ Warm-up failed for organization {}: {}", organizationId, e.getMessage());
+        } finally {
+            TenantContext.clear();
+        }
+        return warmed;
+    }
+
+    private int count(String kind) {
+        meterRegistry.counter("cache.warmup.items", "kind", kind).increment();
+        return 1;
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.mondecole_pocket.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ════════════════════════════════════════════════════════
+ * CLUSTER JOB RUNNER
+ * ════════════════════════════════════════════════════════
+ *
+ * At-most-one execution of a @Scheduled job per period across replicas,
+ * backed by the scheduled_locks table (DB clock only, no replica clock skew).
+ *
+ * - Lease: the job's row is taken when locked_until has passed, for `lease`
+ * - Heartbeat: the lease is extended every lease/3 while the job runs;
+ *   a dead pod releases it after at most one lease
+ * - minInterval: on release the lock stays held until locked_at + minInterval,
+ *   so a replica whose cron fires a bit later does not run the same period again
+ * - Last run (duration, outcome) stored in the row → /actuator/scheduledjobs
+ *
+ * Jobs must be idempotent: a lost lease (long GC pause, DB unreachable) can
+ * let another replica start before the first one notices.
+ */
+@Slf4j
+@Component
+public class ClusterJobRunner {
+
+    /** Job body; returns the outcome label (ex: "completed", "budget_exhausted") */
+    @FunctionalInterface
+    public interface Job {
+        String run() throws Exception;
+    }
+
+    private static final String ACQUIRE = """
+            INSERT INTO scheduled_locks (name, locked_until, locked_at, locked_by)
+            VALUES (?, now() + make_interval(secs => ?), now(), ?)
+            ON CONFLICT (name) DO UPDATE
+                SET locked_until = EXCLUDED.locked_until,
+                    locked_at = EXCLUDED.locked_at,
+                    locked_by = EXCLUDED.locked_by
+                WHERE scheduled_locks.locked_until <= now()
+            """;
+
+    private static final String EXTEND = """
+            UPDATE scheduled_locks SET locked_until = now() + make_interval(secs => ?)
+            WHERE name = ? AND locked_by = ?
+            """;
+
+    private static final String RELEASE = """
+            UPDATE scheduled_locks
+            SET locked_until = GREATEST(now(), locked_at + make_interval(secs => ?)),
+                last_started_at = locked_at,
+                last_finished_at = now(),
+                last_duration_ms = ?,
+                last_outcome = ?
+            WHERE name = ? AND locked_by = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final String instanceId;
+    private final ScheduledExecutorService heartbeats;
+
+    public ClusterJobRunner(JdbcTemplate jdbcTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${HOSTNAME:}") String hostname) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        // pid@host (+ HOSTNAME = nom du pod en k8s)
+        String runtimeName = ManagementFactory.getRuntimeMXBean().getName();
+        this.instanceId = hostname.isBlank() ? runtimeName : hostname + "/" + runtimeName;
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cluster-job-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** pid@host, préfixé du nom de pod : identifie ce replica dans les verrous et les jobs */
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * Run the job if no other replica holds (or recently ran) it.
+     *
+     * @return the job outcome, or "locked" when skipped
+     */
+    public String run(String name, Duration lease, Duration minInterval, Job job) {
+        if (!tryAcquire(name, lease)) {
+            log.debug("Job '{}' skipped: held by another replica", name);
+            meterRegistry.counter("scheduled.job.runs", "job", name, "outcome", "locked").increment();
+            return "locked";
+        }
+
+        AtomicBoolean leaseLost = new AtomicBoolean(false);
+        long heartbeatMs = Math.max(1000, lease.toMillis() / 3);
+        ScheduledFuture<?> heartbeat = heartbeats.scheduleWithFixedDelay(
+                () -> extend(name, lease, leaseLost), heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        String outcome;
+        try {
+            outcome = job.run();
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("❌ Job '{}' failed", name, e);
+            outcome = "failed";
+        } finally {
+            heartbeat.cancel(false);
+        }
+
+        long durationNs = System.nanoTime() - start;
+        if (leaseLost.get()) {
+            outcome = outcome + "_lease_lost";
+        }
+        release(name, minInterval, Duration.ofNanos(durationNs), outcome);
+
+        meterRegistry.timer("scheduled.job.duration", "job", name, "outcome", outcome)
+                .record(durationNs, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("scheduled.job.runs", "job", name, "outcome", outcome).increment();
+        return outcome;
+    }
+
+    private boolean tryAcquire(String name, Duration lease) {
+        try {
+            return jdbcTemplate.update(ACQUIRE, name, seconds(lease), instanceId) == 1;
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Cannot acquire lock for job '{}': {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    private void extend(String name, Duration lease, AtomicBoolean leaseLost) {
+        try {
+            if (jdbcTemplate.update(EXTEND, seconds(lease), name, instanceId) == 0) {
+                leaseLost.set(true);
+                log.error("🔴 Job '{}' lost its lease (taken over by another replica)", name);
+            }
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Heartbeat failed for job '{}': {}", name, e.getMessage());
+        }
+    }
+
+    private void release(String name, Duration minInterval, Duration duration, String outcome) {
+        try {
+            jdbcTemplate.update(RELEASE, seconds(minInterval), duration.toMillis(), outcome, name, instanceId);
+        } catch (RuntimeException e) {
+            // Le bail expirera de lui-même
+            log.warn("⚠️ Cannot release lock for job '{}': {}", name, e.getMessage());
+        }
+    }
+
+    private static double seconds(Duration duration) {
+        return duration.toMillis() / 1000.0;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+    }
+}
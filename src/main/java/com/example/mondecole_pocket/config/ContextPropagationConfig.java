@@ -0,0 +1,28 @@
+package com.example.mondecole_pocket.config;
+
+import com.example.mondecole_pocket.security.RequestContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+
+/**
+ * ════════════════════════════════════════════════════════
+ * CONTEXT PROPAGATION
+ * ════════════════════════════════════════════════════════
+ *
+ * TaskDecorator picked up by Boot for the application task executor
+ * (@Async, virtual or platform threads): the submitting thread's
+ * RequestContext and SecurityContext are captured at submission and bound
+ * in the worker for the duration of the task only.
+ *
+ * Executors built by hand (fan-out) use RequestContext.wrap(...) directly.
+ */
+@Configuration
+public class ContextPropagationConfig {
+
+    @Bean
+    public TaskDecorator requestContextTaskDecorator() {
+        return task -> RequestContext.wrap(DelegatingSecurityContextRunnable.create(task, null));
+    }
+}
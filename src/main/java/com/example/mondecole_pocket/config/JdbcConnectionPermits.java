@@ -0,0 +1,185 @@
+package com.example.mondecole_pocket.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ════════════════════════════════════════════════════════
+ * JDBC CONNECTION PERMITS (virtual threads)
+ * ════════════════════════════════════════════════════════
+ *
+ * With virtual threads a burst of 2k requests means 2k threads calling
+ * getConnection() at once. Each Hikari pool is fronted by a fair semaphore
+ * sized to its maximumPoolSize:
+ * - Waiters queue FIFO on the semaphore (cheap park of a virtual thread)
+ *   instead of spinning through Hikari's handoff queue
+ * - The permit is released when the connection is closed (returned to the pool)
+ * - Bounded wait (`timeout`) → SQLTransientConnectionException, like Hikari
+ *
+ * Enabled by default when spring.threads.virtual.enabled=true.
+ * Metrics: jdbc.permits.waiting / available{pool}, jdbc.permits.wait{pool},
+ * jdbc.permits.rejected{pool}.
+ */
+@Slf4j
+@Component
+public class JdbcConnectionPermits implements BeanPostProcessor {
+
+    private final boolean enabled;
+    private final Duration timeout;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public JdbcConnectionPermits(
+            @Value("${app.jdbc.permits.enabled:${spring.threads.virtual.enabled:false}}") boolean enabled,
+            @Value("${app.jdbc.permits.timeout:30s}") Duration timeout,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.enabled = enabled;
+        this.timeout = timeout;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** Pool unique auto-configuré par Boot (le mode replicas passe par {@link #limit}) */
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource pool) {
+            return limit(pool);
+        }
+        return bean;
+    }
+
+    /** Le pool lui-même si désactivé, sinon le pool derrière un sémaphore de maximumPoolSize permis */
+    public DataSource limit(HikariDataSource pool) {
+        if (!enabled) {
+            return pool;
+        }
+        log.info("🚦 Permits JDBC activés pour le pool {} ({} permis)", pool.getPoolName(), pool.getMaximumPoolSize());
+        return new PermitDataSource(pool, pool.getMaximumPoolSize(), timeout, meterRegistry.getObject());
+    }
+
+    private static final class PermitDataSource extends DelegatingDataSource {
+
+        private final Semaphore permits;
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final long timeoutNanos;
+        private final String poolName;
+        private final Timer waitTimer;
+        private final Counter rejected;
+
+        PermitDataSource(HikariDataSource pool, int size, Duration timeout, MeterRegistry meterRegistry) {
+            super(pool);
+            this.permits = new Semaphore(size, true);
+            this.timeoutNanos = timeout.toNanos();
+            this.poolName = pool.getPoolName();
+
+            Gauge.builder("jdbc.permits.waiting", waiting, AtomicInteger::get)
+                    .description("Threads waiting for a JDBC connection permit")
+                    .tag("pool", poolName)
+                    .register(meterRegistry);
+            Gauge.builder("jdbc.permits.available", permits, Semaphore::availablePermits)
+                    .description("Free JDBC connection permits")
+                    .tag("pool", poolName)
+                    .register(meterRegistry);
+            this.waitTimer = Timer.builder("jdbc.permits.wait")
+                    .description("Time spent waiting for a JDBC connection permit")
+                    .tag("pool", poolName)
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("jdbc.permits.rejected")
+                    .description("getConnection() calls that timed out waiting for a permit")
+                    .tag("pool", poolName)
+                    .register(meterRegistry);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            acquire();
+            try {
+                return releasingOnClose(super.getConnection());
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            acquire();
+            try {
+                return releasingOnClose(super.getConnection(username, password));
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        private void acquire() throws SQLException {
+            waiting.incrementAndGet();
+            long start = System.nanoTime();
+            try {
+                if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                    rejected.increment();
+                    throw new SQLTransientConnectionException(
+                            poolName + " - connection permit not available after " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + "ms");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException(poolName + " - interrupted while waiting for a connection permit", e);
+            } finally {
+                waiting.decrementAndGet();
+                waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private Connection releasingOnClose(Connection target) {
+            AtomicBoolean released = new AtomicBoolean(false);
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionProxy.class.getClassLoader(),
+                    new Class<?>[]{ConnectionProxy.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "getTargetConnection":
+                                return target;
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            case "close":
+                                try {
+                                    target.close();
+                                } finally {
+                                    if (released.compareAndSet(false, true)) {
+                                        permits.release();
+                                    }
+                                }
+                                return null;
+                            default:
+                                try {
+                                    return method.invoke(target, args);
+                                } catch (InvocationTargetException e) {
+                                    throw e.getTargetException();
+                                }
+                        }
+                    });
+        }
+    }
+}
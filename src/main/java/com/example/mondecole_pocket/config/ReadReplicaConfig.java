@@ -0,0 +1,112 @@
+package com.example.mondecole_pocket.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ════════════════════════════════════════════════════════
+ * READ REPLICAS (app.datasource.replica.enabled=true)
+ * ════════════════════════════════════════════════════════
+ *
+ * Replaces Boot's single pool with ReadReplicaRoutingDataSource:
+ * - primary : spring.datasource.* (+ spring.datasource.hikari.*), pool "primary"
+ * - replicas: app.datasource.replica.urls (comma separated), same credentials
+ *   unless overridden, app.datasource.replica.hikari.*, pools "replica-N"
+ *
+ * Disabled by default: without the property Boot's auto-configured pool is
+ * used unchanged and every transaction goes to the primary.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    public ReplicaLagGuard replicaLagGuard(
+            @Value("${app.datasource.replica.read-your-writes-window:#{null}}") Duration window,
+            @Value("${app.datasource.replica.max-lag:10s}") Duration maxLag,
+            @Value("${app.datasource.replica.lag-check-interval:5s}") Duration checkInterval,
+            @Value("${app.datasource.replica.read-your-writes-max-users:100000}") long maxUsers) {
+        return new ReplicaLagGuard(readYourWritesWindow(window, maxLag, checkInterval), maxUsers);
+    }
+
+    /**
+     * A replica is only skipped once a lag check sees it behind by more than
+     * maxLag, so between two checks it can trail the primary by up to
+     * maxLag + checkInterval. A shorter read-your-writes window would send a
+     * user back to a replica that has not replayed their write yet.
+     *
+     * @return the configured window, or that minimum when none is set
+     */
+    static Duration readYourWritesWindow(Duration configured, Duration maxLag, Duration checkInterval) {
+        Duration minimum = maxLag.plus(checkInterval);
+        if (configured == null) {
+            return minimum;
+        }
+        if (configured.compareTo(minimum) < 0) {
+            throw new IllegalStateException("app.datasource.replica.read-your-writes-window (" + configured
+                    + ") must be at least max-lag + lag-check-interval (" + minimum + ")");
+        }
+        return configured;
+    }
+
+    @Bean
+    public ReadReplicaRoutingDataSource dataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            ReplicaLagGuard replicaLagGuard,
+            JdbcConnectionPermits permits,
+            MeterRegistry meterRegistry,
+            @Value("${app.datasource.replica.urls}") String urls,
+            @Value("${app.datasource.replica.username:${spring.datasource.username}}") String username,
+            @Value("${app.datasource.replica.password:${spring.datasource.password}}") String password,
+            @Value("${app.datasource.replica.max-lag:10s}") Duration maxLag,
+            @Value("${app.datasource.replica.lag-check-interval:5s}") Duration checkInterval) {
+
+        Binder binder = Binder.get(environment);
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        primary.setMetricsTrackerFactory(metrics);
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        List<String> replicaUrls = Arrays.stream(urls.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isBlank())
+                .toList();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setJdbcUrl(replicaUrls.get(i));
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setDriverClassName(properties.getDriverClassName());
+            binder.bind("app.datasource.replica.hikari", Bindable.ofInstance(replica));
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setReadOnly(true);
+            // Pas de connexion au démarrage : un replica absent ne bloque pas le boot
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricsTrackerFactory(metrics);
+            replicas.add(replica);
+        }
+
+        log.info("📚 Read replicas activés : {} replica(s), fenêtre lag max {}", replicas.size(), maxLag);
+        return new ReadReplicaRoutingDataSource(primary, replicas, replicaLagGuard, maxLag, checkInterval, permits, meterRegistry);
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.mondecole_pocket.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ════════════════════════════════════════════════════════
+ * READ-REPLICA ROUTING DATASOURCE
+ * ════════════════════════════════════════════════════════
+ *
+ * LazyConnectionDataSourceProxy over the primary pool: the physical connection
+ * is only fetched at the first statement, once the transaction has flagged it
+ * read-only (@Transactional(readOnly = true) → Connection.setReadOnly(true)).
+ * Read-only connections are served by the replica selector, everything else
+ * by the primary.
+ *
+ * Replica selector:
+ * - Round-robin over the healthy replica pools
+ * - Primary when the current user wrote recently (ReplicaLagGuard)
+ * - Lag check every `checkInterval`: a replica behind by more than `maxLag`,
+ *   unreachable, or whose WAL receiver is not streaming, is skipped until it catches up
+ * - Primary as fallback when no replica is usable or getConnection fails
+ *
+ * Each pool is fronted by JdbcConnectionPermits when virtual threads are on.
+ *
+ * Metrics: db.readonly.route{route,reason}, db.replica.lag{replica};
+ * pool metrics via Hikari (hikaricp.connections.*{pool=primary|replica-N}).
+ */
+@Slf4j
+public class ReadReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    /**
+     * 0 si le replica a rejoué tout ce qu'il a reçu (un primary inactif ne crée pas de faux lag).
+     * NULL si le WAL receiver ne streame pas ou n'a rien reçu depuis RECEIVER_SILENCE :
+     * le replica ne sait pas ce qu'il lui manque, il est traité comme en retard.
+     * Lire pg_stat_wal_receiver demande pg_read_all_stats (pg_monitor) au compte du replica.
+     */
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver
+                                  WHERE status = 'streaming'
+                                    AND last_msg_receipt_time > now() - make_interval(secs => %d)) THEN NULL
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END
+            """;
+
+    /** Le primary envoie un keepalive au moins toutes les wal_sender_timeout / 2 (30 s par défaut) */
+    private static final Duration RECEIVER_SILENCE = Duration.ofSeconds(60);
+
+    private final HikariDataSource primaryPool;
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ScheduledExecutorService lagChecker;
+
+    public ReadReplicaRoutingDataSource(HikariDataSource primary,
+                                        List<HikariDataSource> replicaPools,
+                                        ReplicaLagGuard lagGuard,
+                                        Duration maxLag,
+                                        Duration checkInterval,
+                                        JdbcConnectionPermits permits,
+                                        MeterRegistry meterRegistry) {
+        super(permits.limit(primary));
+        this.primaryPool = primary;
+        this.primary = getTargetDataSource();
+        this.replicas = replicaPools.stream().map(pool -> new Replica(pool, permits.limit(pool), meterRegistry)).toList();
+        setReadOnlyDataSource(new ReplicaSelector(lagGuard, meterRegistry));
+
+        this.lagChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "replica-lag-check");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = checkInterval.toMillis();
+        lagChecker.scheduleWithFixedDelay(() -> checkLag(maxLag), 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    void checkLag(Duration maxLag) {
+        for (Replica replica : replicas) {
+            try (Connection con = replica.pool.getConnection();
+                 Statement st = con.createStatement();
+                 ResultSet rs = st.executeQuery(LAG_QUERY.formatted(RECEIVER_SILENCE.toSeconds()))) {
+                rs.next();
+                double lagSeconds = rs.getDouble(1);
+                if (rs.wasNull()) {
+                    replica.lagSeconds = Double.POSITIVE_INFINITY;
+                    replica.markUsable(false, "WAL receiver not streaming");
+                    continue;
+                }
+                replica.lagSeconds = lagSeconds;
+                replica.markUsable(lagSeconds * 1000 <= maxLag.toMillis(), "lag " + lagSeconds + "s");
+            } catch (Exception e) {
+                replica.lagSeconds = Double.NaN;
+                replica.markUsable(false, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        lagChecker.shutdownNow();
+        replicas.forEach(r -> r.pool.close());
+        primaryPool.close();
+    }
+
+    // ════════════════════════════════════════════════════════
+    // Sélection du pool pour les connexions read-only
+    // ════════════════════════════════════════════════════════
+
+    private final class ReplicaSelector extends AbstractDataSource {
+
+        private final ReplicaLagGuard lagGuard;
+        private final AtomicInteger next = new AtomicInteger();
+        private final Counter toReplica;
+        private final Counter stickyPrimary;
+        private final Counter fallbackPrimary;
+
+        ReplicaSelector(ReplicaLagGuard lagGuard, MeterRegistry meterRegistry) {
+            this.lagGuard = lagGuard;
+            this.toReplica = route(meterRegistry, "replica", "read_only");
+            this.stickyPrimary = route(meterRegistry, "primary", "recent_write");
+            this.fallbackPrimary = route(meterRegistry, "primary", "no_replica");
+        }
+
+        private static Counter route(MeterRegistry registry, String route, String reason) {
+            return Counter.builder("db.readonly.route")
+                    .description("Read-only connections by target pool")
+                    .tag("route", route)
+                    .tag("reason", reason)
+                    .register(registry);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return route(DataSource::getConnection);
+        }
+
+        /** Même routage ; le pool cible décide des identifiants (Hikari n'en accepte pas par appel) */
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return route(source -> source.getConnection(username, password));
+        }
+
+        private Connection route(ConnectionSource connect) throws SQLException {
+            if (lagGuard.mustReadFromPrimary()) {
+                stickyPrimary.increment();
+                return connect.from(primary);
+            }
+
+            int start = Math.floorMod(next.getAndIncrement(), Math.max(1, replicas.size()));
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((start + i) % replicas.size());
+                if (!replica.usable) {
+                    continue;
+                }
+                try {
+                    Connection con = connect.from(replica.source);
+                    toReplica.increment();
+                    return con;
+                } catch (SQLException e) {
+                    replica.markUsable(false, e.getMessage());
+                }
+            }
+
+            fallbackPrimary.increment();
+            return connect.from(primary);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection from(DataSource source) throws SQLException;
+    }
+
+    private static final class Replica {
+
+        final HikariDataSource pool;
+        final DataSource source;
+        volatile boolean usable = true;
+        volatile double lagSeconds;
+
+        Replica(HikariDataSource pool, DataSource source, MeterRegistry meterRegistry) {
+            this.pool = pool;
+            this.source = source;
+            Gauge.builder("db.replica.lag", this, r -> r.lagSeconds)
+                    .description("Replication lag measured on the replica (NaN if unreachable)")
+                    .baseUnit("seconds")
+                    .tag("replica", pool.getPoolName())
+                    .register(meterRegistry);
+        }
+
+        void markUsable(boolean ok, String detail) {
+            if (usable != ok) {
+                if (ok) {
+                    log.info("✅ Replica {} réintégré ({})", pool.getPoolName(), detail);
+                } else {
+                    log.warn("⚠️ Replica {} écarté des lectures : {}", pool.getPoolName(), detail);
+                }
+            }
+            usable = ok;
+        }
+    }
+}
@@ -10,21 +10,22 @@ import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.SerializationException;
 
 import java.io.IOException;
-import java.time.Duration;
 import java.util.List;
 
 @Configuration
@@ -32,15 +33,20 @@ import java.util.List;
 public class RedisConfig {
 
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory factory) {
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis", matchIfMissing = true)
+    public RedisCacheManager cacheManager(RedisConnectionFactory factory,
+                                          Environment environment,
+                                          MeterRegistry meterRegistry) {
         ObjectMapper objectMapper = buildObjectMapper();
+        // ✅ Racine déclarée Object → l'id de type est écrit même pour les records (final)
+        ObjectWriter objectWriter = objectMapper.writerFor(Object.class);
 
         RedisSerializer<Object> serializer = new RedisSerializer<>() {
             @Override
             public byte[] serialize(Object value) throws SerializationException {
                 if (value == null) return new byte[0];
                 try {
-                    return objectMapper.writeValueAsBytes(value);
+                    return objectWriter.writeValueAsBytes(value);
                 } catch (Exception e) {
                     throw new SerializationException("Could not serialize: " + e.getMessage(), e);
                 }
@@ -57,15 +63,16 @@ public class RedisConfig {
             }
         };
 
-        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(5))
-                .serializeValuesWith(
-                        RedisSerializationContext.SerializationPair.fromSerializer(serializer)
-                );
-
-        return RedisCacheManager.builder(factory)
-                .cacheDefaults(config)
-                .build();
+        // ✅ TTL / budget / L1 / null caching par cache (app.cache.<name>.*)
+        TunedRedisCacheManager cacheManager = new TunedRedisCacheManager(
+                RedisCacheWriter.nonLockingRedisCacheWriter(factory),
+                CacheSpec.bind(environment),
+                serializer,
+                meterRegistry
+        );
+        // ✅ Evict/put différés au commit : pas de relecture d'une version non commitée
+        cacheManager.setTransactionAware(true);
+        return cacheManager;
     }
 
     private ObjectMapper buildObjectMapper() {
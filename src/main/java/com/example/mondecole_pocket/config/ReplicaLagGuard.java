@@ -0,0 +1,58 @@
+package com.example.mondecole_pocket.config;
+
+import com.example.mondecole_pocket.security.RequestContext;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.jspecify.annotations.Nullable;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.time.Duration;
+
+/**
+ * ════════════════════════════════════════════════════════
+ * REPLICA LAG GUARD (read-your-writes)
+ * ════════════════════════════════════════════════════════
+ *
+ * Remembers which users committed a read-write transaction in the last
+ * `window`; their read-only transactions go to the primary until it expires,
+ * so a replica that has not replayed the write yet is never visible to them.
+ *
+ * - Registered as a TransactionExecutionListener (Boot attaches it to the
+ *   JpaTransactionManager): any committed non-readOnly transaction counts,
+ *   even if it ended up writing nothing — conservative on purpose
+ * - Keyed by RequestContext user id (stateless JWT, no HTTP session);
+ *   anonymous traffic and background jobs are never pinned
+ */
+public class ReplicaLagGuard implements TransactionExecutionListener {
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReplicaLagGuard(Duration window, long maxUsers) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxUsers)
+                .build();
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, @Nullable Throwable commitFailure) {
+        if (commitFailure != null || !transaction.isNewTransaction() || transaction.isReadOnly()) {
+            return;
+        }
+        Long userId = currentUserId();
+        if (userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    /** true si l'utilisateur courant a écrit dans la fenêtre → lecture sur le primary */
+    public boolean mustReadFromPrimary() {
+        Long userId = currentUserId();
+        return userId != null && recentWriters.getIfPresent(userId) != null;
+    }
+
+    private static Long currentUserId() {
+        return RequestContext.current().userId();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.mondecole_pocket.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * /actuator/scheduledjobs : état cluster-wide des jobs de ClusterJobRunner
+ * (qui tient le verrou, dernier run, durée, outcome)
+ */
+@Component
+@Endpoint(id = "scheduledjobs")
+@RequiredArgsConstructor
+public class ScheduledJobsEndpoint {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record JobState(
+            String name,
+            boolean running,
+            String lockedBy,
+            LocalDateTime lockedUntil,
+            LocalDateTime lastStartedAt,
+            LocalDateTime lastFinishedAt,
+            Long lastDurationMs,
+            String lastOutcome
+    ) {}
+
+    @ReadOperation
+    public List<JobState> jobs() {
+        return jdbcTemplate.query("""
+                SELECT name, locked_by, locked_until, last_started_at, last_finished_at,
+                       last_duration_ms, last_outcome,
+                       (locked_until > now() AND locked_at IS DISTINCT FROM last_started_at) AS running
+                FROM scheduled_locks
+                ORDER BY name
+                """,
+                (rs, rowNum) -> new JobState(
+                        rs.getString("name"),
+                        rs.getBoolean("running"),
+                        rs.getString("locked_by"),
+                        toLocalDateTime(rs.getTimestamp("locked_until")),
+                        toLocalDateTime(rs.getTimestamp("last_started_at")),
+                        toLocalDateTime(rs.getTimestamp("last_finished_at")),
+                        rs.getObject("last_duration_ms", Long.class),
+                        rs.getString("last_outcome")
+                ));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
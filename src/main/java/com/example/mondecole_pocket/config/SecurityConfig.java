@@ -1,12 +1,15 @@
 package com.example.mondecole_pocket.config;
 
 import com.example.mondecole_pocket.security.*;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.core.Ordered;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.logout.LogoutFilter;
@@ -20,22 +23,41 @@ public class SecurityConfig {
     private final JsonAccessDeniedHandler accessDeniedHandler;
     private final CorsConfigurationSource corsConfigurationSource;
     private final TenantFilter tenantFilter;
+    private final int maxLoginBodyBytes;
 
     public SecurityConfig(@Lazy JwtAuthenticationFilter jwtAuthenticationFilter,
                           JsonAuthenticationEntryPoint authenticationEntryPoint,
                           JsonAccessDeniedHandler accessDeniedHandler,
                           CorsConfigurationSource corsConfigurationSource,
-                          TenantFilter tenantFilter) {
+                          TenantFilter tenantFilter,
+                          @Value("${app.security.login.max-body-bytes:8192}") int maxLoginBodyBytes) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
         this.authenticationEntryPoint = authenticationEntryPoint;
         this.accessDeniedHandler = accessDeniedHandler;
         this.corsConfigurationSource = corsConfigurationSource;
         this.tenantFilter = tenantFilter;
+        this.maxLoginBodyBytes = maxLoginBodyBytes;
     }
 
+    /**
+     * Coût BCrypt cible configurable ; les hashes d'un autre coût sont
+     * recalculés au prochain login réussi (voir AuthService.login)
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.password.bcrypt-cost:10}") int bcryptCost) {
+        return new UpgradingPasswordEncoder(bcryptCost);
+    }
+
+    /**
+     * URLs média signées : servies par SignedMediaFilter avant la chaîne Spring Security
+     * (pas de JWT, pas de tenant, pas de base pour chaque morceau de vidéo)
+     */
+    @Bean
+    public FilterRegistrationBean<SignedMediaFilter> signedMediaFilterRegistration(SignedMediaFilter signedMediaFilter) {
+        FilterRegistrationBean<SignedMediaFilter> registration = new FilterRegistrationBean<>(signedMediaFilter);
+        registration.addUrlPatterns(SignedMediaUrls.PATH_PREFIX + "*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
     }
 
     @Bean
@@ -49,12 +71,17 @@ public class SecurityConfig {
                         .accessDeniedHandler(accessDeniedHandler)
                 )
                 .authorizeHttpRequests(auth -> auth
+                        // Réponses en streaming (StreamingResponseBody) : la requête d'origine est déjà
+                        // autorisée, le dispatch ASYNC de fin n'a plus de JWT à relire
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        // Benchmarks CPU/mémoire : jamais anonymes (les @PreAuthorize ne sont pas actifs)
+                        .requestMatchers("/api/benchmark/**").hasRole("ADMIN")
                         .requestMatchers(
                                 "/api/health",
-                                "/api/benchmark/**",
                                 "/error",
                                 "/api/auth/**",
                                 "/api/public/**",
+                                "/api/media/**",
                                 "/swagger-ui/**",
                                 "/v3/api-docs/**",
                                 "/actuator/health",
@@ -65,7 +92,7 @@ public class SecurityConfig {
                 )
                 // ← ORDRE ORIGINAL RESTAURÉ (évite le "no registered order" de Spring Security 7)
                 // 1. CachedBodyFilter — met le body en cache
-                .addFilterAfter(new CachedBodyFilter(), LogoutFilter.class)
+                .addFilterAfter(new CachedBodyFilter(maxLoginBodyBytes), LogoutFilter.class)
                 // 2. TenantFilter — extrait l'orgId (passe au suivant si absent, 401 géré par Spring Security)
                 .addFilterAfter(tenantFilter, CachedBodyFilter.class)
                 // 3. JwtAuthenticationFilter — valide le JWT et popule le SecurityContext
@@ -0,0 +1,235 @@
+package com.example.mondecole_pocket.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * RedisCacheManager whose caches are built from {@link CacheSpec}:
+ * TTL, null caching, serialized size budget and optional L1 per cache name.
+ */
+@Slf4j
+class TunedRedisCacheManager extends RedisCacheManager {
+
+    private final Map<String, CacheSpec> specs;
+    private final RedisSerializer<Object> valueSerializer;
+    private final MeterRegistry meterRegistry;
+
+    TunedRedisCacheManager(RedisCacheWriter cacheWriter,
+                           Map<String, CacheSpec> specs,
+                           RedisSerializer<Object> valueSerializer,
+                           MeterRegistry meterRegistry) {
+        super(cacheWriter, RedisCacheConfiguration.defaultCacheConfig(), true);
+        this.specs = specs;
+        this.valueSerializer = valueSerializer;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** Ignore the generic configuration: every cache gets the one derived from its spec */
+    @Override
+    protected RedisCache createRedisCache(String name, RedisCacheConfiguration ignored) {
+        CacheSpec spec = CacheSpec.resolve(specs, name);
+
+        RedisSerializer<Object> serializer = spec.hasByteBudget()
+                ? new BudgetedSerializer(valueSerializer, name, spec.maxEntryBytes().toBytes(), meterRegistry)
+                : valueSerializer;
+
+        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(spec.ttl())
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer));
+        if (!spec.nullCaching()) {
+            config = config.disableCachingNullValues();
+        }
+
+        log.info("🗄️ Cache '{}': ttl={}, maxEntryBytes={}, l1MaxSize={}, nullCaching={}",
+                name, spec.ttl(), spec.maxEntryBytes(), spec.l1MaxSize(), spec.nullCaching());
+
+        return super.createRedisCache(name, config);
+    }
+
+    /**
+     * L1 goes inside the transaction-aware decorator, not around it: puts and
+     * evicts made in a transaction reach Redis and L1 together after commit,
+     * so a rolled-back value never lands in memory.
+     * <p>
+     * Puts are best-effort underneath it: a deferred put runs after commit,
+     * outside any {@code CacheErrorHandler}, so a refused or failed write must
+     * not surface to the caller that already has its value.
+     */
+    @Override
+    protected Cache decorateCache(Cache cache) {
+        CacheSpec spec = CacheSpec.resolve(specs, cache.getName());
+        if (!spec.l1Enabled()) {
+            return super.decorateCache(new BestEffortPutCache(cache, meterRegistry));
+        }
+
+        com.github.benmanes.caffeine.cache.Cache<Object, Cache.ValueWrapper> local = Caffeine.newBuilder()
+                .maximumSize(spec.l1MaxSize())
+                .expireAfterWrite(spec.ttl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, cache.getName() + ".l1");
+
+        // Redis avant L1 dans TwoLevelCache : une écriture refusée n'atteint jamais la mémoire
+        return super.decorateCache(new BestEffortPutCache(
+                new TwoLevelCache(cache, local, spec.nullCaching()), meterRegistry));
+    }
+
+    /** Thrown when a serialized value exceeds the cache byte budget */
+    static class CacheEntryTooLargeException extends SerializationException {
+        CacheEntryTooLargeException(String cacheName, int size, long budget) {
+            super("Entry of " + size + " bytes exceeds budget of " + budget + " bytes for cache '" + cacheName + "'");
+        }
+    }
+
+    /** Refuse values whose serialized form exceeds the budget (counted in cache.entries.rejected) */
+    static class BudgetedSerializer implements RedisSerializer<Object> {
+
+        private final RedisSerializer<Object> delegate;
+        private final String cacheName;
+        private final long maxBytes;
+        private final Counter rejected;
+
+        BudgetedSerializer(RedisSerializer<Object> delegate, String cacheName, long maxBytes, MeterRegistry registry) {
+            this.delegate = delegate;
+            this.cacheName = cacheName;
+            this.maxBytes = maxBytes;
+            this.rejected = Counter.builder("cache.entries.rejected")
+                    .description("Cache entries not written: over the byte budget or write error")
+                    .tag("cache", cacheName)
+                    .tag("reason", "oversize")
+                    .register(registry);
+        }
+
+        @Override
+        public byte[] serialize(Object value) throws SerializationException {
+            byte[] bytes = delegate.serialize(value);
+            if (bytes != null && bytes.length > maxBytes) {
+                rejected.increment();
+                throw new CacheEntryTooLargeException(cacheName, bytes.length, maxBytes);
+            }
+            return bytes;
+        }
+
+        @Override
+        public Object deserialize(byte[] bytes) throws SerializationException {
+            return delegate.deserialize(bytes);
+        }
+    }
+
+    /**
+     * Swallow put failures: oversized entries (already counted by the serializer)
+     * and Redis errors (counted in cache.entries.rejected, reason=error).
+     * Reads and evictions still propagate.
+     */
+    static class BestEffortPutCache implements Cache {
+
+        private final Cache delegate;
+        private final Counter failed;
+
+        BestEffortPutCache(Cache delegate, MeterRegistry registry) {
+            this.delegate = delegate;
+            this.failed = Counter.builder("cache.entries.rejected")
+                    .description("Cache entries not written: over the byte budget or write error")
+                    .tag("cache", delegate.getName())
+                    .tag("reason", "error")
+                    .register(registry);
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return delegate.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            return delegate.get(key);
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            return delegate.get(key, type);
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            return delegate.get(key, valueLoader);
+        }
+
+        @Override
+        public CompletableFuture<?> retrieve(Object key) {
+            return delegate.retrieve(key);
+        }
+
+        @Override
+        public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+            return delegate.retrieve(key, valueLoader);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            try {
+                delegate.put(key, value);
+            } catch (RuntimeException e) {
+                refused(key, e);
+            }
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            try {
+                return delegate.putIfAbsent(key, value);
+            } catch (RuntimeException e) {
+                refused(key, e);
+                return null;
+            }
+        }
+
+        @Override
+        public void evict(Object key) {
+            delegate.evict(key);
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            return delegate.evictIfPresent(key);
+        }
+
+        @Override
+        public void clear() {
+            delegate.clear();
+        }
+
+        @Override
+        public boolean invalidate() {
+            return delegate.invalidate();
+        }
+
+        private void refused(Object key, RuntimeException e) {
+            if (!(e instanceof CacheEntryTooLargeException)) {
+                failed.increment();
+            }
+            log.warn("⚠️ Cache '{}' refused key {}: {}", delegate.getName(), key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.mondecole_pocket.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ════════════════════════════════════════════════════════
+ * VIRTUAL THREAD PINNING MONITOR (JFR)
+ * ════════════════════════════════════════════════════════
+ *
+ * In-process JFR stream on jdk.VirtualThreadPinned: a virtual thread that
+ * blocks while pinned to its carrier (synchronized block/method, native frame)
+ * for longer than `threshold` holds a carrier thread hostage.
+ *
+ * Each event is attributed to the first frame of our own code in its stack
+ * ("Class.method", "other" if the pinning happens entirely in a library)
+ * → jvm.threads.virtual.pinned{location}. The first occurrence of each
+ * location is logged with its top frames.
+ *
+ * Only active with spring.threads.virtual.enabled=true.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "app.virtual-threads.pinning.enabled", havingValue = "true", matchIfMissing = true)
+public class VirtualThreadPinningMonitor {
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final String APP_PACKAGE = "com.example.mondecole_pocket.";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final Set<String> loggedLocations = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${app.virtual-threads.pinning.threshold:20ms}") Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    @PostConstruct
+    void start() {
+        stream = new RecordingStream();
+        stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT, this::record);
+        stream.startAsync();
+        log.info("🧵 Détection du pinning des virtual threads active (seuil {})", threshold);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void record(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        String location = stackTrace == null ? "other" : appLocation(stackTrace);
+
+        Timer.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads blocked while pinned to their carrier, by first application frame")
+                .tag("location", location)
+                .register(meterRegistry)
+                .record(event.getDuration());
+
+        if (loggedLocations.add(location)) {
+            log.warn("📌 Virtual thread épinglé {} ms dans {} :\n{}",
+                    event.getDuration().toMillis(), location, topFrames(stackTrace));
+        }
+    }
+
+    private static String appLocation(RecordedStackTrace stackTrace) {
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith(APP_PACKAGE)) {
+                String simpleName = type.substring(type.lastIndexOf('.') + 1);
+                return simpleName + "." + frame.getMethod().getName();
+            }
+        }
+        return "other";
+    }
+
+    private static String topFrames(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "    (pas de stack)";
+        }
+        StringBuilder sb = new StringBuilder();
+        stackTrace.getFrames().stream().limit(LOGGED_FRAMES).forEach(frame -> sb
+                .append("    at ")
+                .append(frame.getMethod().getType().getName())
+                .append('.')
+                .append(frame.getMethod().getName())
+                .append(':')
+                .append(frame.getLineNumber())
+                .append('\n'));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.mondecole_pocket.controller;
+
+import com.example.mondecole_pocket.dto.PageResponse;
+import com.example.mondecole_pocket.dto.PurgeRequestResponse;
+import com.example.mondecole_pocket.security.TenantContext;
+import com.example.mondecole_pocket.service.PurgeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Avancement des purges asynchrones (suppression de cours / sections / users)
+ */
+@RestController
+@RequestMapping("/api/admin/purges")
+@RequiredArgsConstructor
+public class AdminPurgeController {
+
+    private final PurgeService purgeService;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PageResponse<PurgeRequestResponse>> listPurges(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(PageResponse.from(
+                purgeService.listPurges(TenantContext.getTenantId(), PageRequest.of(page, size))));
+    }
+
+    @GetMapping("/{purgeId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PurgeRequestResponse> getPurge(@PathVariable Long purgeId) {
+        return ResponseEntity.of(purgeService.getPurge(TenantContext.getTenantId(), purgeId));
+    }
+}
@@ -5,6 +5,7 @@ import com.example.mondecole_pocket.entity.User;
 import com.example.mondecole_pocket.exception.UserNotFoundException;
 import com.example.mondecole_pocket.repository.UserRepository;
 import com.example.mondecole_pocket.security.RefreshCookieFactory;
+import com.example.mondecole_pocket.security.UsernameDirectory;
 import com.example.mondecole_pocket.service.AuthService;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
@@ -29,6 +30,7 @@ public class AuthController {
     private final AuthService authService;
     private final UserRepository userRepository;
     private final RefreshCookieFactory cookieFactory;
+    private final UsernameDirectory usernameDirectory;
 
     // ════════════════════════════════════════════════════════
     // USER ORGANIZATION INFO
@@ -54,12 +56,18 @@ public class AuthController {
     public ResponseEntity<UserOrganizationInfo> getUserOrganization(@RequestParam String username) {
         log.debug("Getting organization info for username: {}", username);
 
+        // ✅ Username inconnu → rejeté sans toucher Postgres (Bloom + cache négatif)
+        if (usernameDirectory.isDefinitelyUnknown(username)) {
+            throw new UserNotFoundException("User not found");
+        }
+
         // ✅ Utiliser JOIN FETCH pour éviter LazyInitializationException
-        User user = userRepository.findByUsernameWithOrganization(username)
-                .orElseThrow(() -> {
-                    log.warn("User not found: {}", username);
-                    return new UserNotFoundException("User not found");
-                });
+        User user = userRepository.findByUsernameWithOrganization(username).orElse(null);
+        usernameDirectory.recordLookup(username, user != null);
+        if (user == null) {
+            log.warn("User not found: {}", username);
+            throw new UserNotFoundException("User not found");
+        }
 
         // ✅ Organization est chargée, pas d'erreur
         UserOrganizationInfo info = new UserOrganizationInfo(
@@ -1,30 +1,84 @@
 package com.example.mondecole_pocket.controller;
 
+import com.example.mondecole_pocket.dto.CourseOutline;
 import com.example.mondecole_pocket.dto.UserStatsResponse;
+import com.example.mondecole_pocket.entity.CourseEnrollment;
+import com.example.mondecole_pocket.entity.LessonProgress;
+import com.example.mondecole_pocket.entity.enums.CourseLevel;
 import com.example.mondecole_pocket.entity.enums.UserRole;
+import com.example.mondecole_pocket.security.LoginBodyReader;
+import com.example.mondecole_pocket.security.PasswordHasher;
+import com.example.mondecole_pocket.security.SignedMediaUrls;
+import com.example.mondecole_pocket.security.UpgradingPasswordEncoder;
 import com.example.mondecole_pocket.service.AdminUserService;
+import com.example.mondecole_pocket.service.StudentCourseDetailWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.annotation.Timed;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Micro-benchmarks run on demand. ADMIN only: SecurityConfig guards
+ * /api/benchmark/** (every endpoint burns CPU or memory by design).
+ */
 @Slf4j
 @RestController
 @RequestMapping("/api/benchmark")
 @RequiredArgsConstructor
 public class BenchmarkController {
 
+    private static final int MAX_BCRYPT_COSTS = 3;
+    private static final int MAX_BCRYPT_COST = 14;
+    private static final int MAX_BCRYPT_SAMPLES = 10;
+    private static final int MAX_LOGIN_EXTRACTION_ITERATIONS = 1_000_000;
+    private static final int MAX_SERIALIZATION_LESSONS = 1_000;
+    private static final int MAX_SERIALIZATION_ITERATIONS = 500;
+    private static final int MAX_MEDIA_CHUNK_KB = 1024;
+    private static final int MAX_MEDIA_CHUNKS = 1_000;
+    private static final int MAX_MEDIA_CONCURRENCY = 8;
+
     private final AdminUserService adminUserService;
     private final MeterRegistry meterRegistry;
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final ObjectMapper objectMapper;
+    private final StudentCourseDetailWriter courseDetailWriter;
+    private final SignedMediaUrls signedMediaUrls;
 
     @GetMapping("/students/stats")
     @Timed(value = "benchmark.users.slow", description = "Time to fetch user stats (slow version)")
@@ -239,4 +293,377 @@ public class BenchmarkController {
 
         return ResponseEntity.ok(result);
     }
-}
\ No newline at end of file
+
+    // ════════════════════════════════════════════════════════
+    // LOGIN : résolution du tenant depuis le body
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Login body parsing throughput: legacy regex (Pattern compiled per call on a
+     * decoded String) vs streaming Jackson scan of the cached bytes.
+     */
+    @GetMapping("/login/tenant-extraction")
+    public ResponseEntity<Map<String, Object>> benchmarkLoginTenantExtraction(
+            @RequestParam(name = "iterations", defaultValue = "200000") int requestedIterations
+    ) {
+        int iterations = Math.clamp(requestedIterations, 1, MAX_LOGIN_EXTRACTION_ITERATIONS);
+        log.info("📊 Starting login tenant extraction benchmark ({} iterations)", iterations);
+
+        byte[] body = "{\"username\":\"eleve.martin\",\"password\":\"Sup3r-Secret!\",\"rememberMe\":true}"
+                .getBytes(StandardCharsets.UTF_8);
+
+        // Warm-up JIT des deux chemins
+        runLoginExtraction(iterations / 10, () -> legacyExtractUsername(body));
+        runLoginExtraction(iterations / 10, () -> LoginBodyReader.readUsername(body));
+
+        long regexNs = runLoginExtraction(iterations, () -> legacyExtractUsername(body));
+        long streamingNs = runLoginExtraction(iterations, () -> LoginBodyReader.readUsername(body));
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("iterations", iterations);
+        result.put("regexNsPerOp", regexNs / iterations);
+        result.put("streamingNsPerOp", streamingNs / iterations);
+        result.put("regexOpsPerSecond", (long) (iterations / (regexNs / 1_000_000_000.0)));
+        result.put("streamingOpsPerSecond", (long) (iterations / (streamingNs / 1_000_000_000.0)));
+        result.put("speedupFactor", String.format("%.1fx", (double) regexNs / streamingNs));
+
+        log.info("📈 Login extraction: regex={}ns/op, streaming={}ns/op",
+                regexNs / iterations, streamingNs / iterations);
+
+        return ResponseEntity.ok(result);
+    }
+
+    private long runLoginExtraction(int iterations, Supplier<String> extraction) {
+        int sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            String username = extraction.get();
+            sink += username != null ? username.length() : 0;
+        }
+        long duration = System.nanoTime() - start;
+        if (sink == 42) {
+            log.trace("sink {}", sink);
+        }
+        return duration;
+    }
+
+    /** Ancienne implémentation de TenantFilter (référence du benchmark) */
+    private static String legacyExtractUsername(byte[] body) {
+        String json = new String(body, StandardCharsets.UTF_8);
+        Matcher matcher = Pattern.compile("\"username\"\\s*:\\s*\"([^\"]+)\"").matcher(json);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    // ════════════════════════════════════════════════════════
+    // PASSWORD HASHING - coût BCrypt
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Verify time per BCrypt cost on this node, and the login throughput it
+     * allows when every core hashes (see app.security.password.bcrypt-cost).
+     *
+     * ADMIN only, bounded (3 costs ≤ 14, 10 samples) and run on the
+     * PasswordHasher pool: it queues behind logins and gets 503 when the pool
+     * is saturated instead of taking every core.
+     */
+    @GetMapping("/password/bcrypt")
+    public ResponseEntity<Map<String, Object>> benchmarkBcryptCost(
+            @RequestParam(defaultValue = "8,10,12") List<Integer> costs,
+            @RequestParam(defaultValue = "5") int samples
+    ) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int sampleCount = Math.clamp(samples, 1, MAX_BCRYPT_SAMPLES);
+        List<Integer> measuredCosts = costs.stream()
+                .filter(cost -> cost >= 4 && cost <= MAX_BCRYPT_COST)
+                .distinct()
+                .limit(MAX_BCRYPT_COSTS)
+                .toList();
+        log.info("📊 Starting BCrypt benchmark (costs={}, samples={}, cores={})", measuredCosts, sampleCount, cores);
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (int cost : measuredCosts) {
+            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+            String hash = passwordHasher.runBenchmark(() -> {
+                String encoded = encoder.encode("Sup3r-Secret!");
+                encoder.matches("Sup3r-Secret!", encoded); // warm-up
+                return encoded;
+            });
+
+            long totalNs = 0;
+            long maxNs = 0;
+            for (int i = 0; i < sampleCount; i++) {
+                // Mesuré dans la tâche : l'attente dans la file n'est pas comptée
+                long duration = passwordHasher.runBenchmark(() -> {
+                    long start = System.nanoTime();
+                    encoder.matches("Sup3r-Secret!", hash);
+                    return System.nanoTime() - start;
+                });
+                totalNs += duration;
+                maxNs = Math.max(maxNs, duration);
+            }
+
+            double avgMs = totalNs / (double) sampleCount / 1_000_000.0;
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("cost", cost);
+            entry.put("verifyAvgMs", Math.round(avgMs * 100) / 100.0);
+            entry.put("verifyMaxMs", Math.round(maxNs / 10_000.0) / 100.0);
+            entry.put("maxLoginsPerSecond", (long) (cores * 1000 / avgMs));
+            results.add(entry);
+
+            log.info("📈 BCrypt cost {}: {}ms/verify", cost, String.format("%.2f", avgMs));
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("availableProcessors", cores);
+        result.put("samples", sampleCount);
+        result.put("results", results);
+        if (passwordEncoder instanceof UpgradingPasswordEncoder upgrading) {
+            result.put("configuredCost", upgrading.getTargetCost());
+        }
+
+        return ResponseEntity.ok(result);
+    }
+
+    // ════════════════════════════════════════════════════════
+    // COURSE DETAIL : records + byte[] vs JsonGenerator en streaming
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Serialization of a synthetic course (`lessons` lessons, no database):
+     * StudentCourseDetailWriter into a byte[] copied to the output (whole body
+     * in memory, as a buffering converter does) vs streaming to the output.
+     * Reports bytes on the wire (identity / gzip) and bytes allocated per
+     * response on the calling thread.
+     */
+    @GetMapping("/course-detail/serialization")
+    public ResponseEntity<Map<String, Object>> benchmarkCourseDetailSerialization(
+            @RequestParam(defaultValue = "300") int lessons,
+            @RequestParam(name = "iterations", defaultValue = "200") int requestedIterations
+    ) throws IOException {
+        int lessonCount = Math.clamp(lessons, 1, MAX_SERIALIZATION_LESSONS);
+        int iterations = Math.clamp(requestedIterations, 1, MAX_SERIALIZATION_ITERATIONS);
+        log.info("📊 Starting course detail serialization benchmark ({} lessons, {} iterations)",
+                lessonCount, iterations);
+
+        StudentCourseDetailWriter.Source source = syntheticCourseDetail(lessonCount);
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        courseDetailWriter.write(source, body);
+        byte[] buffered = body.toByteArray();
+
+        // Warm-up JIT des deux chemins
+        runSerialization(iterations / 10, out -> out.write(bufferCourseDetail(source)));
+        runSerialization(iterations / 10, out -> courseDetailWriter.write(source, out));
+
+        long[] bufferedRun = runSerialization(iterations, out -> out.write(bufferCourseDetail(source)));
+        long[] streamingRun = runSerialization(iterations, out -> courseDetailWriter.write(source, out));
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("lessons", lessonCount);
+        result.put("iterations", iterations);
+        result.put("responseBytes", buffered.length);
+        result.put("gzipBytes", gzipSize(buffered));
+        result.put("bufferedNsPerOp", bufferedRun[0] / iterations);
+        result.put("streamingNsPerOp", streamingRun[0] / iterations);
+        result.put("bufferedAllocatedBytesPerOp", bufferedRun[1] / iterations);
+        result.put("streamingAllocatedBytesPerOp", streamingRun[1] / iterations);
+
+        log.info("📈 Course detail ({} lessons): {} bytes ({} gzip), alloc buffered={}B/op streaming={}B/op",
+                lessonCount, buffered.length, result.get("gzipBytes"),
+                bufferedRun[1] / iterations, streamingRun[1] / iterations);
+
+        return ResponseEntity.ok(result);
+    }
+
+    // ════════════════════════════════════════════════════════
+    // MEDIA : chaîne complète (JWT + tenant + accès) vs URL signée
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Range requests of `chunkKb` KB over loopback on an existing lesson file:
+     * /api/student/lessons/{id}/file with the caller's bearer token (security
+     * chain, tenant, access check) vs the signed /api/media URL (HMAC only).
+     * Call it with the Authorization header of an admin who can read the lesson
+     * (author of the course), like every /api/benchmark endpoint.
+     */
+    @GetMapping("/media/throughput")
+    public ResponseEntity<Map<String, Object>> benchmarkMediaThroughput(
+            @RequestParam Long lessonId,
+            @RequestParam(defaultValue = "256") int chunkKb,
+            @RequestParam(defaultValue = "200") int chunks,
+            @RequestParam(defaultValue = "4") int concurrency,
+            @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+            HttpServletRequest request
+    ) throws Exception {
+        int chunkBytes = Math.clamp(chunkKb, 1, MAX_MEDIA_CHUNK_KB) * 1024;
+        int chunkCount = Math.clamp(chunks, 1, MAX_MEDIA_CHUNKS);
+        int threads = Math.clamp(concurrency, 1, MAX_MEDIA_CONCURRENCY);
+        String base = "http://127.0.0.1:" + request.getLocalPort();
+        log.info("📊 Starting media throughput benchmark (lesson={}, {} x {}KB, concurrency={})",
+                lessonId, chunkCount, chunkBytes / 1024, threads);
+
+        long[] fullPath;
+        long[] signed;
+        String signedUrl;
+        // Client fermé en sortie (AutoCloseable depuis Java 21) : ses threads et connexions avec
+        try (HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            HttpResponse<byte[]> issued = client.send(HttpRequest.newBuilder(
+                            URI.create(base + "/api/student/lessons/" + lessonId + "/file-url"))
+                    .header(HttpHeaders.AUTHORIZATION, authorization).build(), HttpResponse.BodyHandlers.ofByteArray());
+            if (issued.statusCode() != 200) {
+                return ResponseEntity.status(issued.statusCode())
+                        .body(Map.of("error", "Could not issue a signed URL for lesson " + lessonId));
+            }
+            signedUrl = base + objectMapper.readTree(issued.body()).get("url").asText();
+            String fullPathUrl = base + "/api/student/lessons/" + lessonId + "/file";
+
+            // Warm-up des deux chemins
+            runRangeRequests(client, fullPathUrl, authorization, chunkBytes, Math.max(chunkCount / 10, 1), threads);
+            runRangeRequests(client, signedUrl, null, chunkBytes, Math.max(chunkCount / 10, 1), threads);
+
+            fullPath = runRangeRequests(client, fullPathUrl, authorization, chunkBytes, chunkCount, threads);
+            signed = runRangeRequests(client, signedUrl, null, chunkBytes, chunkCount, threads);
+        }
+
+        // Coût de la vérification seule (ce qui remplace JWT + tenant + base)
+        String token = signedUrl.substring(signedUrl.indexOf("token=") + 6);
+        int verifications = 20_000;
+        for (int i = 0; i < verifications / 10; i++) {
+            signedMediaUrls.verify(token);
+        }
+        long verifyStart = System.nanoTime();
+        for (int i = 0; i < verifications; i++) {
+            signedMediaUrls.verify(token);
+        }
+        long verifyNs = (System.nanoTime() - verifyStart) / verifications;
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("lessonId", lessonId);
+        result.put("chunkBytes", chunkBytes);
+        result.put("chunks", chunkCount);
+        result.put("concurrency", threads);
+        result.put("fullPath", throughput(fullPath, chunkCount));
+        result.put("signedUrl", throughput(signed, chunkCount));
+        result.put("hmacVerifyNsPerOp", verifyNs);
+
+        log.info("📈 Media ({}KB chunks): full path {} chunks/s, signed URL {} chunks/s, verify {}ns",
+                chunkBytes / 1024, ((Map<?, ?>) result.get("fullPath")).get("chunksPerSecond"),
+                ((Map<?, ?>) result.get("signedUrl")).get("chunksPerSecond"), verifyNs);
+
+        return ResponseEntity.ok(result);
+    }
+
+    /** @return {durée ns, octets reçus, réponses autres que 200/206} */
+    private static long[] runRangeRequests(HttpClient client, String url, String authorization,
+                                           int chunkBytes, int count, int threads) throws Exception {
+        AtomicLong bytes = new AtomicLong();
+        AtomicLong failures = new AtomicLong();
+        AtomicInteger next = new AtomicInteger();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(executor.submit(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < count) {
+                        // Morceaux successifs depuis le début : bornés par la taille réelle côté serveur
+                        long first = (long) (i % 16) * chunkBytes;
+                        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                                .header(HttpHeaders.RANGE, "bytes=" + first + "-" + (first + chunkBytes - 1));
+                        if (authorization != null) {
+                            builder.header(HttpHeaders.AUTHORIZATION, authorization);
+                        }
+                        HttpResponse<byte[]> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+                        if (response.statusCode() == 200 || response.statusCode() == 206) {
+                            bytes.addAndGet(response.body().length);
+                        } else {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+        return new long[]{System.nanoTime() - start, bytes.get(), failures.get()};
+    }
+
+    private static Map<String, Object> throughput(long[] run, int count) {
+        double seconds = run[0] / 1_000_000_000.0;
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("totalMs", run[0] / 1_000_000);
+        entry.put("chunksPerSecond", Math.round(count / seconds));
+        entry.put("megabytesPerSecond", Math.round(run[1] / seconds / (1024 * 1024) * 10) / 10.0);
+        entry.put("avgLatencyUs", run[0] / count / 1000);
+        entry.put("failures", run[2]);
+        return entry;
+    }
+
+    private interface Serialization {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /** Corps entier en mémoire puis copié : ce que fait un converter qui bufferise */
+    private byte[] bufferCourseDetail(StudentCourseDetailWriter.Source source) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        courseDetailWriter.write(source, body);
+        return body.toByteArray();
+    }
+
+    /** @return {durée ns, octets alloués par le thread courant} */
+    private long[] runSerialization(int iterations, Serialization serialization) throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        OutputStream sink = OutputStream.nullOutputStream();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            serialization.writeTo(sink);
+        }
+        long duration = System.nanoTime() - start;
+        return new long[]{duration, threads.getCurrentThreadAllocatedBytes() - allocatedBefore};
+    }
+
+    private static int gzipSize(byte[] body) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        }
+        return compressed.size();
+    }
+
+    /** Cours publié de `lessonCount` leçons (15 par section), élève inscrit ayant suivi une leçon sur deux */
+    private static StudentCourseDetailWriter.Source syntheticCourseDetail(int lessonCount) {
+        List<CourseOutline.SectionInfo> sections = new ArrayList<>();
+        Map<Long, LessonProgress> progress = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int first = 0; first < lessonCount; first += 15) {
+            int sectionIndex = first / 15;
+            List<CourseOutline.LessonInfo> lessonInfos = new ArrayList<>();
+            for (int i = first; i < Math.min(first + 15, lessonCount); i++) {
+                long lessonId = 1000L + i;
+                lessonInfos.add(new CourseOutline.LessonInfo(lessonId,
+                        "Leçon " + (i + 1) + " : exercices corrigés et points clés du chapitre",
+                        i % 3 == 0 ? "VIDEO" : "TEXT", i - first, 600));
+                if (i % 2 == 0) {
+                    progress.put(lessonId, LessonProgress.builder()
+                            .lessonId(lessonId).completed(i % 4 == 0).progressPercent(i % 4 == 0 ? 100 : 40).build());
+                }
+            }
+            sections.add(new CourseOutline.SectionInfo(100L + sectionIndex, "Chapitre " + (sectionIndex + 1),
+                    "Objectifs et déroulé du chapitre " + (sectionIndex + 1), sectionIndex, lessonInfos));
+        }
+
+        CourseOutline outline = new CourseOutline(1L, 1L, "Mathématiques — Terminale", "mathematiques-terminale",
+                "Programme complet de terminale", "Description longue du cours ".repeat(20), "Mathématiques",
+                CourseLevel.ADVANCED, 120, null, "fr", "Maîtriser le programme", "Première validée",
+                new CourseOutline.TeacherInfo(7L, "prof.durand", "Claire Durand"), sections, lessonCount, now);
+
+        CourseEnrollment enrollment = CourseEnrollment.builder()
+                .id(42L).progressPercent(35).completed(false).enrolledAt(now.minusDays(30)).lastAccessedAt(now).build();
+
+        return new StudentCourseDetailWriter.Source(outline, enrollment, progress, 250);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.mondecole_pocket.controller;
+
+import org.springframework.http.CacheControl;
+
+import java.time.Duration;
+
+/**
+ * Cache-Control for per-user responses: never stored by shared caches,
+ * revalidated with the ETag once max-age has elapsed (immediately if 0).
+ */
+final class HttpCaching {
+
+    private HttpCaching() {
+    }
+
+    static CacheControl privateCache(Duration maxAge) {
+        CacheControl cacheControl = maxAge.isZero() ? CacheControl.noCache() : CacheControl.maxAge(maxAge).mustRevalidate();
+        return cacheControl.cachePrivate();
+    }
+}
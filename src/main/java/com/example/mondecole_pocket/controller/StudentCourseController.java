@@ -2,18 +2,33 @@ package com.example.mondecole_pocket.controller;
 
 import com.example.mondecole_pocket.dto.*;
 import com.example.mondecole_pocket.security.CustomUserDetails;
+import com.example.mondecole_pocket.security.TenantContext;
+import com.example.mondecole_pocket.service.ContentVersionService;
+import com.example.mondecole_pocket.service.CoursePackageService;
 import com.example.mondecole_pocket.service.StudentCourseService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 
 @Slf4j
 @RestController
@@ -22,6 +37,15 @@ import org.springframework.web.bind.annotation.*;
 public class StudentCourseController {
 
     private final StudentCourseService studentCourseService;
+    private final ContentVersionService contentVersionService;
+    private final CoursePackageService coursePackageService;
+
+    // Cache-Control par endpoint (privé : réponses propres à l'élève ; revalidation via ETag)
+    @Value("${app.http.cache.catalog-max-age:30s}")
+    private Duration catalogMaxAge;
+
+    @Value("${app.http.cache.course-detail-max-age:0s}")
+    private Duration courseDetailMaxAge;
 
     /**
      * Browse course catalog
@@ -31,13 +55,23 @@ public class StudentCourseController {
     public ResponseEntity<Page<StudentCourseListResponse>> browseCatalog(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "12") int size,
-            @AuthenticationPrincipal CustomUserDetails currentUser
+            @AuthenticationPrincipal CustomUserDetails currentUser,
+            WebRequest webRequest
     ) {
+        // ✅ 304 avant toute requête lourde
+        String etag = contentVersionService.catalog(TenantContext.getTenantId(), currentUser.getId(), page, size);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
         Pageable pageable = PageRequest.of(page, size, Sort.by("publishedAt").descending());
         Page<StudentCourseListResponse> courses = studentCourseService.browseCourses(
                 currentUser.getId(), pageable);
 
-        return ResponseEntity.ok(courses);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(HttpCaching.privateCache(catalogMaxAge))
+                .body(courses);
     }
 
     /**
@@ -63,14 +97,48 @@ public class StudentCourseController {
      */
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('STUDENT', 'TEACHER', 'ADMIN')")
-    public ResponseEntity<StudentCourseDetailResponse> getCourseDetail(
+    public ResponseEntity<StreamingResponseBody> getCourseDetail(
             @PathVariable Long id,
-            @AuthenticationPrincipal CustomUserDetails currentUser
+            @AuthenticationPrincipal CustomUserDetails currentUser,
+            WebRequest webRequest
     ) {
-        StudentCourseDetailResponse course = studentCourseService.getCourseDetail(
-                id, currentUser.getId());
+        // ✅ 304 avant le fan-out (outline, inscription, progression, nombre d'élèves)
+        String etag = contentVersionService.courseDetail(TenantContext.getTenantId(), id, currentUser.getId());
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        // ✅ Sérialisé en streaming (JsonGenerator) : pas de records par leçon ni de corps en mémoire
+        StreamingResponseBody course = studentCourseService.streamCourseDetail(id, currentUser.getId());
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(HttpCaching.privateCache(courseDetailMaxAge))
+                .body(course);
+    }
+
+    /**
+     * Offline package (ZIP: outline, lessons, downloadable files)
+     *
+     * Écrit sur le thread de la requête, comme les fichiers de leçon : pas de
+     * timeout async sur un téléchargement de plusieurs minutes.
+     */
+    @GetMapping("/{id}/package")
+    @PreAuthorize("hasAnyRole('STUDENT', 'TEACHER', 'ADMIN')")
+    public void downloadCoursePackage(
+            @PathVariable Long id,
+            @AuthenticationPrincipal CustomUserDetails currentUser,
+            HttpServletResponse response
+    ) throws IOException {
+        // ✅ Accès vérifié avant le premier octet : les erreurs restent des réponses JSON
+        CoursePackageService.CoursePackage coursePackage = coursePackageService.preparePackage(id, currentUser.getId());
 
-        return ResponseEntity.ok(course);
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(coursePackage.fileName(), StandardCharsets.UTF_8).build().toString());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+        coursePackageService.write(coursePackage, response.getOutputStream());
     }
 
     /**
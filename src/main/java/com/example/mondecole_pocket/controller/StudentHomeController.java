@@ -0,0 +1,31 @@
+package com.example.mondecole_pocket.controller;
+
+import com.example.mondecole_pocket.dto.StudentHomeResponse;
+import com.example.mondecole_pocket.security.CustomUserDetails;
+import com.example.mondecole_pocket.service.StudentCourseService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/student/home")
+@RequiredArgsConstructor
+public class StudentHomeController {
+
+    private final StudentCourseService studentCourseService;
+
+    /**
+     * Home screen in one round trip: dashboard + catalog (page 0) + my-courses (page 0)
+     */
+    @GetMapping
+    @PreAuthorize("hasAnyRole('STUDENT', 'TEACHER', 'ADMIN')")
+    public ResponseEntity<StudentHomeResponse> getHome(
+            @AuthenticationPrincipal CustomUserDetails currentUser
+    ) {
+        return ResponseEntity.ok(studentCourseService.getHome(currentUser.getId()));
+    }
+}
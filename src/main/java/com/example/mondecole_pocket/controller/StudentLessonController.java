@@ -1,16 +1,33 @@
 package com.example.mondecole_pocket.controller;
 
 import com.example.mondecole_pocket.dto.LessonContentResponse;
+import com.example.mondecole_pocket.dto.LessonFileAccess;
+import com.example.mondecole_pocket.dto.SignedMediaUrlResponse;
 import com.example.mondecole_pocket.dto.UpdateLessonProgressRequest;
 import com.example.mondecole_pocket.security.CustomUserDetails;
+import com.example.mondecole_pocket.security.SignedMediaUrls;
+import com.example.mondecole_pocket.security.TenantContext;
+import com.example.mondecole_pocket.service.ContentVersionService;
+import com.example.mondecole_pocket.service.LessonFileService;
 import com.example.mondecole_pocket.service.LessonService;
+import com.example.mondecole_pocket.service.storage.FileRangeSender;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
 
 @Slf4j
 @RestController
@@ -19,6 +36,13 @@ import org.springframework.web.bind.annotation.*;
 public class StudentLessonController {
 
     private final LessonService lessonService;
+    private final ContentVersionService contentVersionService;
+    private final LessonFileService lessonFileService;
+    private final FileRangeSender fileRangeSender;
+    private final SignedMediaUrls signedMediaUrls;
+
+    @Value("${app.http.cache.lesson-content-max-age:0s}")
+    private Duration lessonContentMaxAge;
 
     /**
      * Get lesson content
@@ -27,10 +51,78 @@ public class StudentLessonController {
     @PreAuthorize("hasAnyRole('STUDENT', 'TEACHER', 'ADMIN')")
     public ResponseEntity<LessonContentResponse> getLessonContent(
             @PathVariable Long id,
-            @AuthenticationPrincipal CustomUserDetails currentUser
+            @AuthenticationPrincipal CustomUserDetails currentUser,
+            WebRequest webRequest
     ) {
+        // ✅ Contenu inchangé → 304 sans relire le TEXT ; la vue est quand même comptée
+        String etag = contentVersionService.lessonContent(TenantContext.getTenantId(), id, currentUser.getId());
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            lessonService.recordLessonView(id, currentUser.getId());
+            return null;
+        }
+
         LessonContentResponse lesson = lessonService.getLessonContent(id, currentUser.getId());
-        return ResponseEntity.ok(lesson);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(HttpCaching.privateCache(lessonContentMaxAge))
+                .body(lesson);
+    }
+
+    /**
+     * Lesson file (Range / 206 for video seeking)
+     *
+     * ?download=true → attachment, refusé si la leçon n'est pas téléchargeable ;
+     * sinon lecture inline (streaming).
+     */
+    @GetMapping("/{id}/file")
+    @PreAuthorize("hasAnyRole('STUDENT', 'TEACHER', 'ADMIN')")
+    public void getLessonFile(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean download,
+            @AuthenticationPrincipal CustomUserDetails currentUser,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        Long organizationId = TenantContext.getTenantId();
+        LessonFileAccess file = lessonFileService.resolveAccess(organizationId, id, currentUser.getId());
+
+        if (download && !Boolean.TRUE.equals(file.downloadable())) {
+            throw new AccessDeniedException("This lesson file is not downloadable");
+        }
+
+        try {
+            fileRangeSender.send(file.storageKey(), file.fileName(), file.mimeType(), download, request, response);
+        } catch (NoSuchFileException e) {
+            // Fichier remplacé depuis la mise en cache de l'accès : on relit une fois
+            lessonFileService.evictAccess(organizationId, id, currentUser.getId());
+            file = lessonFileService.resolveAccess(organizationId, id, currentUser.getId());
+            fileRangeSender.send(file.storageKey(), file.fileName(), file.mimeType(), download, request, response);
+        }
+    }
+
+    /**
+     * Signed URL for the lesson file
+     *
+     * Accès vérifié une seule fois ici ; les requêtes Range suivantes
+     * (lecteur vidéo) passent par /api/media/... sans JWT ni base.
+     */
+    @GetMapping("/{id}/file-url")
+    @PreAuthorize("hasAnyRole('STUDENT', 'TEACHER', 'ADMIN')")
+    public ResponseEntity<SignedMediaUrlResponse> getLessonFileUrl(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean download,
+            @AuthenticationPrincipal CustomUserDetails currentUser
+    ) {
+        Long organizationId = TenantContext.getTenantId();
+        LessonFileAccess file = lessonFileService.resolveAccess(organizationId, id, currentUser.getId());
+
+        if (download && !Boolean.TRUE.equals(file.downloadable())) {
+            throw new AccessDeniedException("This lesson file is not downloadable");
+        }
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(signedMediaUrls.sign(organizationId, currentUser.getId(), file, download));
     }
 
     /**
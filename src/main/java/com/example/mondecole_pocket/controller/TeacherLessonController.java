@@ -2,7 +2,10 @@ package com.example.mondecole_pocket.controller;
 
 import com.example.mondecole_pocket.dto.*;
 import com.example.mondecole_pocket.security.CustomUserDetails;
+import com.example.mondecole_pocket.service.LessonFileService;
+import com.example.mondecole_pocket.service.LessonUploadService;
 import com.example.mondecole_pocket.service.TeacherLessonService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,7 +15,9 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.UUID;
 
 @Slf4j
 @RestController
@@ -21,6 +26,8 @@ import java.util.List;
 public class TeacherLessonController {
 
     private final TeacherLessonService teacherLessonService;
+    private final LessonFileService lessonFileService;
+    private final LessonUploadService lessonUploadService;
 
     /**
      * Get all lessons in a section (for editing)
@@ -108,6 +115,133 @@ public class TeacherLessonController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Upload / replace the lesson file (raw body streamed to storage, Content-Length required).
+     * With X-Content-Sha256, the received body is checked against it (422 on mismatch).
+     */
+    @PutMapping("/{lessonId}/file")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    public ResponseEntity<LessonFileResponse> uploadFile(
+            @PathVariable Long sectionId,
+            @PathVariable Long lessonId,
+            @RequestParam String fileName,
+            @RequestHeader(name = "X-Content-Sha256", required = false) String sha256,
+            @AuthenticationPrincipal CustomUserDetails currentUser,
+            HttpServletRequest request
+    ) throws IOException {
+        LessonFileResponse file = lessonFileService.upload(
+                sectionId,
+                lessonId,
+                currentUser.getId(),
+                fileName,
+                request.getContentType(),
+                sha256,
+                request.getContentLengthLong(),
+                request.getInputStream()
+        );
+        return ResponseEntity.ok(file);
+    }
+
+    /**
+     * Remove the lesson file (quota released)
+     */
+    @DeleteMapping("/{lessonId}/file")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    public ResponseEntity<Void> deleteFile(
+            @PathVariable Long sectionId,
+            @PathVariable Long lessonId,
+            @AuthenticationPrincipal CustomUserDetails currentUser
+    ) {
+        lessonFileService.deleteFile(sectionId, lessonId, currentUser.getId());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Start a chunked, resumable upload (total size reserved in the quota)
+     */
+    @PostMapping("/{lessonId}/uploads")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    public ResponseEntity<LessonUploadResponse> createUpload(
+            @PathVariable Long sectionId,
+            @PathVariable Long lessonId,
+            @Valid @RequestBody CreateLessonUploadRequest request,
+            @AuthenticationPrincipal CustomUserDetails currentUser
+    ) {
+        LessonUploadResponse upload = lessonUploadService.create(sectionId, lessonId, currentUser.getId(), request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(upload);
+    }
+
+    /**
+     * Upload status: receivedBytes is the offset to resume from
+     */
+    @GetMapping("/{lessonId}/uploads/{uploadId}")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    public ResponseEntity<LessonUploadResponse> getUpload(
+            @PathVariable Long sectionId,
+            @PathVariable Long lessonId,
+            @PathVariable UUID uploadId,
+            @AuthenticationPrincipal CustomUserDetails currentUser
+    ) {
+        return ResponseEntity.ok(lessonUploadService.getStatus(uploadId, lessonId, currentUser.getId()));
+    }
+
+    /**
+     * Append one chunk (raw body) at `offset`; optional X-Chunk-Sha256 verifies it
+     */
+    @PutMapping("/{lessonId}/uploads/{uploadId}")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    public ResponseEntity<LessonUploadResponse> uploadChunk(
+            @PathVariable Long sectionId,
+            @PathVariable Long lessonId,
+            @PathVariable UUID uploadId,
+            @RequestParam long offset,
+            @RequestHeader(name = "X-Chunk-Sha256", required = false) String chunkSha256,
+            @AuthenticationPrincipal CustomUserDetails currentUser,
+            HttpServletRequest request
+    ) throws IOException {
+        LessonUploadResponse upload = lessonUploadService.writeChunk(
+                uploadId,
+                lessonId,
+                currentUser.getId(),
+                offset,
+                request.getContentLengthLong(),
+                chunkSha256,
+                request.getInputStream()
+        );
+        return ResponseEntity.ok()
+                .header("Upload-Offset", String.valueOf(upload.receivedBytes()))
+                .body(upload);
+    }
+
+    /**
+     * Finalize: checksum verified, file attached to the lesson
+     */
+    @PostMapping("/{lessonId}/uploads/{uploadId}/complete")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    public ResponseEntity<LessonFileResponse> completeUpload(
+            @PathVariable Long sectionId,
+            @PathVariable Long lessonId,
+            @PathVariable UUID uploadId,
+            @AuthenticationPrincipal CustomUserDetails currentUser
+    ) throws IOException {
+        return ResponseEntity.ok(lessonUploadService.complete(uploadId, lessonId, currentUser.getId()));
+    }
+
+    /**
+     * Abort an upload (quota released, received bytes deleted)
+     */
+    @DeleteMapping("/{lessonId}/uploads/{uploadId}")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    public ResponseEntity<Void> abortUpload(
+            @PathVariable Long sectionId,
+            @PathVariable Long lessonId,
+            @PathVariable UUID uploadId,
+            @AuthenticationPrincipal CustomUserDetails currentUser
+    ) {
+        lessonUploadService.abort(uploadId, lessonId, currentUser.getId());
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Reorder lessons
      */
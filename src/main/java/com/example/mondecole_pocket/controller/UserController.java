@@ -4,10 +4,12 @@ import com.example.mondecole_pocket.dto.DashboardStatsResponse;
 import com.example.mondecole_pocket.dto.PageResponse;
 import com.example.mondecole_pocket.dto.UserResponse;
 import com.example.mondecole_pocket.entity.enums.UserRole;
+import com.example.mondecole_pocket.security.CustomUserDetails;
 import com.example.mondecole_pocket.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 
@@ -71,8 +73,11 @@ public class UserController {
 
     @DeleteMapping("/{userId}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Void> deleteUser(@PathVariable Long userId) {
-        userService.deleteUser(userId);
+    public ResponseEntity<Void> deleteUser(
+            @PathVariable Long userId,
+            @AuthenticationPrincipal CustomUserDetails currentUser
+    ) {
+        userService.deleteUser(userId, currentUser.getId());
         return ResponseEntity.ok().build();
     }
 }
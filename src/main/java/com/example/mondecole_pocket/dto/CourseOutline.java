@@ -0,0 +1,52 @@
+package com.example.mondecole_pocket.dto;
+
+import com.example.mondecole_pocket.entity.enums.CourseLevel;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Student-independent part of a published course (header + sections + lessons).
+ * Shared by every student of the organization, hence cached.
+ */
+public record CourseOutline(
+        Long id,
+        Long organizationId,
+        String title,
+        String slug,
+        String summary,
+        String description,
+        String category,
+        CourseLevel level,
+        Integer estimatedHours,
+        String thumbnailUrl,
+        String language,
+        String objectives,
+        String prerequisites,
+        TeacherInfo teacher,
+        List<SectionInfo> sections,
+        Integer totalLessons,
+        LocalDateTime publishedAt
+) {
+    public record TeacherInfo(
+            Long id,
+            String username,
+            String fullName
+    ) {}
+
+    public record SectionInfo(
+            Long id,
+            String title,
+            String description,
+            Integer orderIndex,
+            List<LessonInfo> lessons
+    ) {}
+
+    public record LessonInfo(
+            Long id,
+            String title,
+            String type,
+            Integer orderIndex,
+            Integer durationSeconds
+    ) {}
+}
@@ -0,0 +1,21 @@
+package com.example.mondecole_pocket.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+
+public record CreateLessonUploadRequest(
+        @NotBlank(message = "File name is required")
+        String fileName,
+
+        @Pattern(regexp = "^[\\w.+-]+/[\\w.+-]+$", message = "mimeType must be a type/subtype media type")
+        String mimeType,  // Optionnel : servi inline seulement pour vidéo, audio, images et PDF
+
+        @NotNull(message = "Total size is required")
+        @Positive(message = "Total size must be positive")
+        Long totalBytes,
+
+        @Pattern(regexp = "^[0-9a-fA-F]{64}$", message = "sha256 must be 64 hex characters")
+        String sha256  // Optionnel : vérifié à la finalisation
+) {}
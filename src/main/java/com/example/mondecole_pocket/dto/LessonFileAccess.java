@@ -0,0 +1,15 @@
+package com.example.mondecole_pocket.dto;
+
+/**
+ * Lesson file as seen by an authorized reader (enrolled student or course author).
+ * Cached per (organization, lesson, user): range requests of a video do not
+ * re-check enrollment.
+ */
+public record LessonFileAccess(
+        Long lessonId,
+        String storageKey,
+        String fileName,
+        String mimeType,
+        Long fileSizeBytes,
+        Boolean downloadable
+) {}
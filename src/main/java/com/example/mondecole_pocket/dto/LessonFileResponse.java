@@ -0,0 +1,9 @@
+package com.example.mondecole_pocket.dto;
+
+public record LessonFileResponse(
+        Long lessonId,
+        String fileUrl,
+        String fileName,
+        String mimeType,
+        Long fileSizeBytes
+) {}
@@ -0,0 +1,17 @@
+package com.example.mondecole_pocket.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * État d'une session d'upload : le client reprend à receivedBytes.
+ */
+public record LessonUploadResponse(
+        UUID uploadId,
+        Long lessonId,
+        String fileName,
+        long totalBytes,
+        long receivedBytes,
+        long maxChunkBytes,
+        LocalDateTime expiresAt
+) {}
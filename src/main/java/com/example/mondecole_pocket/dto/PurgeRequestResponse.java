@@ -0,0 +1,18 @@
+package com.example.mondecole_pocket.dto;
+
+import java.time.LocalDateTime;
+
+public record PurgeRequestResponse(
+        Long id,
+        String entityType,
+        Long entityId,
+        Long requestedBy,
+        String status,
+        String currentStep,
+        long rowsDeleted,
+        String lastError,
+        LocalDateTime createdAt,
+        LocalDateTime startedAt,
+        LocalDateTime updatedAt,
+        LocalDateTime finishedAt
+) {}
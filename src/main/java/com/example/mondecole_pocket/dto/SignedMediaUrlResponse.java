@@ -0,0 +1,12 @@
+package com.example.mondecole_pocket.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * URL signée d'un fichier de leçon, utilisable sans en-tête Authorization
+ * (balise video, lecteur natif) jusqu'à expiresAt.
+ */
+public record SignedMediaUrlResponse(
+        String url,
+        LocalDateTime expiresAt
+) {}
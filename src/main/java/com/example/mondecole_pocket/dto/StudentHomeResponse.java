@@ -0,0 +1,9 @@
+package com.example.mondecole_pocket.dto;
+
+import org.springframework.data.domain.Page;
+
+public record StudentHomeResponse(
+        StudentDashboardResponse dashboard,
+        Page<StudentCourseListResponse> catalog,
+        Page<StudentCourseListResponse> myCourses
+) {}
@@ -0,0 +1,16 @@
+package com.example.mondecole_pocket.dto;
+
+import com.example.mondecole_pocket.entity.enums.SubscriptionPlan;
+
+/**
+ * Cached view of an organization, used on the request hot path (TenantFilter).
+ */
+public record TenantSnapshot(
+        Long id,
+        String name,
+        String slug,
+        SubscriptionPlan plan,
+        Integer maxUsers,
+        Integer maxStorageMB,
+        boolean active
+) {}
@@ -4,12 +4,14 @@ import com.example.mondecole_pocket.entity.enums.CourseLevel;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "courses")
+@SQLRestriction("deleted_at IS NULL")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -88,4 +90,8 @@ public class Course {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
-}
\ No newline at end of file
+
+    // Soft delete : masqué par @SQLRestriction, supprimé ensuite par CascadePurgeHandler
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+}
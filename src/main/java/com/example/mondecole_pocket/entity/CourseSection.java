@@ -3,6 +3,7 @@ package com.example.mondecole_pocket.entity;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -11,6 +12,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "course_sections")
+@SQLRestriction("deleted_at IS NULL")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -52,4 +54,8 @@ public class CourseSection {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
-}
\ No newline at end of file
+
+    // Soft delete : masqué par @SQLRestriction, supprimé ensuite par CascadePurgeHandler
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+}
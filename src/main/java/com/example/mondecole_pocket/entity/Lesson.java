@@ -56,6 +56,10 @@ public class Lesson {
     @Column(name = "file_name", length = 500)
     private String fileName;
 
+    // Clé dans FileStorage (fichier hébergé par l'app), null sinon
+    @Column(name = "storage_key", length = 255)
+    private String storageKey;
+
     @Column(name = "duration_seconds")
     private Integer durationSeconds;
 
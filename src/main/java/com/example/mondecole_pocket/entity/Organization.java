@@ -89,6 +89,11 @@ public class Organization {
     @Builder.Default
     private Integer maxStorageMB = 1000;
 
+    // Mis à jour par UPDATE atomique (OrganizationRepository.reserveStorage / releaseStorage)
+    @Column(name = "storage_used_bytes", nullable = false)
+    @Builder.Default
+    private Long storageUsedBytes = 0L;
+
     @Column(nullable = false)
     @Builder.Default
     private boolean active = true;
@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.time.LocalDateTime;
 
@@ -17,6 +18,7 @@ import java.time.LocalDateTime;
                 @Index(name = "idx_user_org_username", columnList = "organization_id, username", unique = true)
         }*/
 )
+@SQLRestriction("deleted_at IS NULL")
 @Data
 @Builder
 @NoArgsConstructor
@@ -80,7 +82,15 @@ public class User {
 
     private LocalDateTime updatedAt;
 
+    // Soft delete : masqué par @SQLRestriction, supprimé ensuite par CascadePurgeHandler
+    private LocalDateTime deletedAt;
+
     public String getFullName() {
+        return fullName(firstName, lastName, username);
+    }
+
+    // Aussi utilisé par les projections qui ne chargent pas l'entité
+    public static String fullName(String firstName, String lastName, String username) {
         if (firstName == null && lastName == null) return username;
         return (firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "");
     }
@@ -0,0 +1,7 @@
+package com.example.mondecole_pocket.entity.enums;
+
+public enum PurgeTarget {
+    COURSE,
+    SECTION,
+    USER
+}
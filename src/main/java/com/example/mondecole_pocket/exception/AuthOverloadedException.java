@@ -0,0 +1,20 @@
+package com.example.mondecole_pocket.exception;
+
+import java.time.Duration;
+
+/**
+ * Password hashing capacity exhausted: the client should retry later (503 + Retry-After).
+ */
+public class AuthOverloadedException extends AppException {
+
+    private final Duration retryAfter;
+
+    public AuthOverloadedException(Duration retryAfter) {
+        super("Authentication is temporarily overloaded, retry later", ErrorCode.AUTH_OVERLOADED);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
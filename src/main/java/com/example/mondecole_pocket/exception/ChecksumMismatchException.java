@@ -0,0 +1,11 @@
+package com.example.mondecole_pocket.exception;
+
+/**
+ * Uploaded bytes do not match the SHA-256 announced by the client (422).
+ */
+public class ChecksumMismatchException extends AppException {
+
+    public ChecksumMismatchException(String expected, String actual) {
+        super("SHA-256 mismatch: expected " + expected + ", received " + actual, ErrorCode.CHECKSUM_MISMATCH);
+    }
+}
@@ -14,6 +14,11 @@ public enum ErrorCode {
     REFRESH_TOKEN_EXPIRED,
     REFRESH_TOKEN_REVOKED,
     TOO_MANY_SESSIONS,
+    AUTH_OVERLOADED,
+    QUERY_DEADLINE_EXCEEDED,
+    STORAGE_QUOTA_EXCEEDED,
+    UPLOAD_OFFSET_MISMATCH,
+    CHECKSUM_MISMATCH,
 
     USER_ALREADY_EXIST
     }
@@ -1,10 +1,16 @@
 package com.example.mondecole_pocket.exception;
 
 import com.example.mondecole_pocket.dto.ErrorResponse;
+import com.example.mondecole_pocket.security.JsonAccessDeniedHandler;
+import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.LockedException;
@@ -13,12 +19,16 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.io.IOException;
 import java.util.stream.Collectors;
 
 @Slf4j
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    private final JsonAccessDeniedHandler jsonAccessDeniedHandler;
+
     // ════════════════════════════════════════════════════════
     // VALIDATION ERRORS
     // ════════════════════════════════════════════════════════
@@ -99,6 +109,108 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
     }
 
+    // Sans ce handler, Exception.class en ferait une 500 : même corps que les refus de Spring Security
+    @ExceptionHandler(AccessDeniedException.class)
+    public void handleAccessDenied(
+            AccessDeniedException ex,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException, ServletException {
+
+        log.warn("Access denied: {} ({})", request.getRequestURI(), ex.getMessage());
+        jsonAccessDeniedHandler.handle(request, response, ex);
+    }
+
+    @ExceptionHandler(AuthOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleAuthOverloaded(
+            AuthOverloadedException ex,
+            HttpServletRequest request) {
+
+        log.warn("Auth overloaded: {}", request.getRequestURI());
+
+        ErrorResponse response = ErrorResponse.of(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                ex.getErrorCode().name(),
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(response);
+    }
+
+    @ExceptionHandler(QueryDeadlineExceededException.class)
+    public ResponseEntity<ErrorResponse> handleQueryDeadlineExceeded(
+            QueryDeadlineExceededException ex,
+            HttpServletRequest request) {
+
+        log.warn("Query deadline exceeded: {}", request.getRequestURI());
+
+        ErrorResponse response = ErrorResponse.of(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                ex.getErrorCode().name(),
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(response);
+    }
+
+    @ExceptionHandler(StorageQuotaExceededException.class)
+    public ResponseEntity<ErrorResponse> handleStorageQuotaExceeded(
+            StorageQuotaExceededException ex,
+            HttpServletRequest request) {
+
+        log.warn("Storage quota exceeded: {}", ex.getMessage());
+
+        ErrorResponse response = ErrorResponse.of(
+                HttpStatus.INSUFFICIENT_STORAGE.value(),
+                ex.getErrorCode().name(),
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.INSUFFICIENT_STORAGE).body(response);
+    }
+
+    @ExceptionHandler(UploadOffsetMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleUploadOffsetMismatch(
+            UploadOffsetMismatchException ex,
+            HttpServletRequest request) {
+
+        log.debug("Upload offset mismatch: {}", ex.getMessage());
+
+        ErrorResponse response = ErrorResponse.of(
+                HttpStatus.CONFLICT.value(),
+                ex.getErrorCode().name(),
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header("Upload-Offset", String.valueOf(ex.getCurrentOffset()))
+                .body(response);
+    }
+
+    @ExceptionHandler(ChecksumMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleChecksumMismatch(
+            ChecksumMismatchException ex,
+            HttpServletRequest request) {
+
+        log.warn("Checksum mismatch: {}", ex.getMessage());
+
+        ErrorResponse response = ErrorResponse.of(
+                HttpStatus.UNPROCESSABLE_CONTENT.value(),
+                ex.getErrorCode().name(),
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_CONTENT).body(response);
+    }
+
     // ════════════════════════════════════════════════════════
     // CUSTOM EXCEPTIONS
     // ════════════════════════════════════════════════════════
@@ -0,0 +1,21 @@
+package com.example.mondecole_pocket.exception;
+
+import java.time.Duration;
+
+/**
+ * Parallel read queries did not complete within their deadline (503 + Retry-After).
+ */
+public class QueryDeadlineExceededException extends AppException {
+
+    private final Duration retryAfter;
+
+    public QueryDeadlineExceededException(Duration deadline, Duration retryAfter) {
+        super("Queries did not complete within " + deadline.toMillis() + " ms, retry later",
+                ErrorCode.QUERY_DEADLINE_EXCEEDED);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.mondecole_pocket.exception;
+
+/**
+ * Upload would push the organization past its max_storage_mb quota (507).
+ */
+public class StorageQuotaExceededException extends AppException {
+
+    public StorageQuotaExceededException(long requestedBytes, int maxStorageMB) {
+        super("Storage quota of " + maxStorageMB + " MB exceeded (upload of " + requestedBytes + " bytes refused)",
+                ErrorCode.STORAGE_QUOTA_EXCEEDED);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.mondecole_pocket.exception;
+
+/**
+ * Chunk sent at an offset other than the bytes already received, or upload
+ * finalized before it is complete (409 + Upload-Offset: where to resume).
+ */
+public class UploadOffsetMismatchException extends AppException {
+
+    private final long currentOffset;
+
+    public UploadOffsetMismatchException(long currentOffset) {
+        super("Upload must resume at offset " + currentOffset, ErrorCode.UPLOAD_OFFSET_MISMATCH);
+        this.currentOffset = currentOffset;
+    }
+
+    public long getCurrentOffset() {
+        return currentOffset;
+    }
+}
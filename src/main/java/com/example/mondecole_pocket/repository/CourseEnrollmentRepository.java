@@ -4,9 +4,15 @@ import com.example.mondecole_pocket.entity.CourseEnrollment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -18,14 +24,60 @@ public interface CourseEnrollmentRepository extends JpaRepository<CourseEnrollme
     // Find enrollment
     Optional<CourseEnrollment> findByOrganizationIdAndStudentIdAndCourseId(Long organizationId, Long studentId, Long courseId);
 
-    // Get all enrollments for student
-    Page<CourseEnrollment> findByOrganizationIdAndStudentId(Long organizationId, Long studentId, Pageable pageable);
+    /**
+     * Inscription + carte du cours : getId() est l'id du cours, comme dans
+     * {@link CourseRepository.CourseCard}.
+     */
+    interface EnrollmentCard extends CourseRepository.CourseCard {
+        Long getEnrollmentId();
+        Integer getProgressPercent();
+        Boolean getCompleted();
+        LocalDateTime getEnrolledAt();
+        LocalDateTime getLastAccessedAt();
+    }
 
-    // Get active (not completed) enrollments
-    Page<CourseEnrollment> findByOrganizationIdAndStudentIdAndCompletedFalse(Long organizationId, Long studentId, Pageable pageable);
+    // Get enrollments for student, all / active / completed (cours soft-deleted exclus en attendant la purge)
+    @Query(value = """
+        SELECT e.id AS enrollmentId, e.progressPercent AS progressPercent, e.completed AS completed,
+               e.enrolledAt AS enrolledAt, e.lastAccessedAt AS lastAccessedAt,
+               c.id AS id, c.title AS title, c.summary AS summary, c.category AS category, c.level AS level,
+               c.estimatedHours AS estimatedHours, c.thumbnailUrl AS thumbnailUrl, c.publishedAt AS publishedAt,
+               a.id AS authorId, a.username AS authorUsername,
+               a.firstName AS authorFirstName, a.lastName AS authorLastName
+        FROM CourseEnrollment e
+        JOIN e.course c
+        LEFT JOIN c.author a
+        WHERE e.organizationId = :organizationId AND e.studentId = :studentId
+          AND c.deletedAt IS NULL
+          AND (:completed IS NULL OR e.completed = :completed)
+    """, countQuery = """
+        SELECT count(e) FROM CourseEnrollment e
+        JOIN e.course c
+        WHERE e.organizationId = :organizationId AND e.studentId = :studentId
+          AND c.deletedAt IS NULL
+          AND (:completed IS NULL OR e.completed = :completed)
+    """)
+    Page<EnrollmentCard> findCardsByStudent(@Param("organizationId") Long organizationId,
+                                            @Param("studentId") Long studentId,
+                                            @Param("completed") Boolean completed,
+                                            Pageable pageable);
 
-    // Get completed enrollments
-    Page<CourseEnrollment> findByOrganizationIdAndStudentIdAndCompletedTrue(Long organizationId, Long studentId, Pageable pageable);
+    // ✅ Toutes les inscriptions de l'élève en cartes, une requête (dashboard, home, catalogue)
+    @Query("""
+        SELECT e.id AS enrollmentId, e.progressPercent AS progressPercent, e.completed AS completed,
+               e.enrolledAt AS enrolledAt, e.lastAccessedAt AS lastAccessedAt,
+               c.id AS id, c.title AS title, c.summary AS summary, c.category AS category, c.level AS level,
+               c.estimatedHours AS estimatedHours, c.thumbnailUrl AS thumbnailUrl, c.publishedAt AS publishedAt,
+               a.id AS authorId, a.username AS authorUsername,
+               a.firstName AS authorFirstName, a.lastName AS authorLastName
+        FROM CourseEnrollment e
+        JOIN e.course c
+        LEFT JOIN c.author a
+        WHERE e.organizationId = :organizationId AND e.studentId = :studentId
+          AND c.deletedAt IS NULL
+    """)
+    List<EnrollmentCard> findAllCardsByStudent(@Param("organizationId") Long organizationId,
+                                               @Param("studentId") Long studentId);
 
     // Count student enrollments
     long countByOrganizationIdAndStudentId(Long organizationId, Long studentId);
@@ -36,5 +88,35 @@ public interface CourseEnrollmentRepository extends JpaRepository<CourseEnrollme
     // Count enrollments for a course
     long countByOrganizationIdAndCourseId(Long organizationId, Long courseId);
 
+    // ✅ Nombre d'élèves de plusieurs cours en une requête (listes de cours)
+    @Query("""
+            SELECT e.courseId AS courseId, COUNT(e) AS students
+            FROM CourseEnrollment e
+            WHERE e.organizationId = :organizationId AND e.courseId IN :courseIds
+            GROUP BY e.courseId
+            """)
+    @Transactional(readOnly = true)
+    List<CourseStudentCount> countStudentsByCourseIds(@Param("organizationId") Long organizationId,
+                                                      @Param("courseIds") Collection<Long> courseIds);
+
+    // Dernier accès au cours de la leçon (vue servie en 304)
+    @Modifying
+    @Query("""
+            UPDATE CourseEnrollment e
+            SET e.lastAccessedAt = :now, e.updatedAt = :now
+            WHERE e.organizationId = :organizationId AND e.studentId = :studentId
+              AND e.courseId = (SELECT s.courseId FROM Lesson l, CourseSection s
+                                WHERE l.id = :lessonId AND s.id = l.sectionId)
+            """)
+    int touchByLesson(@Param("organizationId") Long organizationId,
+                      @Param("studentId") Long studentId,
+                      @Param("lessonId") Long lessonId,
+                      @Param("now") LocalDateTime now);
+
+    interface CourseStudentCount {
+        Long getCourseId();
+        long getStudents();
+    }
+
     int countByStudentId(Long studentId);
 }
\ No newline at end of file
@@ -1,13 +1,20 @@
 package com.example.mondecole_pocket.repository;
 
+import com.example.mondecole_pocket.dto.CourseListResponse;
 import com.example.mondecole_pocket.entity.Course;
 import com.example.mondecole_pocket.entity.Organization;
 import com.example.mondecole_pocket.entity.User;
+import com.example.mondecole_pocket.entity.enums.CourseLevel;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,19 +23,78 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     // Find by organization
     Page<Course> findByOrganizationId(Long organizationId, Pageable pageable);
 
-    // Find by author (teacher)
-    Page<Course> findByOrganizationIdAndAuthorId(Long organizationId, Long authorId, Pageable pageable);
+    // Find by author (teacher) — projection : pas de description / objectives / prerequisites (TEXT)
+    @Query(value = """
+        SELECT new com.example.mondecole_pocket.dto.CourseListResponse(
+            c.id, c.title, c.summary, c.category, c.level, c.published, c.createdAt, c.estimatedHours)
+        FROM Course c
+        WHERE c.organizationId = :organizationId AND c.authorId = :authorId
+    """, countQuery = """
+        SELECT count(c) FROM Course c
+        WHERE c.organizationId = :organizationId AND c.authorId = :authorId
+    """)
+    Page<CourseListResponse> findListByAuthor(
+            @Param("organizationId") Long organizationId,
+            @Param("authorId") Long authorId,
+            Pageable pageable
+    );
 
-    // Find by author and published status
-    Page<Course> findByOrganizationIdAndAuthorIdAndPublished(
-            Long organizationId,
-            Long authorId,
-            Boolean published,
+    // Find by author and published status (même projection)
+    @Query(value = """
+        SELECT new com.example.mondecole_pocket.dto.CourseListResponse(
+            c.id, c.title, c.summary, c.category, c.level, c.published, c.createdAt, c.estimatedHours)
+        FROM Course c
+        WHERE c.organizationId = :organizationId AND c.authorId = :authorId AND c.published = :published
+    """, countQuery = """
+        SELECT count(c) FROM Course c
+        WHERE c.organizationId = :organizationId AND c.authorId = :authorId AND c.published = :published
+    """)
+    Page<CourseListResponse> findListByAuthorAndPublished(
+            @Param("organizationId") Long organizationId,
+            @Param("authorId") Long authorId,
+            @Param("published") Boolean published,
             Pageable pageable
     );
 
-    // Find published courses in organization
-    Page<Course> findByOrganizationIdAndPublishedTrue(Long organizationId, Pageable pageable);
+    /**
+     * Colonnes d'une carte de cours (catalogue, mes cours, tableau de bord) :
+     * description, objectives, prerequisites et tags ne sont pas lus, l'auteur
+     * se limite à son nom.
+     */
+    interface CourseCard {
+        Long getId();
+        String getTitle();
+        String getSummary();
+        String getCategory();
+        CourseLevel getLevel();
+        Integer getEstimatedHours();
+        String getThumbnailUrl();
+        LocalDateTime getPublishedAt();
+        Long getAuthorId();
+        String getAuthorUsername();
+        String getAuthorFirstName();
+        String getAuthorLastName();
+
+        default String getAuthorFullName() {
+            return User.fullName(getAuthorFirstName(), getAuthorLastName(), getAuthorUsername());
+        }
+    }
+
+    // Find published courses in organization (cartes, auteur joint : pas de N+1 au mapping)
+    @Query(value = """
+        SELECT c.id AS id, c.title AS title, c.summary AS summary, c.category AS category, c.level AS level,
+               c.estimatedHours AS estimatedHours, c.thumbnailUrl AS thumbnailUrl, c.publishedAt AS publishedAt,
+               a.id AS authorId, a.username AS authorUsername,
+               a.firstName AS authorFirstName, a.lastName AS authorLastName
+        FROM Course c
+        LEFT JOIN c.author a
+        WHERE c.organizationId = :organizationId AND c.published = true
+    """, countQuery = """
+        SELECT count(c) FROM Course c
+        WHERE c.organizationId = :organizationId AND c.published = true
+    """)
+    Page<CourseCard> findCardsByOrganizationIdAndPublishedTrue(@Param("organizationId") Long organizationId,
+                                                               Pageable pageable);
 
     // Find by id and organization
     Optional<Course> findByIdAndOrganizationId(Long id, Long organizationId);
@@ -44,4 +110,21 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
 
     // Find published courses
     Optional<Course> findByIdAndOrganizationIdAndPublishedTrue(Long id, Long organizationId);
+
+    // Cours lisible par un élève : publié (les cours soft-deleted sont exclus par @SQLRestriction)
+    boolean existsByIdAndOrganizationIdAndPublishedTrue(Long id, Long organizationId);
+
+    // Course ids of an author (soft delete of a teacher's courses)
+    @Query("SELECT c.id FROM Course c WHERE c.organizationId = :organizationId AND c.authorId = :authorId")
+    List<Long> findIdsByOrganizationIdAndAuthorId(@Param("organizationId") Long organizationId,
+                                                  @Param("authorId") Long authorId);
+
+    // Soft delete in bulk (purge asynchrone ensuite)
+    @Modifying
+    @Query("UPDATE Course c SET c.deletedAt = :deletedAt WHERE c.id IN :ids")
+    int softDeleteByIds(@Param("ids") List<Long> ids, @Param("deletedAt") LocalDateTime deletedAt);
+
+    // Latest published course ids (cache warm-up)
+    @Query("SELECT c.id FROM Course c WHERE c.organizationId = :organizationId AND c.published = true ORDER BY c.publishedAt DESC")
+    List<Long> findPublishedIds(@Param("organizationId") Long organizationId, Pageable pageable);
 }
\ No newline at end of file
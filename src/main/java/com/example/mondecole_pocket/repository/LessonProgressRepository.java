@@ -2,9 +2,12 @@ package com.example.mondecole_pocket.repository;
 
 import com.example.mondecole_pocket.entity.LessonProgress;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,4 +24,16 @@ public interface LessonProgressRepository extends JpaRepository<LessonProgress,
     List<LessonProgress> findByStudentAndCourse(Long organizationId, Long studentId, Long courseId);
 
     long countByOrganizationIdAndStudentIdAndLessonIdInAndCompletedTrue(Long organizationId, Long studentId, List<Long> lessonIds);
+
+    // Vue d'une leçon servie en 304 : compteur + dernier accès sans charger la leçon
+    @Modifying
+    @Query("""
+            UPDATE LessonProgress lp
+            SET lp.viewCount = lp.viewCount + 1, lp.lastAccessedAt = :now, lp.updatedAt = :now
+            WHERE lp.organizationId = :organizationId AND lp.studentId = :studentId AND lp.lessonId = :lessonId
+            """)
+    int recordView(@Param("organizationId") Long organizationId,
+                   @Param("studentId") Long studentId,
+                   @Param("lessonId") Long lessonId,
+                   @Param("now") LocalDateTime now);
 }
\ No newline at end of file
@@ -1,11 +1,19 @@
 package com.example.mondecole_pocket.repository;
 
+import com.example.mondecole_pocket.dto.LessonFileAccess;
 import com.example.mondecole_pocket.entity.Lesson;
+import com.example.mondecole_pocket.entity.enums.LessonType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,19 +24,137 @@ public interface LessonRepository extends JpaRepository<Lesson, Long> {
 
     List<Lesson> findByOrganizationIdAndSectionIdOrderByOrderIndexAsc(Long organizationId, Long sectionId);
     long countByOrganizationIdAndSectionId(Long organizationId, Long sectionId);
-    List<Lesson> findBySectionIdOrderByOrderIndexAsc(Long sectionId);
 
     int countBySectionId(Long sectionId);
 
+    /**
+     * Colonnes de plan / navigation uniquement : content et description (TEXT,
+     * non bornés) ne sont jamais lus par les chemins de liste.
+     */
+    interface LessonSummary {
+        Long getId();
+        Long getSectionId();
+        String getTitle();
+        LessonType getType();
+        Integer getOrderIndex();
+        Integer getDurationSeconds();
+    }
+
+    @Query("""
+        SELECT l.id AS id, l.sectionId AS sectionId, l.title AS title, l.type AS type,
+               l.orderIndex AS orderIndex, l.durationSeconds AS durationSeconds
+        FROM Lesson l
+        JOIN CourseSection s ON s.id = l.sectionId
+        WHERE s.courseId = :courseId
+          AND l.organizationId = :organizationId
+        ORDER BY s.orderIndex ASC, l.orderIndex ASC
+    """)
+    List<LessonSummary> findSummariesByCourseId(
+            @Param("organizationId") Long organizationId,
+            @Param("courseId") Long courseId
+    );
+
+    @Query("""
+        SELECT l.id AS id, l.sectionId AS sectionId, l.title AS title, l.type AS type,
+               l.orderIndex AS orderIndex, l.durationSeconds AS durationSeconds
+        FROM Lesson l
+        WHERE l.sectionId = :sectionId
+        ORDER BY l.orderIndex ASC
+    """)
+    List<LessonSummary> findSummariesBySectionId(@Param("sectionId") Long sectionId);
+
+    /** Leçon complète pour l'export hors ligne (content inclus, lu page par page) */
+    interface LessonPackageRow {
+        Long getId();
+        Long getSectionId();
+        Integer getSectionOrderIndex();
+        String getTitle();
+        LessonType getType();
+        Integer getOrderIndex();
+        Integer getDurationSeconds();
+        String getDescription();
+        String getContent();
+        String getExternalVideoUrl();
+        String getStorageKey();
+        String getFileName();
+        String getMimeType();
+        Long getFileSizeBytes();
+        Boolean getDownloadable();
+    }
+
+    // Keyset (ordre section, ordre leçon, id) : chaque page dans sa propre transaction courte
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("""
+        SELECT l.id AS id, l.sectionId AS sectionId, s.orderIndex AS sectionOrderIndex,
+               l.title AS title, l.type AS type,
+               l.orderIndex AS orderIndex, l.durationSeconds AS durationSeconds,
+               l.description AS description, l.content AS content, l.externalVideoUrl AS externalVideoUrl,
+               l.storageKey AS storageKey, l.fileName AS fileName, l.mimeType AS mimeType,
+               l.fileSizeBytes AS fileSizeBytes, l.downloadable AS downloadable
+        FROM Lesson l
+        JOIN CourseSection s ON s.id = l.sectionId
+        WHERE s.courseId = :courseId
+          AND l.organizationId = :organizationId
+          AND (s.orderIndex, l.orderIndex, l.id) > (:afterSectionOrder, :afterLessonOrder, :afterId)
+        ORDER BY s.orderIndex ASC, l.orderIndex ASC, l.id ASC
+    """)
+    List<LessonPackageRow> findPackagePage(
+            @Param("organizationId") Long organizationId,
+            @Param("courseId") Long courseId,
+            @Param("afterSectionOrder") Integer afterSectionOrder,
+            @Param("afterLessonOrder") Integer afterLessonOrder,
+            @Param("afterId") Long afterId,
+            Limit limit
+    );
+
+    // Ordre du cours (sections puis leçons) : navigation précédente/suivante et calcul de progression
     @Query("""
-        SELECT l FROM Lesson l
+        SELECT l.id
+        FROM Lesson l
         JOIN CourseSection s ON s.id = l.sectionId
         WHERE s.courseId = :courseId
           AND l.organizationId = :organizationId
         ORDER BY s.orderIndex ASC, l.orderIndex ASC
     """)
-    List<Lesson> findAllByCourseId(
+    List<Long> findIdsByCourseId(
             @Param("organizationId") Long organizationId,
             @Param("courseId") Long courseId
     );
-}
\ No newline at end of file
+
+    // Réordonnancement sans charger les leçons (updated_at posé à la main : pas de @UpdateTimestamp en bulk)
+    @Modifying
+    @Query("""
+        UPDATE Lesson l
+        SET l.orderIndex = :orderIndex, l.updatedAt = :now
+        WHERE l.id = :id AND l.sectionId = :sectionId
+    """)
+    int updateOrderIndex(
+            @Param("id") Long id,
+            @Param("sectionId") Long sectionId,
+            @Param("orderIndex") Integer orderIndex,
+            @Param("now") LocalDateTime now
+    );
+
+    // Fichier d'une leçon pour un lecteur autorisé : élève inscrit (cours publié) ou auteur du cours,
+    // jamais pour un cours ou une section soft-deleted (une requête)
+    @Query("""
+        SELECT new com.example.mondecole_pocket.dto.LessonFileAccess(
+            l.id, l.storageKey, l.fileName, l.mimeType, l.fileSizeBytes, l.downloadable)
+        FROM Lesson l
+        JOIN CourseSection s ON s.id = l.sectionId
+        JOIN Course c ON c.id = s.courseId
+        WHERE l.id = :lessonId
+          AND l.organizationId = :organizationId
+          AND l.storageKey IS NOT NULL
+          AND s.deletedAt IS NULL
+          AND c.deletedAt IS NULL
+          AND (c.authorId = :userId OR (c.published = TRUE AND EXISTS (
+                SELECT 1 FROM CourseEnrollment e
+                WHERE e.organizationId = l.organizationId AND e.courseId = c.id AND e.studentId = :userId)))
+    """)
+    Optional<LessonFileAccess> findFileAccess(
+            @Param("organizationId") Long organizationId,
+            @Param("lessonId") Long lessonId,
+            @Param("userId") Long userId
+    );
+}
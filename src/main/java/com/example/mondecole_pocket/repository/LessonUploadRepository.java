@@ -0,0 +1,44 @@
+package com.example.mondecole_pocket.repository;
+
+import com.example.mondecole_pocket.entity.LessonUpload;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface LessonUploadRepository extends JpaRepository<LessonUpload, UUID> {
+
+    Optional<LessonUpload> findByIdAndOrganizationIdAndTeacherId(UUID id, Long organizationId, Long teacherId);
+
+    List<LessonUpload> findByOrganizationIdAndLessonId(Long organizationId, Long lessonId);
+
+    /**
+     * Avance la session après l'écriture d'un chunk, seulement si personne n'a
+     * avancé entre-temps (0 ligne → chunk concurrent, le client relit l'offset)
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE LessonUpload u
+            SET u.receivedBytes = :newOffset, u.updatedAt = :now, u.expiresAt = :expiresAt
+            WHERE u.id = :id AND u.receivedBytes = :offset
+            """)
+    int advance(UUID id, long offset, long newOffset, LocalDateTime now, LocalDateTime expiresAt);
+
+    @Query("SELECT u FROM LessonUpload u WHERE u.expiresAt < :now ORDER BY u.expiresAt")
+    List<LessonUpload> findExpired(LocalDateTime now, Pageable pageable);
+
+    /** Suppression conditionnelle : un seul replica (ou une seule requête) récupère la session */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM LessonUpload u WHERE u.id = :id")
+    int deleteAndCount(UUID id);
+}
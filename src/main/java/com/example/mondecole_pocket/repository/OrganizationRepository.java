@@ -2,8 +2,14 @@ package com.example.mondecole_pocket.repository;
 
 import com.example.mondecole_pocket.entity.Organization;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -20,4 +26,40 @@ public interface OrganizationRepository extends JpaRepository<Organization, Long
     boolean existsByInvitationCode(String invitationCode);
 
     boolean existsByName(String name);
-}
\ No newline at end of file
+
+    // Active organizations ranked by recent student activity (cache warm-up)
+    @Query(value = """
+        SELECT e.organization_id
+        FROM course_enrollments e
+        JOIN organizations o ON o.id = e.organization_id AND o.active = true
+        WHERE e.last_accessed_at >= :since
+        GROUP BY e.organization_id
+        ORDER BY COUNT(*) DESC
+        LIMIT :limit
+    """, nativeQuery = true)
+    List<Long> findMostActiveOrganizationIds(@Param("since") LocalDateTime since, @Param("limit") int limit);
+
+    // ════════════════════════════════════════════════════════
+    // Quota de stockage (max_storage_mb) : compteur incrémental, jamais de scan
+    // ════════════════════════════════════════════════════════
+
+    /** @return 1 si réservé, 0 si le quota serait dépassé */
+    @Transactional
+    @Modifying
+    @Query(value = """
+        UPDATE organizations
+        SET storage_used_bytes = storage_used_bytes + :bytes
+        WHERE id = :organizationId
+          AND storage_used_bytes + :bytes <= CAST(max_storage_mb AS BIGINT) * 1048576
+    """, nativeQuery = true)
+    int reserveStorage(@Param("organizationId") Long organizationId, @Param("bytes") long bytes);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+        UPDATE organizations
+        SET storage_used_bytes = GREATEST(storage_used_bytes - :bytes, 0)
+        WHERE id = :organizationId
+    """, nativeQuery = true)
+    int releaseStorage(@Param("organizationId") Long organizationId, @Param("bytes") long bytes);
+}
@@ -7,29 +7,44 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Optional;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
 
     Optional<RefreshToken> findByTokenHash(String tokenHash);
 
-    @Query("SELECT rt FROM RefreshToken rt " +
-            "WHERE rt.userId = :userId AND rt.revoked = false AND rt.expiresAt > :now")
-    List<RefreshToken> findValidTokensByUserId(Long userId, LocalDateTime now);
-
-    @Query("SELECT COUNT(rt) FROM RefreshToken rt " +
-            "WHERE rt.userId = :userId AND rt.revoked = false AND rt.expiresAt > :now")
-    long countActiveSessions(Long userId, LocalDateTime now);
+    /**
+     * Émission d'un refresh token en un seul aller-retour :
+     * révoque les sessions actives au-delà des `keep` plus récentes, puis insère la nouvelle
+     */
+    @Modifying
+    @Query(value = """
+        WITH revoked AS (
+            UPDATE refresh_tokens SET revoked = TRUE
+            WHERE id IN (
+                SELECT id FROM refresh_tokens
+                WHERE user_id = :userId AND revoked = FALSE AND expires_at > :now
+                ORDER BY created_at DESC, id DESC
+                OFFSET :keep
+            )
+            RETURNING id
+        )
+        INSERT INTO refresh_tokens (token_hash, user_id, organization_id, token_type,
+                                    created_at, last_used_at, expires_at, revoked,
+                                    ip_address, user_agent, device_name)
+        VALUES (:tokenHash, :userId, :organizationId, :tokenType,
+                :now, :now, :expiresAt, FALSE,
+                :ipAddress, :userAgent, :deviceName)
+        """, nativeQuery = true)
+    int insertKeepingNewestSessions(String tokenHash, Long userId, Long organizationId, String tokenType,
+                                    LocalDateTime now, LocalDateTime expiresAt,
+                                    String ipAddress, String userAgent, String deviceName,
+                                    int keep);
 
     @Modifying
     @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.userId = :userId")
     int revokeAllByUserId(Long userId);
 
-    @Modifying
-    @Query("DELETE FROM RefreshToken rt WHERE rt.expiresAt < :threshold")
-    int deleteExpiredTokens(LocalDateTime threshold);
-
     @Modifying
     @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.userId = :userId AND rt.tokenType = :type")
     int revokeAllByUserIdAndType(Long userId, TokenType type);
@@ -7,11 +7,15 @@ import com.example.mondecole_pocket.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.net.http.HttpHeaders;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -71,6 +75,23 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u.organization.id FROM User u WHERE u.username = :username")
     Optional<Long> findOrganizationIdByUsername(@Param("username") String username);
 
+    /**
+     * Rehash transparent au login : ne remplace que si le hash n'a pas changé entre-temps
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.passwordHash = :newHash WHERE u.id = :id AND u.passwordHash = :oldHash")
+    int updatePasswordHash(@Param("id") Long id,
+                           @Param("oldHash") String oldHash,
+                           @Param("newHash") String newHash);
+
+    // Username Bloom filter (full build + incremental sync)
+    @Query("SELECT u.username FROM User u")
+    List<String> findAllUsernames();
+
+    @Query("SELECT u.username FROM User u WHERE u.createdAt > :since")
+    List<String> findUsernamesCreatedSince(@Param("since") LocalDateTime since);
+
 
     Page<User> findByOrganizationIdAndRole(Long organizationId, UserRole role, Pageable pageable);
 
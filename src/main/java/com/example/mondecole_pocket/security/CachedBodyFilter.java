@@ -12,10 +12,17 @@ import java.io.IOException;
 
 /**
  * ✅ Wrapper le body HTTP pour pouvoir le lire plusieurs fois
+ * ⚠️ Le body contient le mot de passe : il n'est jamais loggé
  */
 @Slf4j
 public class CachedBodyFilter extends OncePerRequestFilter {
 
+    private final int maxBodyBytes;
+
+    public CachedBodyFilter(int maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getServletPath();
@@ -36,19 +43,21 @@ public class CachedBodyFilter extends OncePerRequestFilter {
             @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain) throws ServletException, IOException {
 
+        CachedBodyHttpServletRequest cachedRequest;
         try {
-            // ✅ Wrapper la request
-            CachedBodyHttpServletRequest cachedRequest = new CachedBodyHttpServletRequest(request);
-
-            log.info("✅ CachedBodyFilter: Body cached pour {}", request.getServletPath());
-            log.info("📄 CachedBodyFilter: Body content = {}", cachedRequest.getBody());
-
-            // ✅ Passer la request wrappée à TOUS les filtres suivants
-            filterChain.doFilter(cachedRequest, response);
-
+            // ✅ Wrapper la request (un seul buffer, borné)
+            cachedRequest = new CachedBodyHttpServletRequest(request, maxBodyBytes);
+            log.debug("✅ CachedBodyFilter: Body cached pour {}", request.getServletPath());
+        } catch (CachedBodyHttpServletRequest.BodyTooLargeException e) {
+            log.warn("⚠️ CachedBodyFilter: Body trop volumineux pour {}", request.getServletPath());
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "Request body too large");
+            return;
         } catch (IOException e) {
             log.error("❌ CachedBodyFilter: Erreur lors du wrapping: {}", e.getMessage());
             throw e;
         }
+
+        // ✅ Passer la request wrappée à TOUS les filtres suivants
+        filterChain.doFilter(cachedRequest, response);
     }
 }
\ No newline at end of file
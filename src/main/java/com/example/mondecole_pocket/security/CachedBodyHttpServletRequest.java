@@ -11,19 +11,29 @@ import java.nio.charset.StandardCharsets;
 /**
  * ✅ Permet de lire le body HTTP plusieurs fois
  * (nécessaire car le TenantFilter lit le body, puis le Controller aussi)
+ * Le body est bufferisé une seule fois, borné à maxBytes.
  */
 public class CachedBodyHttpServletRequest extends HttpServletRequestWrapper {
 
     private final byte[] cachedBody;
 
-    public CachedBodyHttpServletRequest(HttpServletRequest request) throws IOException {
+    public CachedBodyHttpServletRequest(HttpServletRequest request, int maxBytes) throws IOException {
         super(request);
-        InputStream inputStream = request.getInputStream();
-        this.cachedBody = inputStream.readAllBytes();
+        long declaredLength = request.getContentLengthLong();
+        if (declaredLength > maxBytes) {
+            throw new BodyTooLargeException(maxBytes);
+        }
+        // Lire au plus maxBytes + 1 pour détecter un body sans Content-Length trop gros
+        byte[] body = request.getInputStream().readNBytes(maxBytes + 1);
+        if (body.length > maxBytes) {
+            throw new BodyTooLargeException(maxBytes);
+        }
+        this.cachedBody = body;
     }
 
-    public String getBody() {
-        return new String(cachedBody, StandardCharsets.UTF_8);
+    /** Raw cached bytes (not copied: read-only use by the security filters) */
+    byte[] getCachedBody() {
+        return cachedBody;
     }
 
     @Override
@@ -36,6 +46,25 @@ public class CachedBodyHttpServletRequest extends HttpServletRequestWrapper {
         return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
     }
 
+    @Override
+    public int getContentLength() {
+        return cachedBody.length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return cachedBody.length;
+    }
+
+    /**
+     * Body au-delà de la limite configurée
+     */
+    public static class BodyTooLargeException extends IOException {
+        public BodyTooLargeException(int maxBytes) {
+            super("Request body exceeds " + maxBytes + " bytes");
+        }
+    }
+
     /**
      * InputStream qui lit depuis le cache
      */
@@ -52,6 +81,11 @@ public class CachedBodyHttpServletRequest extends HttpServletRequestWrapper {
             return buffer.read();
         }
 
+        @Override
+        public int read(byte[] b, int off, int len) {
+            return buffer.read(b, off, len);
+        }
+
         @Override
         public boolean isFinished() {
             return buffer.available() == 0;
@@ -67,4 +101,4 @@ public class CachedBodyHttpServletRequest extends HttpServletRequestWrapper {
             throw new UnsupportedOperationException("ReadListener not supported");
         }
     }
-}
\ No newline at end of file
+}
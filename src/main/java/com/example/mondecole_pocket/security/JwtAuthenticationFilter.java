@@ -46,7 +46,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 || path.startsWith("/swagger-ui")
                 || path.startsWith("/v3/api-docs")
                 || path.startsWith("/api/health")
-                || path.startsWith("/api/benchmark")
                 || path.startsWith("/actuator");
     }
 
@@ -84,7 +83,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(auth);
 
-            chain.doFilter(request, response);
+            // ✅ Identité complète dans le RequestContext (lue sans SecurityContext ni DB en aval)
+            RequestContext previous = RequestContext.current();
+            if (userDetails instanceof CustomUserDetails user) {
+                RequestContext.set(previous.withUser(user.getId(), user.getRole()));
+            }
+
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                RequestContext.set(previous);
+            }
 
         } catch (TokenExpiredException e) {
             setAuthErrorAttributes(request, e.getErrorCode(), e.getMessage());
@@ -0,0 +1,46 @@
+package com.example.mondecole_pocket.security;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Streaming scan of a login body: reads top-level tokens until the
+ * {@code username} field, without building a tree or decoding the body to a String.
+ * Other values (password included) are skipped, never materialized.
+ */
+public final class LoginBodyReader {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private LoginBodyReader() {
+    }
+
+    /**
+     * @return the top-level {@code username} string, or null if absent, not a string or malformed JSON
+     */
+    public static String readUsername(byte[] body) {
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("username".equals(field)) {
+                    return value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                }
+                parser.skipChildren();
+            }
+            return null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.mondecole_pocket.security;
+
+import com.example.mondecole_pocket.entity.enums.UserRole;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * ════════════════════════════════════════════════════════
+ * REQUEST CONTEXT (tenant + user + role)
+ * ════════════════════════════════════════════════════════
+ *
+ * Identity of the current request, resolved once by the filters
+ * (TenantFilter → tenant, JwtAuthenticationFilter → user/role) and read
+ * everywhere else without touching the SecurityContext or the database.
+ *
+ * Scoped-value style API on a ThreadLocal (ScopedValue is still a preview
+ * API on Java 21):
+ * - runWith / callWith bind a context for the duration of a call and restore
+ *   the previous one afterwards (nesting-safe)
+ * - wrap / wrapSupplier capture the caller's context at submission time and
+ *   bind it in the executing thread → used by the TaskDecorator and fan-out
+ *
+ * The holder stores one immutable record (a single reference per thread).
+ */
+public record RequestContext(Long tenantId, Long userId, UserRole role) {
+
+    public static final RequestContext EMPTY = new RequestContext(null, null, null);
+
+    private static final ThreadLocal<RequestContext> CURRENT = new ThreadLocal<>();
+
+    public static RequestContext current() {
+        RequestContext context = CURRENT.get();
+        return context != null ? context : EMPTY;
+    }
+
+    public static RequestContext ofTenant(Long tenantId) {
+        return new RequestContext(tenantId, null, null);
+    }
+
+    public RequestContext withUser(Long userId, UserRole role) {
+        return new RequestContext(tenantId, userId, role);
+    }
+
+    // ════════════════════════════════════════════════════════
+    // Binding borné (équivalent ScopedValue.where(...).run/call)
+    // ════════════════════════════════════════════════════════
+
+    public static void runWith(RequestContext context, Runnable action) {
+        RequestContext previous = CURRENT.get();
+        bind(context);
+        try {
+            action.run();
+        } finally {
+            bind(previous);
+        }
+    }
+
+    public static <T> T callWith(RequestContext context, Callable<T> action) throws Exception {
+        RequestContext previous = CURRENT.get();
+        bind(context);
+        try {
+            return action.call();
+        } finally {
+            bind(previous);
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    // Propagation vers les executors
+    // ════════════════════════════════════════════════════════
+
+    public static Runnable wrap(Runnable task) {
+        RequestContext captured = current();
+        return () -> runWith(captured, task);
+    }
+
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        RequestContext captured = current();
+        return () -> callWith(captured, task);
+    }
+
+    public static <T> Supplier<T> wrapSupplier(Supplier<T> task) {
+        RequestContext captured = current();
+        return () -> {
+            RequestContext previous = CURRENT.get();
+            bind(captured);
+            try {
+                return task.get();
+            } finally {
+                bind(previous);
+            }
+        };
+    }
+
+    // ════════════════════════════════════════════════════════
+    // Binding non borné (filtres : set en entrée, clear dans le finally)
+    // ════════════════════════════════════════════════════════
+
+    static void set(RequestContext context) {
+        bind(context);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    private static void bind(RequestContext context) {
+        if (context == null || context == EMPTY) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(context);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.mondecole_pocket.security;
+
+import com.example.mondecole_pocket.service.storage.FileRangeSender;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.time.Instant;
+
+/**
+ * ════════════════════════════════════════════════════════
+ * SIGNED MEDIA FILTER
+ * ════════════════════════════════════════════════════════
+ *
+ * Serves /api/media/lessons/{id}/file?token=... on its own, ahead of the
+ * Spring Security chain (registered in SecurityConfig with a high precedence):
+ * it never calls the rest of the chain, so TenantFilter, JwtAuthenticationFilter,
+ * the DispatcherServlet and the database are skipped for every chunk.
+ *
+ * Per request: one HMAC-SHA256 over ~200 bytes, then FileRangeSender
+ * (Range / 206, sendfile when available).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SignedMediaFilter extends OncePerRequestFilter {
+
+    private static final String FILE_SUFFIX = "/file";
+
+    private final SignedMediaUrls signedMediaUrls;
+    private final FileRangeSender fileRangeSender;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getServletPath().startsWith(SignedMediaUrls.PATH_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            response.setHeader(HttpHeaders.ALLOW, "GET, HEAD");
+            reject(response, HttpServletResponse.SC_METHOD_NOT_ALLOWED, "method_not_allowed", "Method not allowed");
+            return;
+        }
+
+        SignedMediaUrls.Grant grant = signedMediaUrls.verify(request.getParameter("token"));
+        if (grant == null || !grant.lessonId().equals(lessonIdFromPath(request.getServletPath()))) {
+            reject(response, HttpServletResponse.SC_FORBIDDEN, "invalid", "Invalid media URL");
+            return;
+        }
+        Instant now = Instant.now();
+        if (grant.isExpired(now)) {
+            reject(response, HttpServletResponse.SC_FORBIDDEN, "expired", "Expired media URL");
+            return;
+        }
+
+        // Objet immuable : le navigateur peut garder les morceaux jusqu'à l'expiration de l'URL
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                "private, max-age=" + (grant.expiresAtEpochSecond() - now.getEpochSecond()));
+        try {
+            fileRangeSender.send(grant.storageKey(), grant.fileName(), grant.mimeType(), grant.download(),
+                    request, response);
+            meterRegistry.counter("media.signed.requests", "outcome", "served").increment();
+        } catch (NoSuchFileException e) {
+            // Fichier remplacé ou supprimé depuis l'émission de l'URL : le client en redemande une
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+            reject(response, HttpServletResponse.SC_NOT_FOUND, "gone", "Media no longer available");
+        }
+    }
+
+    private void reject(HttpServletResponse response, int status, String outcome, String message) throws IOException {
+        meterRegistry.counter("media.signed.requests", "outcome", outcome).increment();
+        log.debug("Signed media request rejected: {}", message);
+        response.sendError(status, message);
+    }
+
+    /** /api/media/lessons/{id}/file → id, null si le chemin ne correspond pas */
+    private static Long lessonIdFromPath(String path) {
+        if (!path.endsWith(FILE_SUFFIX)) {
+            return null;
+        }
+        try {
+            return Long.valueOf(path.substring(SignedMediaUrls.PATH_PREFIX.length(), path.length() - FILE_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
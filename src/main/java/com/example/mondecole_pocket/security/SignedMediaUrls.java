@@ -0,0 +1,172 @@
+package com.example.mondecole_pocket.security;
+
+import com.example.mondecole_pocket.dto.LessonFileAccess;
+import com.example.mondecole_pocket.dto.SignedMediaUrlResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+
+/**
+ * ════════════════════════════════════════════════════════
+ * SIGNED MEDIA URLS (HMAC-SHA256)
+ * ════════════════════════════════════════════════════════
+ *
+ * Short-lived, self-verifying URLs for lesson files:
+ *   /api/media/lessons/{lessonId}/file?token={payload}.{signature}
+ *
+ * The payload carries everything needed to serve the file — tenant, student,
+ * lesson, expiry, download flag, storage key, MIME type, file name — so
+ * SignedMediaFilter answers each 206 chunk of a video without JWT parsing,
+ * tenant lookup, enrollment check or any database access. Authorization
+ * happens once, when the URL is issued (GET /api/student/lessons/{id}/file-url).
+ *
+ * Key: derived from app.jwt.secret (same key material as JwtService) with a
+ * fixed label, so a media signature can never be replayed as a JWT signature
+ * and the other way round. Rotating the JWT secret invalidates both.
+ *
+ * Trade-off: a student unenrolled (or a tenant deactivated) keeps access to
+ * the files it already holds URLs for until they expire (app.media.url-ttl).
+ */
+@Component
+public class SignedMediaUrls {
+
+    public static final String PATH_PREFIX = "/api/media/lessons/";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String VERSION = "v1";
+    private static final String KEY_LABEL = "mondecole-media-url-v1";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /** Contenu vérifié d'une URL signée */
+    public record Grant(
+            Long organizationId,
+            Long studentId,
+            Long lessonId,
+            long expiresAtEpochSecond,
+            boolean download,
+            String storageKey,
+            String mimeType,
+            String fileName
+    ) {
+        public boolean isExpired(Instant now) {
+            return now.getEpochSecond() >= expiresAtEpochSecond;
+        }
+    }
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+
+    public SignedMediaUrls(@Value("${app.jwt.secret}") String secret,
+                           @Value("${app.media.url-ttl:30m}") Duration ttl) {
+        this.key = deriveKey(secret);
+        this.ttl = ttl;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    // ════════════════════════════════════════════════════════
+    // Émission (requête authentifiée, accès déjà vérifié)
+    // ════════════════════════════════════════════════════════
+
+    public SignedMediaUrlResponse sign(Long organizationId, Long studentId, LessonFileAccess file, boolean download) {
+        Instant expiresAt = Instant.now().plus(ttl);
+        Grant grant = new Grant(organizationId, studentId, file.lessonId(), expiresAt.getEpochSecond(), download,
+                file.storageKey(), file.mimeType(), file.fileName());
+
+        String url = PATH_PREFIX + file.lessonId() + "/file?token=" + token(grant);
+        return new SignedMediaUrlResponse(url, LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()));
+    }
+
+    String token(Grant grant) {
+        String payload = String.join("\n",
+                VERSION,
+                String.valueOf(grant.organizationId()),
+                String.valueOf(grant.studentId()),
+                String.valueOf(grant.lessonId()),
+                String.valueOf(grant.expiresAtEpochSecond()),
+                grant.download() ? "1" : "0",
+                grant.storageKey(),
+                grant.mimeType() != null ? grant.mimeType() : "",
+                // Dernier champ : le nom (sans caractère de contrôle) peut tout contenir d'autre
+                grant.fileName() != null ? grant.fileName() : "");
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(mac(payloadBytes));
+    }
+
+    // ════════════════════════════════════════════════════════
+    // Vérification (SignedMediaFilter, sans base)
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * @return the grant when the signature is valid (expiry not checked here),
+     *         null for a malformed or forged token
+     */
+    public Grant verify(String token) {
+        if (token == null) {
+            return null;
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        try {
+            byte[] payloadBytes = DECODER.decode(token.substring(0, dot));
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            // ✅ Comparaison en temps constant
+            if (!MessageDigest.isEqual(mac(payloadBytes), signature)) {
+                return null;
+            }
+
+            String[] fields = new String(payloadBytes, StandardCharsets.UTF_8).split("\n", 9);
+            if (fields.length != 9 || !VERSION.equals(fields[0])) {
+                return null;
+            }
+            return new Grant(
+                    Long.valueOf(fields[1]),
+                    Long.valueOf(fields[2]),
+                    Long.valueOf(fields[3]),
+                    Long.parseLong(fields[4]),
+                    "1".equals(fields[5]),
+                    fields[6],
+                    fields[7].isEmpty() ? null : fields[7],
+                    fields[8].isEmpty() ? null : fields[8]);
+        } catch (IllegalArgumentException e) {
+            // Base64 ou nombre invalide
+            return null;
+        }
+    }
+
+    private byte[] mac(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 not available", e);
+        }
+    }
+
+    /** Sous-clé dédiée : HMAC(secret JWT, label) */
+    private static SecretKeySpec deriveKey(String secret) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            return new SecretKeySpec(mac.doFinal(KEY_LABEL.getBytes(StandardCharsets.UTF_8)), ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 not available", e);
+        }
+    }
+}
@@ -1,18 +1,19 @@
 package com.example.mondecole_pocket.security;
 
+/**
+ * Tenant of the current request: view on {@link RequestContext#tenantId()}.
+ */
 public class TenantContext {
 
-    private static final ThreadLocal<Long> currentTenant = new ThreadLocal<>();
-
     public static void setTenantId(Long tenantId) {
-        currentTenant.set(tenantId);
+        RequestContext.set(RequestContext.ofTenant(tenantId));
     }
 
     public static Long getTenantId() {
-        return currentTenant.get();
+        return RequestContext.current().tenantId();
     }
 
     public static void clear() {
-        currentTenant.remove();
+        RequestContext.clear();
     }
-}
\ No newline at end of file
+}
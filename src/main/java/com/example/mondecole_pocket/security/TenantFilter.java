@@ -1,8 +1,9 @@
 package com.example.mondecole_pocket.security;
 
-import com.example.mondecole_pocket.repository.OrganizationRepository;
+import com.example.mondecole_pocket.dto.TenantSnapshot;
 import com.example.mondecole_pocket.repository.UserRepository;
 import com.example.mondecole_pocket.service.JwtService;
+import com.example.mondecole_pocket.service.TenantSnapshotService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,18 +24,19 @@ import java.io.IOException;
 public class TenantFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final OrganizationRepository organizationRepository;
+    private final TenantSnapshotService tenantSnapshotService;
     private final UserRepository userRepository;
+    private final UsernameDirectory usernameDirectory;
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getServletPath();
         return path.startsWith("/api/public") ||
+                path.startsWith("/api/media") ||
                 path.startsWith("/actuator") ||
                 path.startsWith("/api/health") ||
                 path.startsWith("/swagger-ui") ||
                 path.startsWith("/v3/api-docs") ||
-                path.startsWith("/api/benchmark") ||
                 path.equals("/api/auth/user-organization");
     }
 
@@ -90,10 +92,11 @@ public class TenantFilter extends OncePerRequestFilter {
             }
 
             // ════════════════════════════════════════════════════════
-            // Vérifier que l'organisation existe et est active
+            // Vérifier que l'organisation existe et est active (snapshot en cache)
             // ════════════════════════════════════════════════════════
 
-            if (!organizationRepository.existsByIdAndActiveTrue(organizationId)) {
+            TenantSnapshot tenant = tenantSnapshotService.find(organizationId);
+            if (tenant == null || !tenant.active()) {
                 log.warn("⚠️ Organisation {} inexistante ou inactive", organizationId);
                 response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid organization");
                 return;
@@ -125,15 +128,16 @@ public class TenantFilter extends OncePerRequestFilter {
             }
 
             CachedBodyHttpServletRequest cachedRequest = (CachedBodyHttpServletRequest) request;
-            String body = cachedRequest.getBody();
+            byte[] body = cachedRequest.getCachedBody();
 
-            if (body == null || body.isBlank()) {
+            if (body.length == 0) {
                 log.warn("⚠️ Body vide pour /api/auth/login");
                 response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Missing request body");
                 return null;
             }
 
-            String username = extractJsonField(body, "username");
+            // ✅ Scan streaming Jackson : seul le champ username est lu
+            String username = LoginBodyReader.readUsername(body);
 
             if (username == null || username.isBlank()) {
                 log.warn("⚠️ Username manquant dans le body");
@@ -141,7 +145,12 @@ public class TenantFilter extends OncePerRequestFilter {
                 return null;
             }
 
-            Long orgId = userRepository.findOrganizationIdByUsername(username).orElse(null);
+            // ✅ Username inconnu → 401 sans requête SQL
+            Long orgId = null;
+            if (!usernameDirectory.isDefinitelyUnknown(username)) {
+                orgId = userRepository.findOrganizationIdByUsername(username).orElse(null);
+                usernameDirectory.recordLookup(username, orgId != null);
+            }
 
             if (orgId == null) {
                 log.warn("⚠️ Aucune organisation trouvée pour username: {}", username);
@@ -157,16 +166,4 @@ public class TenantFilter extends OncePerRequestFilter {
             return null;
         }
     }
-
-    private String extractJsonField(String json, String fieldName) {
-        try {
-            String pattern = "\"" + fieldName + "\"\\s*:\\s*\"([^\"]+)\"";
-            java.util.regex.Pattern p = java.util.regex.Pattern.compile(pattern);
-            java.util.regex.Matcher m = p.matcher(json);
-            return m.find() ? m.group(1) : null;
-        } catch (Exception e) {
-            log.debug("Erreur parsing JSON field {}: {}", fieldName, e.getMessage());
-            return null;
-        }
-    }
-}
\ No newline at end of file
+}
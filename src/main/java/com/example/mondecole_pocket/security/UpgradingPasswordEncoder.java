@@ -0,0 +1,74 @@
+package com.example.mondecole_pocket.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ════════════════════════════════════════════════════════
+ * UPGRADING PASSWORD ENCODER
+ * ════════════════════════════════════════════════════════
+ *
+ * New hashes: "{bcrypt}$2a$<cost>$..." at the configured cost.
+ * Legacy hashes without "{id}" prefix are still verified as BCrypt.
+ *
+ * upgradeEncoding() is true when the stored hash must be recomputed
+ * (other algorithm, or BCrypt cost different from the target — lower OR higher).
+ * Un hash legacy déjà au bon coût n'est pas recalculé juste pour ajouter le préfixe.
+ */
+public class UpgradingPasswordEncoder extends DelegatingPasswordEncoder {
+
+    public static final String BCRYPT_ID = "bcrypt";
+
+    private final TargetCostBCryptPasswordEncoder bcrypt;
+
+    public UpgradingPasswordEncoder(int bcryptCost) {
+        this(new TargetCostBCryptPasswordEncoder(bcryptCost));
+    }
+
+    private UpgradingPasswordEncoder(TargetCostBCryptPasswordEncoder bcrypt) {
+        super(BCRYPT_ID, Map.of(BCRYPT_ID, bcrypt));
+        this.bcrypt = bcrypt;
+        setDefaultPasswordEncoderForMatches(bcrypt);
+    }
+
+    public int getTargetCost() {
+        return bcrypt.targetCost;
+    }
+
+    @Override
+    protected boolean upgradeEncodingNonNull(String prefixEncodedPassword) {
+        if (!prefixEncodedPassword.startsWith("{")) {
+            return bcrypt.upgradeEncoding(prefixEncodedPassword);
+        }
+        return super.upgradeEncodingNonNull(prefixEncodedPassword);
+    }
+
+    /**
+     * BCrypt whose upgradeEncoding() flags any cost != target
+     * (the stock encoder only flags weaker hashes).
+     */
+    static class TargetCostBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+        private static final Pattern COST = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$");
+
+        private final int targetCost;
+
+        TargetCostBCryptPasswordEncoder(int targetCost) {
+            super(targetCost);
+            this.targetCost = targetCost;
+        }
+
+        @Override
+        protected boolean upgradeEncodingNonNull(String encodedPassword) {
+            Matcher matcher = COST.matcher(encodedPassword);
+            if (!matcher.find()) {
+                return true;
+            }
+            return Integer.parseInt(matcher.group(1)) != targetCost;
+        }
+    }
+}
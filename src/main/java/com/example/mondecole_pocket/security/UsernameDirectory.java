@@ -0,0 +1,201 @@
+package com.example.mondecole_pocket.security;
+
+import com.example.mondecole_pocket.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ════════════════════════════════════════════════════════
+ * USERNAME DIRECTORY
+ * ════════════════════════════════════════════════════════
+ *
+ * Rejects unknown usernames on the unauthenticated lookups
+ * (/api/auth/user-organization, login tenant resolution) without hitting Postgres:
+ *   1. short-TTL negative cache of usernames the DB just reported missing
+ *   2. Bloom filter of every known username (no false negatives)
+ *
+ * The filter is built at startup, then kept in sync on every replica by polling
+ * users created since the last sync (local joins are added immediately).
+ * Deleted usernames cannot be removed from a Bloom filter: a deletion schedules
+ * a full rebuild on the next sync, until then they simply fall through to the DB.
+ */
+@Slf4j
+@Component
+public class UsernameDirectory implements ApplicationRunner {
+
+    /** Tolerance for transactions committing after the poll that saw their created_at */
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(30);
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final double falsePositiveRate;
+    private final Duration rebuildInterval;
+    private final Cache<String, Boolean> negativeCache;
+
+    private final Counter bloomRejected;
+    private final Counter negativeCacheRejected;
+    private final Counter databaseFound;
+    private final Counter databaseMissing;
+    private final AtomicInteger knownUsernames = new AtomicInteger();
+
+    private volatile BloomFilter filter;
+    private volatile LocalDateTime lastSync;
+    private volatile LocalDateTime lastRebuild;
+    private volatile boolean rebuildRequested;
+
+    public UsernameDirectory(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.security.username-filter.enabled:true}") boolean enabled,
+            @Value("${app.security.username-filter.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${app.security.username-filter.rebuild-interval:6h}") Duration rebuildInterval,
+            @Value("${app.security.username-filter.negative-ttl:30s}") Duration negativeTtl,
+            @Value("${app.security.username-filter.negative-max-size:100000}") long negativeMaxSize) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rebuildInterval = rebuildInterval;
+        this.negativeCache = Caffeine.newBuilder()
+                .expireAfterWrite(negativeTtl)
+                .maximumSize(negativeMaxSize)
+                .build();
+
+        this.bloomRejected = lookupCounter(meterRegistry, "bloom_rejected");
+        this.negativeCacheRejected = lookupCounter(meterRegistry, "negative_cache_rejected");
+        this.databaseFound = lookupCounter(meterRegistry, "db_found");
+        this.databaseMissing = lookupCounter(meterRegistry, "db_missing");
+        Gauge.builder("auth.username.filter.size", knownUsernames, AtomicInteger::get)
+                .description("Usernames loaded in the Bloom filter")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * True when the username certainly does not exist (no DB lookup needed)
+     */
+    public boolean isDefinitelyUnknown(String username) {
+        if (!enabled) {
+            return false;
+        }
+        if (negativeCache.getIfPresent(username) != null) {
+            negativeCacheRejected.increment();
+            return true;
+        }
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(username)) {
+            bloomRejected.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /** Record the outcome of a DB lookup that the filters let through */
+    public void recordLookup(String username, boolean found) {
+        if (found) {
+            databaseFound.increment();
+        } else {
+            databaseMissing.increment();
+            if (enabled) {
+                negativeCache.put(username, Boolean.TRUE);
+            }
+        }
+    }
+
+    /** A user was created on this replica (other replicas pick it up on their next sync) */
+    public void register(String username) {
+        negativeCache.invalidate(username);
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(username);
+            knownUsernames.incrementAndGet();
+        }
+    }
+
+    /** A user was deleted: the filter will be rebuilt on the next sync */
+    public void unregister(String username) {
+        rebuildRequested = true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.username-filter.sync-interval:5s}")
+    public void sync() {
+        if (!enabled) {
+            return;
+        }
+        BloomFilter current = filter;
+        if (current == null
+                || rebuildRequested
+                || knownUsernames.get() > current.expectedInsertions()
+                || lastRebuild.plus(rebuildInterval).isBefore(LocalDateTime.now())) {
+            rebuild();
+            return;
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        try {
+            addCreatedSince(current, lastSync);
+            lastSync = startedAt;
+        } catch (Exception e) {
+            log.warn("⚠️ Username filter sync failed: {}", e.getMessage());
+        }
+    }
+
+    private void addCreatedSince(BloomFilter target, LocalDateTime since) {
+        for (String username : userRepository.findUsernamesCreatedSince(since.minus(SYNC_OVERLAP))) {
+            negativeCache.invalidate(username);
+            if (!target.mightContain(username)) {
+                target.put(username);
+                knownUsernames.incrementAndGet();
+            }
+        }
+    }
+
+    private void rebuild() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        try {
+            rebuildRequested = false;
+            List<String> usernames = userRepository.findAllUsernames();
+            // ✅ Marge x2 pour absorber les inscriptions avant le prochain rebuild
+            BloomFilter rebuilt = new BloomFilter(Math.max(10_000L, usernames.size() * 2L), falsePositiveRate);
+            usernames.forEach(rebuilt::put);
+
+            filter = rebuilt;
+            knownUsernames.set(usernames.size());
+            // Inscriptions commitées pendant le chargement
+            addCreatedSince(rebuilt, startedAt);
+            lastSync = startedAt;
+            lastRebuild = startedAt;
+            log.info("✅ Username filter built: {} usernames, {} bits", usernames.size(), rebuilt.bitCount());
+        } catch (Exception e) {
+            // Le filtre précédent (ou aucun filtre) reste en place : pas de faux négatif
+            rebuildRequested = true;
+            log.warn("⚠️ Username filter rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    private static Counter lookupCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("auth.username.lookups")
+                .description("Unauthenticated username lookups by the layer that answered them")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
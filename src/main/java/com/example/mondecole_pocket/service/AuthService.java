@@ -2,14 +2,15 @@ package com.example.mondecole_pocket.service;
 
 import com.example.mondecole_pocket.dto.*;
 import com.example.mondecole_pocket.entity.User;
+import com.example.mondecole_pocket.exception.AuthOverloadedException;
 import com.example.mondecole_pocket.repository.UserRepository;
 import com.example.mondecole_pocket.security.CustomUserDetails;
+import com.example.mondecole_pocket.security.PasswordHasher;
 import com.example.mondecole_pocket.security.TenantContext;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,9 +22,10 @@ import java.time.LocalDateTime;
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtService jwtService;
     private final RefreshTokenService refreshTokenService;
+    private final LastSeenTracker lastSeenTracker;
 
     public record AuthResult(
             String accessToken,
@@ -44,8 +46,10 @@ public class AuthService {
      * - Header X-Organization-Id (vérifié par TenantFilter)
      *
      * Le TenantFilter a déjà configuré le TenantContext avant d'arriver ici
+     *
+     * ⚠️ Volontairement hors transaction : aucune connexion JDBC n'est retenue
+     * pendant l'attente / le calcul BCrypt (chaque appel repository a la sienne)
      */
-    @Transactional
     public AuthResult login(LoginRequest req, HttpServletRequest httpReq) {
 
         // ✅ Récupérer l'organizationId du TenantContext (configuré par TenantFilter)
@@ -66,8 +70,8 @@ public class AuthService {
                     return new BadCredentialsException("INVALID_CREDENTIALS");
                 });
 
-        // Vérifier mot de passe
-        if (!passwordEncoder.matches(req.password(), user.getPasswordHash())) {
+        // Vérifier mot de passe (pool dédié, 503 si saturé)
+        if (!passwordHasher.matches(req.password(), user.getPasswordHash())) {
             log.warn("⚠️ Login failed: invalid password for user '{}' in org {}",
                     req.username(), organizationId);
             throw new BadCredentialsException("INVALID_CREDENTIALS");
@@ -76,9 +80,11 @@ public class AuthService {
         // Vérifier statut du compte
         assertAccountOk(user);
 
-        // Mettre à jour last login
-        user.setLastLoginAt(LocalDateTime.now());
-        userRepository.save(user);
+        // Hash d'un autre algo / coût → recalcul transparent avec le mot de passe en clair
+        upgradePasswordHashIfNeeded(user, req.password());
+
+        // Last login : écriture différée et regroupée (voir LastSeenTracker)
+        lastSeenTracker.recordLogin(user.getId(), user.getLastLoginAt());
 
         // ✅ Générer access token avec userId + organizationId
         String accessToken = issueAccessToken(user);
@@ -104,6 +110,24 @@ public class AuthService {
         );
     }
 
+    private void upgradePasswordHashIfNeeded(User user, String rawPassword) {
+        String currentHash = user.getPasswordHash();
+        if (!passwordHasher.needsRehash(currentHash)) {
+            return;
+        }
+
+        try {
+            String upgradedHash = passwordHasher.encode(rawPassword);
+            if (userRepository.updatePasswordHash(user.getId(), currentHash, upgradedHash) == 1) {
+                user.setPasswordHash(upgradedHash);
+                log.info("🔐 Password hash upgraded for user {}", user.getId());
+            }
+        } catch (AuthOverloadedException e) {
+            // Le login a déjà réussi : on retentera au prochain
+            log.debug("Password rehash skipped for user {} (hashing pool busy)", user.getId());
+        }
+    }
+
     // ════════════════════════════════════════════════════════
     // REFRESH - Renouvellement du token
     // ════════════════════════════════════════════════════════
@@ -0,0 +1,131 @@
+package com.example.mondecole_pocket.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * ════════════════════════════════════════════════════════
+ * CONTENT VERSIONS (ETags)
+ * ════════════════════════════════════════════════════════
+ *
+ * Strong ETags for the student read endpoints, computed by PostgreSQL in a
+ * single aggregate query: md5 over the ids + updated_at of every row that
+ * feeds the response, plus the student's own progress fields. No TEXT body
+ * (lesson content, descriptions) is read or transferred.
+ *
+ * Only fields rendered in the response are hashed: view counts and
+ * lesson_progress.last_accessed_at change on every read and are left out,
+ * so re-reading a lesson does not invalidate its own ETag.
+ *
+ * The catalog only looks at the requested page: same ORDER BY / LIMIT /
+ * OFFSET as the page query, then per listed course its version, author,
+ * student count and the student's own enrollment. Outside the page, only
+ * the published count (page metadata) is read.
+ *
+ * null → nothing to version (not found, not enrolled): the caller takes the
+ * normal path and produces the usual error.
+ */
+@Service
+@RequiredArgsConstructor
+public class ContentVersionService {
+
+    private static final String COURSE_DETAIL = """
+            SELECT md5(concat_ws('|',
+                c.id, COALESCE(c.updated_at, c.created_at), u.updated_at,
+                (SELECT string_agg(s.id || ':' || COALESCE(s.updated_at, s.created_at), ',' ORDER BY s.id)
+                   FROM course_sections s
+                  WHERE s.course_id = c.id AND s.deleted_at IS NULL),
+                (SELECT string_agg(l.id || ':' || COALESCE(l.updated_at, l.created_at), ',' ORDER BY l.id)
+                   FROM lessons l JOIN course_sections s ON s.id = l.section_id
+                  WHERE s.course_id = c.id AND s.deleted_at IS NULL),
+                (SELECT count(*) FROM course_enrollments ce
+                  WHERE ce.organization_id = c.organization_id AND ce.course_id = c.id),
+                e.id, e.progress_percent, e.completed, e.last_accessed_at,
+                (SELECT string_agg(p.lesson_id || ':' || p.completed || ':' || p.progress_percent, ',' ORDER BY p.lesson_id)
+                   FROM lesson_progress p
+                   JOIN lessons l ON l.id = p.lesson_id
+                   JOIN course_sections s ON s.id = l.section_id
+                  WHERE p.organization_id = c.organization_id AND p.student_id = ? AND s.course_id = c.id)
+            ))
+            FROM courses c
+            LEFT JOIN users u ON u.id = c.author_id
+            LEFT JOIN course_enrollments e
+                   ON e.organization_id = c.organization_id AND e.course_id = c.id AND e.student_id = ?
+            WHERE c.id = ? AND c.organization_id = ? AND c.published = TRUE AND c.deleted_at IS NULL
+            """;
+
+    private static final String LESSON_CONTENT = """
+            SELECT md5(concat_ws('|',
+                l.id, COALESCE(l.updated_at, l.created_at), COALESCE(s.updated_at, s.created_at),
+                COALESCE(p.completed, FALSE), COALESCE(p.progress_percent, 0), p.last_position_seconds,
+                (SELECT string_agg(l2.id || ':' || COALESCE(s2.order_index, 0) || ':' || l2.order_index, ','
+                                   ORDER BY s2.order_index, l2.order_index)
+                   FROM lessons l2 JOIN course_sections s2 ON s2.id = l2.section_id
+                  WHERE s2.course_id = s.course_id AND l2.organization_id = l.organization_id
+                    AND s2.deleted_at IS NULL)
+            ))
+            FROM lessons l
+            JOIN course_sections s ON s.id = l.section_id AND s.deleted_at IS NULL
+            JOIN courses c ON c.id = s.course_id AND c.published = TRUE AND c.deleted_at IS NULL
+            JOIN course_enrollments e
+              ON e.organization_id = l.organization_id AND e.course_id = s.course_id AND e.student_id = ?
+            LEFT JOIN lesson_progress p
+                   ON p.organization_id = l.organization_id AND p.lesson_id = l.id AND p.student_id = ?
+            WHERE l.id = ? AND l.organization_id = ?
+            """;
+
+    private static final String CATALOG = """
+            WITH page AS (
+                SELECT c.id, COALESCE(c.updated_at, c.created_at) AS version, c.author_id
+                  FROM courses c
+                 WHERE c.organization_id = ? AND c.published = TRUE AND c.deleted_at IS NULL
+                 ORDER BY c.published_at DESC
+                 LIMIT ? OFFSET ?
+            )
+            SELECT md5(concat_ws('|', ?::int, ?::int,
+                (SELECT count(*)
+                   FROM courses c
+                  WHERE c.organization_id = ? AND c.published = TRUE AND c.deleted_at IS NULL),
+                (SELECT string_agg(concat_ws(':',
+                            p.id, p.version, COALESCE(u.updated_at::text, ''),
+                            (SELECT count(*) FROM course_enrollments n
+                              WHERE n.organization_id = ? AND n.course_id = p.id),
+                            COALESCE(e.id::text, ''), COALESCE(e.progress_percent::text, ''),
+                            COALESCE(e.completed::text, ''), COALESCE(e.enrolled_at::text, ''),
+                            COALESCE(e.last_accessed_at::text, '')), ',' ORDER BY p.id)
+                   FROM page p
+                   LEFT JOIN users u ON u.id = p.author_id
+                   LEFT JOIN course_enrollments e
+                          ON e.organization_id = ? AND e.course_id = p.id AND e.student_id = ?)
+            ))
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional(readOnly = true)
+    public String courseDetail(Long organizationId, Long courseId, Long studentId) {
+        return single(jdbcTemplate.queryForList(COURSE_DETAIL, String.class,
+                studentId, studentId, courseId, organizationId));
+    }
+
+    @Transactional(readOnly = true)
+    public String lessonContent(Long organizationId, Long lessonId, Long studentId) {
+        return single(jdbcTemplate.queryForList(LESSON_CONTENT, String.class,
+                studentId, studentId, lessonId, organizationId));
+    }
+
+    @Transactional(readOnly = true)
+    public String catalog(Long organizationId, Long studentId, int page, int size) {
+        return single(jdbcTemplate.queryForList(CATALOG, String.class,
+                organizationId, size, (long) page * size,
+                page, size, organizationId, organizationId, organizationId, studentId));
+    }
+
+    private static String single(List<String> rows) {
+        return rows.isEmpty() ? null : rows.getFirst();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.mondecole_pocket.service;
+
+import com.example.mondecole_pocket.dto.CourseOutline;
+import com.example.mondecole_pocket.entity.Course;
+import com.example.mondecole_pocket.entity.CourseSection;
+import com.example.mondecole_pocket.entity.User;
+import com.example.mondecole_pocket.exception.CourseNotFoundException;
+import com.example.mondecole_pocket.repository.CourseRepository;
+import com.example.mondecole_pocket.repository.CourseSectionRepository;
+import com.example.mondecole_pocket.repository.LessonRepository;
+import com.example.mondecole_pocket.repository.LessonRepository.LessonSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class CourseOutlineService {
+
+    private final CourseRepository courseRepository;
+    private final CourseSectionRepository sectionRepository;
+    private final LessonRepository lessonRepository;
+
+    /**
+     * Get the outline of a published course (3 queries on a miss, none on a hit)
+     */
+    @Cacheable(cacheNames = "courseOutline", key = "#organizationId + ':' + #courseId")
+    @Transactional(readOnly = true)
+    public CourseOutline getPublishedOutline(Long organizationId, Long courseId) {
+        Course course = courseRepository.findByIdAndOrganizationIdAndPublishedTrue(courseId, organizationId)
+                .orElseThrow(() -> new CourseNotFoundException("Course not found or not published"));
+
+        List<CourseSection> sections = sectionRepository
+                .findByOrganizationIdAndCourseIdOrderByOrderIndexAsc(organizationId, courseId);
+
+        // ✅ Toutes les leçons en une requête (au lieu de section.getLessons() par section)
+        // (projection : ni content ni description des leçons)
+        Map<Long, List<CourseOutline.LessonInfo>> lessonsBySection = lessonRepository
+                .findSummariesByCourseId(organizationId, courseId).stream()
+                .collect(Collectors.groupingBy(LessonSummary::getSectionId, Collectors.mapping(
+                        lesson -> new CourseOutline.LessonInfo(
+                                lesson.getId(),
+                                lesson.getTitle(),
+                                lesson.getType().name(),
+                                lesson.getOrderIndex(),
+                                lesson.getDurationSeconds()
+                        ),
+                        Collectors.toList())));
+
+        List<CourseOutline.SectionInfo> sectionInfos = sections.stream()
+                .map(section -> new CourseOutline.SectionInfo(
+                        section.getId(),
+                        section.getTitle(),
+                        section.getDescription(),
+                        section.getOrderIndex(),
+                        lessonsBySection.getOrDefault(section.getId(), List.of())
+                ))
+                .toList();
+
+        int totalLessons = sectionInfos.stream().mapToInt(s -> s.lessons().size()).sum();
+
+        CourseOutline.TeacherInfo teacherInfo = null;
+        if (course.getAuthor() != null) {
+            User teacher = course.getAuthor();
+            teacherInfo = new CourseOutline.TeacherInfo(teacher.getId(), teacher.getUsername(), teacher.getFullName());
+        }
+
+        return new CourseOutline(
+                course.getId(),
+                course.getOrganizationId(),
+                course.getTitle(),
+                course.getSlug(),
+                course.getSummary(),
+                course.getDescription(),
+                course.getCategory(),
+                course.getLevel(),
+                course.getEstimatedHours(),
+                course.getThumbnailUrl(),
+                course.getLanguage(),
+                course.getObjectives(),
+                course.getPrerequisites(),
+                teacherInfo,
+                sectionInfos,
+                totalLessons,
+                course.getPublishedAt()
+        );
+    }
+
+    /**
+     * Drop the cached outline after a change to the course, its sections or its lessons
+     */
+    @CacheEvict(cacheNames = "courseOutline", key = "#organizationId + ':' + #courseId")
+    public void evict(Long organizationId, Long courseId) {
+    }
+}
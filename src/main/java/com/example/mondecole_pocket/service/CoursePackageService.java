@@ -0,0 +1,252 @@
+package com.example.mondecole_pocket.service;
+
+import com.example.mondecole_pocket.dto.CourseOutline;
+import com.example.mondecole_pocket.repository.CourseEnrollmentRepository;
+import com.example.mondecole_pocket.repository.LessonRepository;
+import com.example.mondecole_pocket.repository.LessonRepository.LessonPackageRow;
+import com.example.mondecole_pocket.security.TenantContext;
+import com.example.mondecole_pocket.service.storage.FileStorage;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * ════════════════════════════════════════════════════════
+ * COURSE PACKAGE (offline ZIP export)
+ * ════════════════════════════════════════════════════════
+ *
+ * GET /api/student/courses/{id}/package, written entry by entry on the
+ * response stream — nothing staged in memory or on disk:
+ *
+ *   course.json                    outline (cached CourseOutline)
+ *   lessons/{id}/lesson.json       title, description, content, video link
+ *   lessons/{id}/files/{name}      lesson file, when downloadable
+ *
+ * Lessons are read in keyset pages of PAGE_SIZE rows (section order, lesson
+ * order, id), each page in its own short read-only transaction, and written
+ * to the response once that transaction has ended: a slow client never holds
+ * a database connection, and at most one page of TEXT content is in memory.
+ * Pages are not one snapshot — a lesson edited during an export shows its
+ * state at the time its page was read. Files are only noted during that pass
+ * and streamed at the end.
+ *
+ * Files go through FileStorage.transferTo into the ZIP channel. ZIP needs a
+ * CRC (and deflate) over every byte, so the kernel sendfile path used by
+ * FileRangeSender is not possible here; entries are DEFLATED at level 0
+ * (videos and PDFs are already compressed) and the copy buffer stays constant.
+ */
+@Slf4j
+@Service
+public class CoursePackageService {
+
+    private static final String LESSONS_DIR = "lessons/";
+
+    static final int PAGE_SIZE = 50;
+
+    private final CourseOutlineService courseOutlineService;
+    private final CourseEnrollmentRepository enrollmentRepository;
+    private final LessonRepository lessonRepository;
+    private final FileStorage storage;
+    private final TransactionTemplate readOnlyTransaction;
+    private final MeterRegistry meterRegistry;
+    private final ObjectWriter jsonWriter;
+
+    public CoursePackageService(CourseOutlineService courseOutlineService,
+                                CourseEnrollmentRepository enrollmentRepository,
+                                LessonRepository lessonRepository,
+                                FileStorage storage,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                ObjectMapper objectMapper) {
+        this.courseOutlineService = courseOutlineService;
+        this.enrollmentRepository = enrollmentRepository;
+        this.lessonRepository = lessonRepository;
+        this.storage = storage;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+        // Le ZipOutputStream reste ouvert entre les entrées
+        this.jsonWriter = objectMapper.writerWithDefaultPrettyPrinter()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /** Cours vérifié (publié, élève inscrit ou auteur), prêt à être écrit */
+    public record CoursePackage(Long organizationId, CourseOutline outline, String fileName) {}
+
+    private record LessonDocument(
+            Long id,
+            Long sectionId,
+            String title,
+            String type,
+            Integer orderIndex,
+            Integer durationSeconds,
+            String description,
+            String content,
+            String externalVideoUrl,
+            FileInfo file
+    ) {}
+
+    /** path null : fichier non téléchargeable, absent du paquet */
+    private record FileInfo(String name, String mimeType, Long sizeBytes, String path) {}
+
+    private record PendingFile(Long lessonId, String storageKey, String entryName, long sizeBytes) {}
+
+    // ════════════════════════════════════════════════════════
+    // Contrôle d'accès (thread de la requête, avant tout octet écrit)
+    // ════════════════════════════════════════════════════════
+
+    public CoursePackage preparePackage(Long courseId, Long userId) {
+        Long organizationId = TenantContext.getTenantId();
+        CourseOutline outline = courseOutlineService.getPublishedOutline(organizationId, courseId);
+
+        boolean author = outline.teacher() != null && userId.equals(outline.teacher().id());
+        if (!author && enrollmentRepository
+                .findByOrganizationIdAndStudentIdAndCourseId(organizationId, userId, courseId).isEmpty()) {
+            throw new AccessDeniedException("Not enrolled in this course");
+        }
+
+        String name = outline.slug() != null && !outline.slug().isBlank() ? outline.slug() : "course-" + courseId;
+        return new CoursePackage(organizationId, outline, name + ".zip");
+    }
+
+    // ════════════════════════════════════════════════════════
+    // Écriture du ZIP
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Writes the package to `out`. Headers are already sent when this runs: a
+     * missing file is skipped (logged), any other failure aborts the stream.
+     * `out` is finished, not closed (the container owns it).
+     */
+    public void write(CoursePackage coursePackage, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        ZipOutputStream zip = new ZipOutputStream(out);
+
+        zip.putNextEntry(new ZipEntry("course.json"));
+        jsonWriter.writeValue(zip, coursePackage.outline());
+        zip.closeEntry();
+
+        List<PendingFile> files = writeLessons(coursePackage, zip);
+
+        // Fichiers après la transaction : aucune connexion tenue pendant l'envoi des médias
+        zip.setLevel(Deflater.NO_COMPRESSION);
+        WritableByteChannel channel = Channels.newChannel(zip);
+        int skipped = 0;
+        for (PendingFile file : files) {
+            if (!writeFile(file, zip, channel)) {
+                skipped++;
+            }
+        }
+        zip.finish();
+        out.flush();
+
+        meterRegistry.timer("course.package.write", "outcome", skipped == 0 ? "complete" : "partial")
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        log.info("📦 Course package {} written: {} files ({} skipped)",
+                coursePackage.fileName(), files.size() - skipped, skipped);
+    }
+
+    private List<PendingFile> writeLessons(CoursePackage coursePackage, ZipOutputStream zip) throws IOException {
+        Long courseId = coursePackage.outline().id();
+        List<PendingFile> files = new ArrayList<>();
+        List<LessonPackageRow> page = readPage(coursePackage.organizationId(), courseId, null);
+        while (!page.isEmpty()) {
+            // Transaction terminée : la connexion est rendue avant d'écrire sur le socket
+            for (LessonPackageRow row : page) {
+                writeLesson(row, zip, files);
+            }
+            if (page.size() < PAGE_SIZE) {
+                break;
+            }
+            page = readPage(coursePackage.organizationId(), courseId, page.getLast());
+        }
+        return files;
+    }
+
+    private List<LessonPackageRow> readPage(Long organizationId, Long courseId, LessonPackageRow last) {
+        return readOnlyTransaction.execute(status -> last == null
+                ? lessonRepository.findPackagePage(organizationId, courseId,
+                        Integer.MIN_VALUE, Integer.MIN_VALUE, Long.MIN_VALUE, Limit.of(PAGE_SIZE))
+                : lessonRepository.findPackagePage(organizationId, courseId,
+                        last.getSectionOrderIndex(), last.getOrderIndex(), last.getId(), Limit.of(PAGE_SIZE)));
+    }
+
+    private void writeLesson(LessonPackageRow row, ZipOutputStream zip, List<PendingFile> files) throws IOException {
+        String lessonDir = LESSONS_DIR + row.getId() + "/";
+
+        FileInfo fileInfo = null;
+        if (row.getStorageKey() != null) {
+            String path = null;
+            if (Boolean.TRUE.equals(row.getDownloadable())) {
+                path = lessonDir + "files/" + entryFileName(row.getFileName(), row.getId());
+                files.add(new PendingFile(row.getId(), row.getStorageKey(), path,
+                        row.getFileSizeBytes() != null ? row.getFileSizeBytes() : -1));
+            }
+            fileInfo = new FileInfo(row.getFileName(), row.getMimeType(), row.getFileSizeBytes(), path);
+        }
+
+        zip.putNextEntry(new ZipEntry(lessonDir + "lesson.json"));
+        jsonWriter.writeValue(zip, new LessonDocument(
+                row.getId(),
+                row.getSectionId(),
+                row.getTitle(),
+                row.getType() != null ? row.getType().name() : null,
+                row.getOrderIndex(),
+                row.getDurationSeconds(),
+                row.getDescription(),
+                row.getContent(),
+                row.getExternalVideoUrl(),
+                fileInfo));
+        zip.closeEntry();
+    }
+
+    /** @return false si l'objet n'existe plus (remplacé ou purgé depuis la lecture) */
+    private boolean writeFile(PendingFile file, ZipOutputStream zip, WritableByteChannel channel) throws IOException {
+        long size;
+        try {
+            size = storage.size(file.storageKey());
+        } catch (NoSuchFileException e) {
+            log.warn("⚠️ Lesson {} file missing from package: {}", file.lessonId(), file.storageKey());
+            return false;
+        }
+        if (file.sizeBytes() >= 0 && file.sizeBytes() != size) {
+            log.warn("⚠️ Lesson {} file size differs from metadata ({} vs {})", file.lessonId(), size, file.sizeBytes());
+        }
+
+        zip.putNextEntry(new ZipEntry(file.entryName()));
+        storage.transferTo(file.storageKey(), 0, size, channel);
+        zip.closeEntry();
+        return true;
+    }
+
+    /**
+     * Nom d'entrée sûr : ni séparateur ni ".." (pas de zip slip à l'extraction),
+     * repli sur lesson-{id} si rien ne reste.
+     */
+    static String entryFileName(String fileName, Long lessonId) {
+        if (fileName == null) {
+            return "lesson-" + lessonId;
+        }
+        String cleaned = fileName.replaceAll("[\\\\/:\\p{Cntrl}]", "_").replace("..", "_").strip();
+        return cleaned.isEmpty() || cleaned.equals(".") ? "lesson-" + lessonId : cleaned;
+    }
+}
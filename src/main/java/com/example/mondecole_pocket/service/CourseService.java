@@ -3,6 +3,7 @@ package com.example.mondecole_pocket.service;
 import com.example.mondecole_pocket.dto.*;
 import com.example.mondecole_pocket.entity.Course;
 import com.example.mondecole_pocket.entity.User;
+import com.example.mondecole_pocket.entity.enums.PurgeTarget;
 import com.example.mondecole_pocket.exception.CourseAlreadyPublishedException;
 import com.example.mondecole_pocket.exception.CourseNotFoundException;
 import com.example.mondecole_pocket.exception.CourseNotPublishedException;
@@ -23,6 +24,8 @@ import java.time.LocalDateTime;
 public class CourseService {
 
     private final CourseRepository courseRepository;
+    private final CourseOutlineService courseOutlineService;
+    private final PurgeService purgeService;
 
     /**
      * Get all courses for current teacher
@@ -31,16 +34,11 @@ public class CourseService {
     public Page<CourseListResponse> getMyCourses(Long authorId, Boolean published, Pageable pageable) {
         Long organizationId = TenantContext.getTenantId();
 
-        Page<Course> courses;
+        // ✅ Projection : la liste ne lit que les colonnes affichées
         if (published != null) {
-            courses = courseRepository.findByOrganizationIdAndAuthorIdAndPublished(
-                    organizationId, authorId, published, pageable);
-        } else {
-            courses = courseRepository.findByOrganizationIdAndAuthorId(
-                    organizationId, authorId, pageable);
+            return courseRepository.findListByAuthorAndPublished(organizationId, authorId, published, pageable);
         }
-
-        return courses.map(this::toCourseListResponse);
+        return courseRepository.findListByAuthor(organizationId, authorId, pageable);
     }
 
     /**
@@ -149,6 +147,7 @@ public class CourseService {
         }
 
         course = courseRepository.save(course);
+        courseOutlineService.evict(organizationId, courseId);
 
         log.info("✅ Course updated: id={}, title={}", course.getId(), course.getTitle());
 
@@ -156,7 +155,8 @@ public class CourseService {
     }
 
     /**
-     * Delete course
+     * Delete course : masqué immédiatement (soft delete), sections / leçons /
+     * inscriptions / progression purgées en arrière-plan (CascadePurgeHandler)
      */
     @Transactional
     public void deleteCourse(Long courseId, Long authorId) {
@@ -166,9 +166,12 @@ public class CourseService {
                         courseId, organizationId, authorId)
                 .orElseThrow(() -> new CourseNotFoundException("Course not found"));
 
-        courseRepository.delete(course);
+        course.setDeletedAt(LocalDateTime.now());
+        courseRepository.save(course);
+        courseOutlineService.evict(organizationId, courseId);
+        purgeService.requestPurge(organizationId, PurgeTarget.COURSE, courseId, authorId);
 
-        log.info("✅ Course deleted: id={}, title={}", course.getId(), course.getTitle());
+        log.info("✅ Course deleted (purge scheduled): id={}, title={}", course.getId(), course.getTitle());
     }
 
 
@@ -187,6 +190,7 @@ public class CourseService {
         course.setPublished(true);
         course.setPublishedAt(LocalDateTime.now());
         course = courseRepository.save(course);
+        courseOutlineService.evict(organizationId, courseId);
 
         log.info("✅ Course published: id={}, title={}", course.getId(), course.getTitle());
 
@@ -207,6 +211,7 @@ public class CourseService {
 
         course.setPublished(false);
         course = courseRepository.save(course);
+        courseOutlineService.evict(organizationId, courseId);
 
         log.info("✅ Course unpublished: id={}, title={}", course.getId(), course.getTitle());
 
@@ -248,19 +253,6 @@ public class CourseService {
         return slug.isEmpty() ? "course" : slug;
     }
 
-    private CourseListResponse toCourseListResponse(Course course) {
-        return new CourseListResponse(
-                course.getId(),
-                course.getTitle(),
-                course.getSummary(),
-                course.getCategory(),
-                course.getLevel(),
-                course.getPublished(),
-                course.getCreatedAt(),
-                course.getEstimatedHours()
-        );
-    }
-
     private CourseDetailResponse toCourseDetailResponse(Course course) {
         CourseDetailResponse.AuthorInfo authorInfo = null;
         if (course.getAuthor() != null) {
@@ -0,0 +1,168 @@
+package com.example.mondecole_pocket.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ════════════════════════════════════════════════════════
+ * LAST SEEN TRACKER
+ * ════════════════════════════════════════════════════════
+ *
+ * Write-coalescing of refresh_tokens.last_used_at and users.last_login_at.
+ *
+ * - Nothing is recorded while the stored value is younger than the precision
+ *   (refresh / login stay read-only most of the time)
+ * - Otherwise the timestamp is kept in memory (one entry per id) and flushed
+ *   by periodic batched UPDATEs, plus a last flush on shutdown
+ *
+ * ⚠️ A crash loses at most one flush interval of timestamps (informational data).
+ */
+@Slf4j
+@Component
+public class LastSeenTracker {
+
+    private static final String UPDATE_TOKEN_LAST_USED =
+            "UPDATE refresh_tokens SET last_used_at = ? WHERE id = ? AND last_used_at < ?";
+
+    private static final String UPDATE_USER_LAST_LOGIN =
+            "UPDATE users SET last_login_at = ? WHERE id = ? AND (last_login_at IS NULL OR last_login_at < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration precision;
+
+    private final Map<Long, LocalDateTime> pendingTokenUses = new ConcurrentHashMap<>();
+    private final Map<Long, LocalDateTime> pendingLogins = new ConcurrentHashMap<>();
+
+    private final Counter tokenUsesSkipped;
+    private final Counter loginsSkipped;
+    private final Counter tokenRowsFlushed;
+    private final Counter loginRowsFlushed;
+
+    public LastSeenTracker(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.activity.write-precision:5m}") Duration precision) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.precision = precision;
+
+        this.tokenUsesSkipped = skippedCounter(meterRegistry, "refresh_token");
+        this.loginsSkipped = skippedCounter(meterRegistry, "login");
+        this.tokenRowsFlushed = flushedCounter(meterRegistry, "refresh_token");
+        this.loginRowsFlushed = flushedCounter(meterRegistry, "login");
+
+        Gauge.builder("activity.pending", pendingTokenUses, Map::size)
+                .description("Timestamps waiting for the next flush")
+                .tag("kind", "refresh_token")
+                .register(meterRegistry);
+        Gauge.builder("activity.pending", pendingLogins, Map::size)
+                .description("Timestamps waiting for the next flush")
+                .tag("kind", "login")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Refresh token used now (storedLastUsedAt = value read from the DB)
+     */
+    public void recordTokenUse(Long tokenId, LocalDateTime storedLastUsedAt) {
+        record(pendingTokenUses, tokenId, storedLastUsedAt, tokenUsesSkipped);
+    }
+
+    /**
+     * Successful login now (storedLastLoginAt = value read from the DB, may be null)
+     */
+    public void recordLogin(Long userId, LocalDateTime storedLastLoginAt) {
+        record(pendingLogins, userId, storedLastLoginAt, loginsSkipped);
+    }
+
+    @Scheduled(fixedDelayString = "${app.activity.flush-interval:30s}")
+    public void flush() {
+        int tokens = flush(pendingTokenUses, UPDATE_TOKEN_LAST_USED);
+        int logins = flush(pendingLogins, UPDATE_USER_LAST_LOGIN);
+        tokenRowsFlushed.increment(tokens);
+        loginRowsFlushed.increment(logins);
+
+        if (tokens > 0 || logins > 0) {
+            log.debug("Last-seen flush: {} refresh tokens, {} logins", tokens, logins);
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Last-seen flush on shutdown failed: {}", e.getMessage());
+        }
+    }
+
+    private void record(Map<Long, LocalDateTime> pending, Long id,
+                        LocalDateTime storedValue, Counter skipped) {
+        LocalDateTime now = LocalDateTime.now();
+        if (storedValue != null && storedValue.isAfter(now.minus(precision))) {
+            skipped.increment();
+            return;
+        }
+        pending.merge(id, now, (previous, current) -> current.isAfter(previous) ? current : previous);
+    }
+
+    private int flush(Map<Long, LocalDateTime> pending, String sql) {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        List<Object[]> batch = new ArrayList<>();
+        for (Long id : List.copyOf(pending.keySet())) {
+            LocalDateTime seenAt = pending.remove(id);
+            if (seenAt != null) {
+                Timestamp timestamp = Timestamp.valueOf(seenAt);
+                batch.add(new Object[]{timestamp, id, timestamp});
+            }
+        }
+
+        try {
+            int[] updated = jdbcTemplate.batchUpdate(sql, batch);
+            int rows = 0;
+            for (int count : updated) {
+                rows += Math.max(count, 0);
+            }
+            return rows;
+        } catch (RuntimeException e) {
+            // Remettre en file : un prochain flush retentera (la valeur la plus récente gagne)
+            for (Object[] row : batch) {
+                LocalDateTime seenAt = ((Timestamp) row[0]).toLocalDateTime();
+                pending.merge((Long) row[1], seenAt, (previous, current) -> current.isAfter(previous) ? current : previous);
+            }
+            log.warn("⚠️ Last-seen flush failed, {} rows re-queued: {}", batch.size(), e.getMessage());
+            return 0;
+        }
+    }
+
+    private static Counter skippedCounter(MeterRegistry meterRegistry, String kind) {
+        return Counter.builder("activity.writes.skipped")
+                .description("Timestamp updates dropped because the stored value is recent enough")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    private static Counter flushedCounter(MeterRegistry meterRegistry, String kind) {
+        return Counter.builder("activity.rows.flushed")
+                .description("Rows updated by batched last-seen flushes")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,325 @@
+package com.example.mondecole_pocket.service;
+
+import com.example.mondecole_pocket.dto.LessonFileAccess;
+import com.example.mondecole_pocket.dto.LessonFileResponse;
+import com.example.mondecole_pocket.entity.CourseSection;
+import com.example.mondecole_pocket.entity.Lesson;
+import com.example.mondecole_pocket.exception.ChecksumMismatchException;
+import com.example.mondecole_pocket.exception.CourseNotFoundException;
+import com.example.mondecole_pocket.exception.OrganizationNotFoundException;
+import com.example.mondecole_pocket.exception.StorageQuotaExceededException;
+import com.example.mondecole_pocket.repository.CourseRepository;
+import com.example.mondecole_pocket.repository.CourseSectionRepository;
+import com.example.mondecole_pocket.repository.LessonRepository;
+import com.example.mondecole_pocket.repository.OrganizationRepository;
+import com.example.mondecole_pocket.security.TenantContext;
+import com.example.mondecole_pocket.service.storage.FileStorage;
+import com.example.mondecole_pocket.service.storage.StoredFileRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * ════════════════════════════════════════════════════════
+ * LESSON FILES (upload, quota, access)
+ * ════════════════════════════════════════════════════════
+ *
+ * Upload in three steps, the transfer itself outside any transaction (no
+ * pooled connection held while a video crosses school Wi-Fi):
+ *   1. ownership check + quota reservation of Content-Length (short tx)
+ *   2. body → FileStorage under a new key (streamed, constant memory),
+ *      SHA-256 computed on the way
+ *   3. content referenced in StoredFileRegistry, lesson points to it,
+ *      previous file released (short tx)
+ * Any failure after step 1 gives the reservation back.
+ *
+ * Dedup: when the organization already stores the same content, step 3
+ * keeps the existing object, drops the new one and gives the reservation
+ * back. Content is only ever referenced after its bytes were received and
+ * hashed by the server: a SHA-256 announced by the client (X-Content-Sha256)
+ * is checked, never trusted to attach content it may not hold.
+ *
+ * Quota: organizations.storage_used_bytes, atomic conditional UPDATE against
+ * max_storage_mb; charged once per distinct content, given back with its
+ * last reference; never recomputed by scanning.
+ *
+ * Reads: resolveAccess() is cached per (organization, lesson, user) so the
+ * range requests of a video only check enrollment once per TTL.
+ */
+@Slf4j
+@Service
+public class LessonFileService {
+
+    private final FileStorage storage;
+    private final StoredFileRegistry storedFiles;
+    private final LessonRepository lessonRepository;
+    private final CourseSectionRepository sectionRepository;
+    private final CourseRepository courseRepository;
+    private final OrganizationRepository organizationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final long maxFileSize;
+
+    public LessonFileService(FileStorage storage,
+                             StoredFileRegistry storedFiles,
+                             LessonRepository lessonRepository,
+                             CourseSectionRepository sectionRepository,
+                             CourseRepository courseRepository,
+                             OrganizationRepository organizationRepository,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.storage.max-file-size:2GB}") DataSize maxFileSize) {
+        this.storage = storage;
+        this.storedFiles = storedFiles;
+        this.lessonRepository = lessonRepository;
+        this.sectionRepository = sectionRepository;
+        this.courseRepository = courseRepository;
+        this.organizationRepository = organizationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.maxFileSize = maxFileSize.toBytes();
+    }
+
+    public static String downloadUrl(Long lessonId) {
+        return "/api/student/lessons/" + lessonId + "/file";
+    }
+
+    long maxFileSize() {
+        return maxFileSize;
+    }
+
+    // ════════════════════════════════════════════════════════
+    // UPLOAD (enseignant)
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * @param sha256 optional SHA-256 announced by the client (hex), checked
+     *               against the received body (422 on mismatch)
+     */
+    public LessonFileResponse upload(Long sectionId, Long lessonId, Long teacherId,
+                                     String fileName, String mimeType, String sha256,
+                                     long contentLength, InputStream content) throws IOException {
+        Long organizationId = TenantContext.getTenantId();
+
+        if (contentLength <= 0) {
+            throw new IllegalArgumentException("Content-Length header is required");
+        }
+        if (contentLength > maxFileSize) {
+            throw new IllegalArgumentException("File exceeds the maximum size of " + maxFileSize + " bytes");
+        }
+        String cleanName = cleanFileName(fileName);
+
+        // 1. Droits + réservation du quota avant d'écrire quoi que ce soit
+        transactionTemplate.executeWithoutResult(status ->
+                findOwnedLesson(organizationId, sectionId, lessonId, teacherId));
+        reserve(organizationId, contentLength);
+
+        // 2. Transfert hors transaction, SHA-256 calculé au passage
+        String key = newKey(organizationId);
+        MessageDigest digest = sha256();
+        long written;
+        String actualSha256;
+        try {
+            written = storage.write(key, new DigestInputStream(content, digest), contentLength);
+            if (written != contentLength) {
+                throw new IllegalArgumentException("Body is shorter than Content-Length");
+            }
+            actualSha256 = HexFormat.of().formatHex(digest.digest());
+            if (sha256 != null && !sha256.equalsIgnoreCase(actualSha256)) {
+                throw new ChecksumMismatchException(sha256.toLowerCase(), actualSha256);
+            }
+        } catch (IOException | RuntimeException e) {
+            organizationRepository.releaseStorage(organizationId, contentLength);
+            deleteQuietly(key);
+            throw e;
+        }
+
+        // 3. Rattachement à la leçon
+        return attach(organizationId, sectionId, lessonId, teacherId,
+                key, actualSha256, cleanName, mimeType, written);
+    }
+
+    /**
+     * Points the lesson to an object already written under `key` and reserved in
+     * the quota (sizeBytes). When the organization already stores this content,
+     * the existing object is used: `key` is deleted and the reservation given back.
+     * On failure the reservation is given back and `key` deleted.
+     */
+    LessonFileResponse attach(Long organizationId, Long sectionId, Long lessonId, Long teacherId,
+                              String key, String sha256, String fileName, String mimeType, long sizeBytes) {
+        try {
+            return transactionTemplate.execute(status -> {
+                Lesson lesson = findOwnedLesson(organizationId, sectionId, lessonId, teacherId);
+
+                StoredFileRegistry.Reference content = storedFiles.acquire(organizationId, sha256, key, sizeBytes);
+                if (!content.created()) {
+                    // Doublon découvert après transfert : notre copie est redondante
+                    organizationRepository.releaseStorage(organizationId, sizeBytes);
+                    deleteOnCommit(key);
+                    meterRegistry.counter("storage.dedup.hits", "stage", "after_upload").increment();
+                }
+                return point(lesson, content, fileName, mimeType);
+            });
+        } catch (RuntimeException e) {
+            organizationRepository.releaseStorage(organizationId, sizeBytes);
+            deleteQuietly(key);
+            throw e;
+        }
+    }
+
+    /** Leçon → contenu référencé ; l'ancien fichier est libéré */
+    private LessonFileResponse point(Lesson lesson, StoredFileRegistry.Reference content,
+                                     String fileName, String mimeType) {
+        releaseOnCommit(lesson);
+
+        lesson.setStorageKey(content.storageKey());
+        lesson.setFileName(fileName);
+        lesson.setMimeType(mimeType);
+        lesson.setFileSizeBytes(content.sizeBytes());
+        lesson.setFileUrl(downloadUrl(lesson.getId()));
+        lessonRepository.save(lesson);
+
+        log.info("📎 File attached to lesson {}: {} ({} bytes, {})", lesson.getId(), fileName,
+                content.sizeBytes(), content.created() ? "new content" : "deduplicated");
+        return new LessonFileResponse(lesson.getId(), lesson.getFileUrl(), fileName, mimeType, content.sizeBytes());
+    }
+
+    @Transactional
+    public void deleteFile(Long sectionId, Long lessonId, Long teacherId) {
+        Long organizationId = TenantContext.getTenantId();
+
+        Lesson lesson = findOwnedLesson(organizationId, sectionId, lessonId, teacherId);
+        releaseOnCommit(lesson);
+
+        lesson.setStorageKey(null);
+        lesson.setFileName(null);
+        lesson.setMimeType(null);
+        lesson.setFileSizeBytes(null);
+        lesson.setFileUrl(null);
+        lessonRepository.save(lesson);
+    }
+
+    /**
+     * Drops the lesson's reference to its current file (file replaced, lesson
+     * deleted). On the last reference the quota is given back and the object
+     * deleted once the surrounding transaction commits.
+     */
+    public void releaseOnCommit(Lesson lesson) {
+        String key = lesson.getStorageKey();
+        if (key == null) {
+            return;
+        }
+        OptionalLong freed = storedFiles.release(key);
+        if (freed.isPresent()) {
+            organizationRepository.releaseStorage(lesson.getOrganizationId(), freed.getAsLong());
+            deleteOnCommit(key);
+        }
+    }
+
+    private void deleteOnCommit(String key) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deleteQuietly(key);
+            }
+        });
+    }
+
+    // ════════════════════════════════════════════════════════
+    // ACCÈS (élève inscrit ou auteur)
+    // ════════════════════════════════════════════════════════
+
+    @Cacheable(cacheNames = "lessonFileAccess", key = "#organizationId + ':' + #lessonId + ':' + #userId")
+    @Transactional(readOnly = true)
+    public LessonFileAccess resolveAccess(Long organizationId, Long lessonId, Long userId) {
+        return lessonRepository.findFileAccess(organizationId, lessonId, userId)
+                .orElseThrow(() -> new CourseNotFoundException("Lesson file not found"));
+    }
+
+    /** Entrée périmée (fichier remplacé pendant le TTL) */
+    @CacheEvict(cacheNames = "lessonFileAccess", key = "#organizationId + ':' + #lessonId + ':' + #userId")
+    public void evictAccess(Long organizationId, Long lessonId, Long userId) {
+    }
+
+    // ════════════════════════════════════════════════════════
+    // HELPERS
+    // ════════════════════════════════════════════════════════
+
+    Lesson findOwnedLesson(Long organizationId, Long sectionId, Long lessonId, Long teacherId) {
+        CourseSection section = sectionRepository.findByIdAndOrganizationId(sectionId, organizationId)
+                .orElseThrow(() -> new CourseNotFoundException("Section not found"));
+
+        courseRepository.findByIdAndOrganizationIdAndAuthorId(section.getCourseId(), organizationId, teacherId)
+                .orElseThrow(() -> new CourseNotFoundException("Course not found or unauthorized"));
+
+        Lesson lesson = lessonRepository.findByIdAndOrganizationId(lessonId, organizationId)
+                .orElseThrow(() -> new CourseNotFoundException("Lesson not found"));
+
+        if (!lesson.getSectionId().equals(sectionId)) {
+            throw new IllegalStateException("Lesson does not belong to this section");
+        }
+        return lesson;
+    }
+
+    void reserve(Long organizationId, long bytes) {
+        if (organizationRepository.reserveStorage(organizationId, bytes) == 0) {
+            int maxStorageMB = organizationRepository.findById(organizationId)
+                    .orElseThrow(() -> new OrganizationNotFoundException("Organization not found"))
+                    .getMaxStorageMB();
+            throw new StorageQuotaExceededException(bytes, maxStorageMB);
+        }
+    }
+
+    /** Clé jamais réutilisée : un objet libéré ne peut pas être la cible d'un upload concurrent */
+    static String newKey(Long organizationId) {
+        return "org-" + organizationId + "/blobs/" + UUID.randomUUID();
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    static String cleanFileName(String fileName) {
+        if (fileName == null || fileName.isBlank()) {
+            throw new IllegalArgumentException("fileName is required");
+        }
+        // Nom affiché uniquement (jamais utilisé comme chemin) : on retire chemins et caractères de contrôle
+        String name = fileName.substring(Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\')) + 1)
+                .replaceAll("\\p{Cntrl}", "")
+                .strip();
+        if (name.isEmpty() || name.length() > 255) {
+            throw new IllegalArgumentException("Invalid fileName");
+        }
+        return name;
+    }
+
+    void deleteQuietly(String key) {
+        try {
+            storage.delete(key);
+        } catch (IOException | RuntimeException e) {
+            log.warn("⚠️ Could not delete stored object {}: {}", key, e.getMessage());
+        }
+    }
+}
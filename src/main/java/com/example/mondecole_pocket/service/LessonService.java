@@ -39,6 +39,7 @@ public class LessonService {
         // Get section
         CourseSection section = sectionRepository.findById(lesson.getSectionId())
                 .orElseThrow(() -> new CourseNotFoundException("Section not found"));
+        requireReadableCourse(section.getCourseId(), organizationId);
 
         // Verify enrollment
         CourseEnrollment enrollment = enrollmentRepository
@@ -70,10 +71,22 @@ public class LessonService {
         progressRepository.save(progress);
 
         // Get navigation (previous/next lessons)
-        List<Lesson> allLessons = lessonRepository.findAllByCourseId(organizationId, section.getCourseId());
-        NavigationHelper nav = getNavigation(allLessons, lessonId);
+        List<Long> lessonIds = lessonRepository.findIdsByCourseId(organizationId, section.getCourseId());
+        NavigationHelper nav = getNavigation(lessonIds, lessonId);
 
-        return toLessonContentResponse(lesson, section, progress, nav, allLessons.size());
+        return toLessonContentResponse(lesson, section, progress, nav, lessonIds.size());
+    }
+
+    /**
+     * Record a lesson view without rebuilding the content (response served as 304)
+     */
+    @Transactional
+    public void recordLessonView(Long lessonId, Long studentId) {
+        Long organizationId = TenantContext.getTenantId();
+        LocalDateTime now = LocalDateTime.now();
+
+        progressRepository.recordView(organizationId, studentId, lessonId, now);
+        enrollmentRepository.touchByLesson(organizationId, studentId, lessonId, now);
     }
 
     /**
@@ -94,6 +107,7 @@ public class LessonService {
         // Get section
         CourseSection section = sectionRepository.findById(lesson.getSectionId())
                 .orElseThrow(() -> new CourseNotFoundException("Section not found"));
+        requireReadableCourse(section.getCourseId(), organizationId);
 
         // Verify enrollment
         CourseEnrollment enrollment = enrollmentRepository
@@ -139,10 +153,10 @@ public class LessonService {
         updateCourseProgress(enrollment, section.getCourseId(), studentId, organizationId);
 
         // Get navigation
-        List<Lesson> allLessons = lessonRepository.findAllByCourseId(organizationId, section.getCourseId());
-        NavigationHelper nav = getNavigation(allLessons, lessonId);
+        List<Long> lessonIds = lessonRepository.findIdsByCourseId(organizationId, section.getCourseId());
+        NavigationHelper nav = getNavigation(lessonIds, lessonId);
 
-        return toLessonContentResponse(lesson, section, progress, nav, allLessons.size());
+        return toLessonContentResponse(lesson, section, progress, nav, lessonIds.size());
     }
 
     /**
@@ -158,23 +172,27 @@ public class LessonService {
     // HELPERS
     // ════════════════════════════════════════════════════════
 
+    /** Leçon d'un cours supprimé (lignes pas encore purgées) ou dépublié : introuvable */
+    private void requireReadableCourse(Long courseId, Long organizationId) {
+        if (!courseRepository.existsByIdAndOrganizationIdAndPublishedTrue(courseId, organizationId)) {
+            throw new CourseNotFoundException("Course not found or not published");
+        }
+    }
+
     private void updateCourseProgress(CourseEnrollment enrollment, Long courseId, Long studentId, Long organizationId) {
-        // Get all lessons in course
-        List<Lesson> allLessons = lessonRepository.findAllByCourseId(organizationId, courseId);
+        // Get lesson IDs in course
+        List<Long> lessonIds = lessonRepository.findIdsByCourseId(organizationId, courseId);
 
-        if (allLessons.isEmpty()) {
+        if (lessonIds.isEmpty()) {
             return;
         }
 
-        // Get lesson IDs
-        List<Long> lessonIds = allLessons.stream().map(Lesson::getId).toList();
-
         // Count completed lessons
         long completedCount = progressRepository.countByOrganizationIdAndStudentIdAndLessonIdInAndCompletedTrue(
                 organizationId, studentId, lessonIds);
 
         // Calculate progress
-        int progressPercent = (int) ((completedCount * 100) / allLessons.size());
+        int progressPercent = (int) ((completedCount * 100) / lessonIds.size());
         enrollment.setProgressPercent(progressPercent);
 
         // Check if course is completed
@@ -187,24 +205,18 @@ public class LessonService {
         enrollmentRepository.save(enrollment);
     }
 
-    private NavigationHelper getNavigation(List<Lesson> allLessons, Long currentLessonId) {
-        int currentIndex = -1;
-        for (int i = 0; i < allLessons.size(); i++) {
-            if (allLessons.get(i).getId().equals(currentLessonId)) {
-                currentIndex = i;
-                break;
-            }
-        }
+    private NavigationHelper getNavigation(List<Long> lessonIds, Long currentLessonId) {
+        int currentIndex = lessonIds.indexOf(currentLessonId);
 
         Long previousId = null;
         Long nextId = null;
 
         if (currentIndex > 0) {
-            previousId = allLessons.get(currentIndex - 1).getId();
+            previousId = lessonIds.get(currentIndex - 1);
         }
 
-        if (currentIndex >= 0 && currentIndex < allLessons.size() - 1) {
-            nextId = allLessons.get(currentIndex + 1).getId();
+        if (currentIndex >= 0 && currentIndex < lessonIds.size() - 1) {
+            nextId = lessonIds.get(currentIndex + 1);
         }
 
         return new NavigationHelper(previousId, nextId, currentIndex + 1);
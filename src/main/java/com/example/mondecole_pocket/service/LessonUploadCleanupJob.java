@@ -0,0 +1,95 @@
+package com.example.mondecole_pocket.service;
+
+import com.example.mondecole_pocket.config.ClusterJobRunner;
+import com.example.mondecole_pocket.entity.LessonUpload;
+import com.example.mondecole_pocket.repository.LessonUploadRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * ════════════════════════════════════════════════════════
+ * LESSON UPLOAD CLEANUP
+ * ════════════════════════════════════════════════════════
+ *
+ * Sessions d'upload abandonnées (expires_at dépassé, repoussé à chaque chunk) :
+ * - un seul replica par période (ClusterJobRunner)
+ * - par lots : session supprimée, quota réservé rendu, .part effacé
+ * - puis les .part sans session (suppressions en cascade), plus vieux que le TTL
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LessonUploadCleanupJob {
+
+    private static final String JOB_NAME = "lesson-upload-cleanup";
+
+    private final ClusterJobRunner clusterJobRunner;
+    private final LessonUploadRepository uploadRepository;
+    private final LessonUploadService uploadService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.storage.upload.cleanup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.storage.upload.cleanup.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.storage.upload.cleanup.max-duration:5m}")
+    private Duration maxDuration;
+
+    @Value("${app.storage.upload.cleanup.lease:2m}")
+    private Duration lease;
+
+    @Value("${app.storage.upload.cleanup.min-interval:10m}")
+    private Duration minInterval;
+
+    @Value("${app.storage.upload.session-ttl:24h}")
+    private Duration sessionTtl;
+
+    @Scheduled(cron = "${app.storage.upload.cleanup.cron:0 */15 * * * *}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        clusterJobRunner.run(JOB_NAME, lease, minInterval, this::cleanup);
+    }
+
+    private String cleanup() throws IOException {
+        long deadline = System.nanoTime() + maxDuration.toNanos();
+        int discarded = 0;
+
+        while (true) {
+            List<LessonUpload> expired = uploadRepository.findExpired(LocalDateTime.now(), PageRequest.of(0, batchSize));
+            for (LessonUpload upload : expired) {
+                if (uploadService.discard(upload)) {
+                    discarded++;
+                }
+            }
+            meterRegistry.counter("storage.upload.expired").increment(expired.size());
+
+            if (expired.size() < batchSize) {
+                break;
+            }
+            if (System.nanoTime() > deadline) {
+                log.warn("⚠️ Upload cleanup stopped after {} (discarded={}), will resume next run", maxDuration, discarded);
+                return "budget_exhausted";
+            }
+        }
+
+        int orphans = uploadService.deleteOrphanParts(sessionTtl);
+        if (discarded > 0 || orphans > 0) {
+            log.info("🧹 Upload cleanup: expired sessions={}, orphan parts={}", discarded, orphans);
+        }
+        return "completed";
+    }
+}
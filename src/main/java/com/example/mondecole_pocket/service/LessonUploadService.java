@@ -0,0 +1,474 @@
+package com.example.mondecole_pocket.service;
+
+import com.example.mondecole_pocket.dto.CreateLessonUploadRequest;
+import com.example.mondecole_pocket.dto.LessonFileResponse;
+import com.example.mondecole_pocket.dto.LessonUploadResponse;
+import com.example.mondecole_pocket.entity.LessonUpload;
+import com.example.mondecole_pocket.exception.ChecksumMismatchException;
+import com.example.mondecole_pocket.exception.CourseNotFoundException;
+import com.example.mondecole_pocket.exception.UploadOffsetMismatchException;
+import com.example.mondecole_pocket.repository.LessonUploadRepository;
+import com.example.mondecole_pocket.repository.OrganizationRepository;
+import com.example.mondecole_pocket.security.TenantContext;
+import com.example.mondecole_pocket.service.storage.FileStorage;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ════════════════════════════════════════════════════════
+ * LESSON UPLOADS (chunked, resumable)
+ * ════════════════════════════════════════════════════════
+ *
+ * Protocol (one lesson file, any size, over an unreliable network):
+ *   1. create   → session row, total size reserved in the quota
+ *   2. chunks   → PUT ?offset=receivedBytes, each one appended to
+ *                 {staging}/{uploadId}.part and fsync'ed before the session
+ *                 advances; a wrong offset answers 409 + Upload-Offset
+ *   3. complete → SHA-256 checked against the one announced at creation,
+ *                 .part moved into FileStorage (rename on the same disk),
+ *                 lesson attached through LessonFileService.attach
+ * Sessions idle past their TTL are discarded by LessonUploadCleanupJob.
+ *
+ * Memory per chunk is one 64 KB buffer, whatever the file size. The running
+ * SHA-256 of each session is kept in a bounded local cache; when it is missing
+ * (eviction, restart, chunk routed to another replica) it is rebuilt by
+ * re-reading the .part file, so the cache is only an optimization.
+ *
+ * The staging directory must be shared by the replicas (or uploads kept
+ * sticky): it lives under the local storage root by default.
+ */
+@Slf4j
+@Service
+public class LessonUploadService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String PART_SUFFIX = ".part";
+
+    private final LessonUploadRepository uploadRepository;
+    private final OrganizationRepository organizationRepository;
+    private final LessonFileService lessonFileService;
+    private final FileStorage storage;
+    private final Path stagingDir;
+    private final Duration sessionTtl;
+    private final long maxChunkSize;
+    private final Cache<UUID, RunningDigest> digests;
+
+    public LessonUploadService(LessonUploadRepository uploadRepository,
+                               OrganizationRepository organizationRepository,
+                               LessonFileService lessonFileService,
+                               FileStorage storage,
+                               @Value("${app.storage.upload.staging-dir:${app.storage.local.root:./data/storage}/.uploads}") Path stagingDir,
+                               @Value("${app.storage.upload.session-ttl:24h}") Duration sessionTtl,
+                               @Value("${app.storage.upload.max-chunk-size:64MB}") DataSize maxChunkSize,
+                               @Value("${app.storage.upload.digest-cache-size:1000}") long digestCacheSize) throws IOException {
+        this.uploadRepository = uploadRepository;
+        this.organizationRepository = organizationRepository;
+        this.lessonFileService = lessonFileService;
+        this.storage = storage;
+        this.stagingDir = Files.createDirectories(stagingDir).toAbsolutePath().normalize();
+        this.sessionTtl = sessionTtl;
+        this.maxChunkSize = maxChunkSize.toBytes();
+        this.digests = Caffeine.newBuilder()
+                .maximumSize(digestCacheSize)
+                .expireAfterAccess(sessionTtl)
+                .build();
+    }
+
+    // ════════════════════════════════════════════════════════
+    // SESSION
+    // ════════════════════════════════════════════════════════
+
+    @Transactional
+    public LessonUploadResponse create(Long sectionId, Long lessonId, Long teacherId,
+                                       CreateLessonUploadRequest request) {
+        Long organizationId = TenantContext.getTenantId();
+
+        if (request.totalBytes() > lessonFileService.maxFileSize()) {
+            throw new IllegalArgumentException(
+                    "File exceeds the maximum size of " + lessonFileService.maxFileSize() + " bytes");
+        }
+        String fileName = LessonFileService.cleanFileName(request.fileName());
+        String expectedSha256 = request.sha256() != null ? request.sha256().toLowerCase() : null;
+
+        lessonFileService.findOwnedLesson(organizationId, sectionId, lessonId, teacherId);
+
+        // Réservé dans la même transaction : annulé si la session n'est pas créée
+        lessonFileService.reserve(organizationId, request.totalBytes());
+
+        LessonUpload upload = LessonUpload.builder()
+                .id(UUID.randomUUID())
+                .organizationId(organizationId)
+                .lessonId(lessonId)
+                .sectionId(sectionId)
+                .teacherId(teacherId)
+                .fileName(fileName)
+                .mimeType(request.mimeType())
+                .totalBytes(request.totalBytes())
+                .expectedSha256(expectedSha256)
+                .expiresAt(LocalDateTime.now().plus(sessionTtl))
+                .build();
+        uploadRepository.save(upload);
+
+        log.info("📤 Upload session {} created for lesson {} ({} bytes)", upload.getId(), lessonId, request.totalBytes());
+        return toResponse(upload);
+    }
+
+    @Transactional(readOnly = true)
+    public LessonUploadResponse getStatus(UUID uploadId, Long lessonId, Long teacherId) {
+        return toResponse(findActive(uploadId, lessonId, teacherId));
+    }
+
+    // ════════════════════════════════════════════════════════
+    // CHUNKS
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Appends one chunk at `offset` (must equal the bytes already received).
+     *
+     * @param chunkSha256 optional SHA-256 of this chunk (hex): a corrupted chunk is
+     *                    rejected and can be re-sent without restarting the upload
+     */
+    public LessonUploadResponse writeChunk(UUID uploadId, Long lessonId, Long teacherId, long offset,
+                                           long contentLength, String chunkSha256,
+                                           InputStream content) throws IOException {
+        LessonUpload upload = findActive(uploadId, lessonId, teacherId);
+
+        if (offset != upload.getReceivedBytes()) {
+            throw new UploadOffsetMismatchException(upload.getReceivedBytes());
+        }
+        if (contentLength <= 0) {
+            throw new IllegalArgumentException("Content-Length header is required");
+        }
+        if (contentLength > maxChunkSize) {
+            throw new IllegalArgumentException("Chunk exceeds the maximum size of " + maxChunkSize + " bytes");
+        }
+        if (offset + contentLength > upload.getTotalBytes()) {
+            throw new IllegalArgumentException("Chunk goes past the announced total size");
+        }
+
+        Path part = partFile(uploadId);
+        RunningDigest running = digests.get(uploadId, id -> new RunningDigest());
+
+        // Un seul chunk à la fois par session : verrou du .part + UPDATE conditionnel de l'offset
+        // (ReentrantLock et pas synchronized : un thread virtuel bloqué sur l'IO ne reste pas épinglé)
+        running.lock.lock();
+        try {
+            MessageDigest fileDigest = running.at(part, offset);
+            MessageDigest chunkDigest = chunkSha256 != null ? LessonFileService.sha256() : null;
+            boolean advanced = false;
+
+            try (FileChannel out = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                // Même session en cours d'écriture (autre thread ou autre replica sur le disque partagé)
+                if (!tryLock(out)) {
+                    throw new UploadOffsetMismatchException(offset);
+                }
+                // Restes d'un chunk interrompu au-delà de l'offset validé
+                out.truncate(offset);
+
+                long written = copy(Channels.newChannel(content), out, offset, contentLength, fileDigest, chunkDigest);
+                if (written != contentLength) {
+                    throw new IllegalArgumentException("Body is shorter than Content-Length");
+                }
+                if (chunkDigest != null) {
+                    String actual = HexFormat.of().formatHex(chunkDigest.digest());
+                    if (!actual.equalsIgnoreCase(chunkSha256)) {
+                        throw new ChecksumMismatchException(chunkSha256.toLowerCase(), actual);
+                    }
+                }
+                // Sur disque avant d'annoncer l'offset : une reprise ne saute jamais d'octets perdus
+                out.force(false);
+
+                LocalDateTime now = LocalDateTime.now();
+                if (uploadRepository.advance(uploadId, offset, offset + written, now, now.plus(sessionTtl)) == 0) {
+                    throw new UploadOffsetMismatchException(currentOffset(uploadId));
+                }
+                running.advanceTo(fileDigest, offset + written);
+                advanced = true;
+
+                upload.setReceivedBytes(offset + written);
+                upload.setExpiresAt(now.plus(sessionTtl));
+                return toResponse(upload);
+            } finally {
+                if (!advanced) {
+                    // Digest courant invalide (mis à jour avec des octets rejetés) : recalculé au prochain chunk
+                    running.reset();
+                }
+            }
+        } finally {
+            running.lock.unlock();
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    // FINALISATION / ABANDON
+    // ════════════════════════════════════════════════════════
+
+    public LessonFileResponse complete(UUID uploadId, Long lessonId, Long teacherId) throws IOException {
+        LessonUpload upload = findActive(uploadId, lessonId, teacherId);
+        if (!upload.isComplete()) {
+            throw new UploadOffsetMismatchException(upload.getReceivedBytes());
+        }
+
+        Path part = partFile(uploadId);
+        RunningDigest running = digests.get(uploadId, id -> new RunningDigest());
+        String sha256;
+        running.lock.lock();
+        try {
+            sha256 = HexFormat.of().formatHex(running.at(part, upload.getTotalBytes()).digest());
+        } finally {
+            running.lock.unlock();
+        }
+        if (upload.getExpectedSha256() != null && !upload.getExpectedSha256().equals(sha256)) {
+            throw new ChecksumMismatchException(upload.getExpectedSha256(), sha256);
+        }
+
+        // Une seule finalisation gagne ; la réservation du quota passe à attach()
+        if (uploadRepository.deleteAndCount(uploadId) == 0) {
+            throw new CourseNotFoundException("Upload not found");
+        }
+        digests.invalidate(uploadId);
+
+        String key = LessonFileService.newKey(upload.getOrganizationId());
+        try {
+            storage.importFile(key, part);
+        } catch (IOException | RuntimeException e) {
+            organizationRepository.releaseStorage(upload.getOrganizationId(), upload.getTotalBytes());
+            deletePart(uploadId);
+            lessonFileService.deleteQuietly(key);
+            throw e;
+        }
+
+        log.info("✅ Upload {} completed for lesson {} (sha256={})", uploadId, lessonId, sha256);
+        return lessonFileService.attach(upload.getOrganizationId(), upload.getSectionId(), lessonId, teacherId,
+                key, sha256, upload.getFileName(), upload.getMimeType(), upload.getTotalBytes());
+    }
+
+    public void abort(UUID uploadId, Long lessonId, Long teacherId) {
+        discard(findActive(uploadId, lessonId, teacherId));
+    }
+
+    /**
+     * Session supprimée + quota rendu + .part effacé.
+     *
+     * @return false if another request or replica discarded it first
+     */
+    boolean discard(LessonUpload upload) {
+        if (uploadRepository.deleteAndCount(upload.getId()) == 0) {
+            return false;
+        }
+        organizationRepository.releaseStorage(upload.getOrganizationId(), upload.getTotalBytes());
+        digests.invalidate(upload.getId());
+        deletePart(upload.getId());
+        return true;
+    }
+
+    /**
+     * Lesson being deleted: its sessions go with it (rows cascade), the quota is
+     * given back in the same transaction and the .part files after commit.
+     */
+    public void discardForLesson(Long organizationId, Long lessonId) {
+        List<LessonUpload> uploads = uploadRepository.findByOrganizationIdAndLessonId(organizationId, lessonId);
+        if (uploads.isEmpty()) {
+            return;
+        }
+        for (LessonUpload upload : uploads) {
+            uploadRepository.delete(upload);
+            organizationRepository.releaseStorage(organizationId, upload.getTotalBytes());
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                uploads.forEach(upload -> {
+                    digests.invalidate(upload.getId());
+                    deletePart(upload.getId());
+                });
+            }
+        });
+    }
+
+    /**
+     * .part files left without a session (lesson or organization deleted by
+     * cascade, crash between delete and file removal), untouched for `olderThan`.
+     */
+    int deleteOrphanParts(Duration olderThan) throws IOException {
+        Instant threshold = Instant.now().minus(olderThan);
+        int deleted = 0;
+        try (DirectoryStream<Path> parts = Files.newDirectoryStream(stagingDir, "*" + PART_SUFFIX)) {
+            for (Path part : parts) {
+                String name = part.getFileName().toString();
+                UUID uploadId;
+                try {
+                    uploadId = UUID.fromString(name.substring(0, name.length() - PART_SUFFIX.length()));
+                } catch (IllegalArgumentException e) {
+                    continue;
+                }
+                if (Files.getLastModifiedTime(part).toInstant().isBefore(threshold)
+                        && !uploadRepository.existsById(uploadId)) {
+                    Files.deleteIfExists(part);
+                    deleted++;
+                }
+            }
+        }
+        return deleted;
+    }
+
+    // ════════════════════════════════════════════════════════
+    // HELPERS
+    // ════════════════════════════════════════════════════════
+
+    private LessonUpload findActive(UUID uploadId, Long lessonId, Long teacherId) {
+        return uploadRepository.findByIdAndOrganizationIdAndTeacherId(uploadId, TenantContext.getTenantId(), teacherId)
+                .filter(upload -> upload.getLessonId().equals(lessonId))
+                .filter(upload -> upload.getExpiresAt().isAfter(LocalDateTime.now()))
+                .orElseThrow(() -> new CourseNotFoundException("Upload not found"));
+    }
+
+    private long currentOffset(UUID uploadId) {
+        return uploadRepository.findById(uploadId)
+                .map(LessonUpload::getReceivedBytes)
+                .orElseThrow(() -> new CourseNotFoundException("Upload not found"));
+    }
+
+    private LessonUploadResponse toResponse(LessonUpload upload) {
+        return new LessonUploadResponse(
+                upload.getId(),
+                upload.getLessonId(),
+                upload.getFileName(),
+                upload.getTotalBytes(),
+                upload.getReceivedBytes(),
+                maxChunkSize,
+                upload.getExpiresAt()
+        );
+    }
+
+    Path partFile(UUID uploadId) {
+        return stagingDir.resolve(uploadId + PART_SUFFIX);
+    }
+
+    private void deletePart(UUID uploadId) {
+        try {
+            Files.deleteIfExists(partFile(uploadId));
+        } catch (IOException e) {
+            log.warn("⚠️ Could not delete upload part {}: {}", uploadId, e.getMessage());
+        }
+    }
+
+    /** Verrou exclusif sur le .part, libéré à la fermeture du canal */
+    private static boolean tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock() != null;
+        } catch (OverlappingFileLockException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Source → fichier à partir de `position`, par tampon de 64 Ko, digests mis à jour au passage.
+     */
+    private static long copy(ReadableByteChannel source, FileChannel target, long position, long count,
+                             MessageDigest fileDigest, MessageDigest chunkDigest) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long written = 0;
+        while (written < count) {
+            buffer.clear().limit((int) Math.min(BUFFER_SIZE, count - written));
+            if (source.read(buffer) < 0) {
+                break;
+            }
+            buffer.flip();
+            fileDigest.update(buffer.array(), 0, buffer.limit());
+            if (chunkDigest != null) {
+                chunkDigest.update(buffer.array(), 0, buffer.limit());
+            }
+            while (buffer.hasRemaining()) {
+                written += target.write(buffer, position + written);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * SHA-256 des octets [0, offset) d'une session. Pas de sérialisation possible
+     * de l'état d'un MessageDigest : si l'offset ne correspond pas, on relit le .part.
+     */
+    private static final class RunningDigest {
+
+        final ReentrantLock lock = new ReentrantLock();
+        private MessageDigest digest;
+        private long offset = -1;
+
+        /** Copie de travail positionnée à `target` (l'état partagé n'avance qu'après succès) */
+        MessageDigest at(Path part, long target) throws IOException {
+            if (offset != target) {
+                digest = rehash(part, target);
+                offset = target;
+            }
+            try {
+                return (MessageDigest) digest.clone();
+            } catch (CloneNotSupportedException e) {
+                return rehash(part, target);
+            }
+        }
+
+        void advanceTo(MessageDigest updated, long newOffset) {
+            digest = updated;
+            offset = newOffset;
+        }
+
+        void reset() {
+            digest = null;
+            offset = -1;
+        }
+
+        private static MessageDigest rehash(Path part, long length) throws IOException {
+            MessageDigest digest = LessonFileService.sha256();
+            if (length == 0) {
+                return digest;
+            }
+            try (FileChannel in = FileChannel.open(part, StandardOpenOption.READ)) {
+                if (in.size() < length) {
+                    throw new NoSuchFileException(part.toString(), null, "upload part shorter than received bytes");
+                }
+                ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                long read = 0;
+                while (read < length) {
+                    buffer.clear().limit((int) Math.min(BUFFER_SIZE, length - read));
+                    int n = in.read(buffer, read);
+                    if (n < 0) {
+                        break;
+                    }
+                    digest.update(buffer.array(), 0, n);
+                    read += n;
+                }
+            }
+            return digest;
+        }
+    }
+}
@@ -8,10 +8,11 @@ import com.example.mondecole_pocket.exception.OrganizationNotFoundException;
 import com.example.mondecole_pocket.exception.UserAlreadyExistsException;
 import com.example.mondecole_pocket.repository.OrganizationRepository;
 import com.example.mondecole_pocket.repository.UserRepository;
+import com.example.mondecole_pocket.security.PasswordHasher;
 import com.example.mondecole_pocket.security.TenantContext;
+import com.example.mondecole_pocket.security.UsernameDirectory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,7 +23,9 @@ public class OrganizationService {
 
     private final OrganizationRepository organizationRepository;
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final TenantSnapshotService tenantSnapshotService;
+    private final UsernameDirectory usernameDirectory;
 
     /**
      * Register a new organization with its first admin user
@@ -73,7 +76,7 @@ public class OrganizationService {
                 .organization(savedOrganization)
                 .username(request.adminUsername())
                 .email(request.adminEmail())
-                .passwordHash(passwordEncoder.encode(request.adminPassword()))
+                .passwordHash(passwordHasher.encode(request.adminPassword()))
                 .firstName(request.adminFirstName())
                 .lastName(request.adminLastName())
                 .role(UserRole.ADMIN)
@@ -82,6 +85,7 @@ public class OrganizationService {
                 .build();
 
         User savedAdmin = userRepository.save(adminUser);
+        usernameDirectory.register(savedAdmin.getUsername());
 
         log.info("✅ Admin user created: {} for organization {}",
                 savedAdmin.getUsername(), savedOrganization.getName());
@@ -163,7 +167,7 @@ public class OrganizationService {
                 .organization(organization)
                 .username(request.username())
                 .email(request.email())
-                .passwordHash(passwordEncoder.encode(request.password()))
+                .passwordHash(passwordHasher.encode(request.password()))
                 .firstName(request.firstName())
                 .lastName(request.lastName())
                 .role(request.role())
@@ -172,6 +176,7 @@ public class OrganizationService {
                 .build();
 
         User savedUser = userRepository.save(user);
+        usernameDirectory.register(savedUser.getUsername());
 
         log.info("✅ User {} successfully joined organization {} as {}",
                 savedUser.getUsername(),
@@ -241,6 +246,7 @@ public class OrganizationService {
         if (request.logoUrl() != null) org.setLogoUrl(request.logoUrl());
 
         Organization updated = organizationRepository.save(org);
+        tenantSnapshotService.evict(orgId);
         log.info("✅ Organization updated: {}", updated.getName());
 
         return mapToResponse(updated);
@@ -0,0 +1,244 @@
+package com.example.mondecole_pocket.service;
+
+import com.example.mondecole_pocket.exception.QueryDeadlineExceededException;
+import com.example.mondecole_pocket.security.RequestContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * ════════════════════════════════════════════════════════
+ * PARALLEL QUERIES (fan-out / join)
+ * ════════════════════════════════════════════════════════
+ *
+ * Runs independent read queries concurrently, each in its own read-only
+ * transaction (own pooled connection, replica-eligible), in the shape of
+ * StructuredTaskScope.ShutdownOnFailure (preview API on Java 21):
+ *
+ *   try (ParallelQueries.Scope scope = parallelQueries.open()) {
+ *       Supplier<A> a = scope.fork(() -> ...);
+ *       Supplier<B> b = scope.fork(() -> ...);
+ *       scope.join();
+ *       ... a.get(), b.get()
+ *   }
+ *
+ * - Deadline: join() waits at most `timeout` → QueryDeadlineExceededException (503)
+ * - First failure cancels (interrupts) the other subtasks and is rethrown as is
+ * - close() cancels anything still running: no subtask outlives the scope
+ * - RequestContext (tenant, user) is propagated into every subtask
+ * - At most `maxPerRequest` subtasks of a scope hold a transaction at once
+ *   (each one is a pooled connection): the others wait for a slot, so one
+ *   request never takes more than that share of the Hikari pool
+ * - Executor: virtual thread per subtask when spring.threads.virtual.enabled,
+ *   otherwise a bounded pool; when it is saturated the subtask runs inline in
+ *   the caller (degrades to sequential instead of queueing)
+ *
+ * The caller must not hold a transaction: it would keep a connection idle
+ * while waiting for the subtasks.
+ */
+@Slf4j
+@Component
+public class ParallelQueries {
+
+    private final ExecutorService executor;
+    private final TransactionTemplate readOnlyTx;
+    private final Duration timeout;
+    private final int maxPerRequest;
+    private final MeterRegistry meterRegistry;
+
+    public ParallelQueries(PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                           @Value("${app.fanout.threads:32}") int threads,
+                           @Value("${app.fanout.timeout:3s}") Duration timeout,
+                           @Value("${app.fanout.max-per-request:2}") int maxPerRequest) {
+        this.meterRegistry = meterRegistry;
+        this.timeout = timeout;
+        this.maxPerRequest = Math.max(1, maxPerRequest);
+
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        readOnlyTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        if (virtualThreads) {
+            this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fanout-", 0).factory());
+        } else {
+            AtomicInteger counter = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(0, threads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "fanout-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+    }
+
+    public Scope open() {
+        return new Scope(System.nanoTime() + timeout.toNanos());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ════════════════════════════════════════════════════════
+    // SCOPE
+    // ════════════════════════════════════════════════════════
+
+    public final class Scope implements AutoCloseable {
+
+        private final long deadline;
+        private final long start = System.nanoTime();
+        private final List<Subtask<?>> subtasks = new ArrayList<>();
+        private final BlockingQueue<Subtask<?>> completed = new LinkedBlockingQueue<>();
+        private final Semaphore connections = new Semaphore(maxPerRequest);
+        private boolean joined;
+
+        private Scope(long deadline) {
+            this.deadline = deadline;
+        }
+
+        /** Lance la requête dans sa propre transaction read-only ; résultat lisible après join() */
+        public <T> Supplier<T> fork(Supplier<T> query) {
+            if (joined) {
+                throw new IllegalStateException("Scope already joined");
+            }
+            Subtask<T> subtask = new Subtask<>(RequestContext.wrapSupplier(() -> withConnectionSlot(query)));
+            subtasks.add(subtask);
+            executor.execute(subtask);
+            return subtask;
+        }
+
+        /** Attend toutes les sous-tâches (deadline), annule les autres au premier échec */
+        public void join() {
+            joined = true;
+            String outcome = "success";
+            try {
+                for (int remaining = subtasks.size(); remaining > 0; remaining--) {
+                    Subtask<?> done = completed.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (done == null) {
+                        outcome = "timeout";
+                        cancelAll();
+                        throw new QueryDeadlineExceededException(timeout, Duration.ofSeconds(1));
+                    }
+                    Throwable failure = done.failure();
+                    if (failure != null) {
+                        outcome = "failure";
+                        cancelAll();
+                        if (failure instanceof RuntimeException e) {
+                            throw e;
+                        }
+                        if (failure instanceof Error e) {
+                            throw e;
+                        }
+                        throw new IllegalStateException(failure);
+                    }
+                }
+            } catch (InterruptedException e) {
+                outcome = "interrupted";
+                cancelAll();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for parallel queries", e);
+            } finally {
+                Timer.builder("fanout.join")
+                        .description("Parallel read queries: wall time from first fork to join")
+                        .tag("outcome", outcome)
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        @Override
+        public void close() {
+            cancelAll();
+        }
+
+        /** Créneau pris avant la transaction : au plus maxPerRequest connexions pour ce scope */
+        private <T> T withConnectionSlot(Supplier<T> query) {
+            try {
+                connections.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Cancelled while waiting for a connection slot");
+            }
+            try {
+                return readOnlyTx.execute(status -> query.get());
+            } finally {
+                connections.release();
+            }
+        }
+
+        private void cancelAll() {
+            for (Subtask<?> subtask : subtasks) {
+                subtask.cancel(true);
+            }
+        }
+
+        // ════════════════════════════════════════════════════════
+        // SUBTASK
+        // ════════════════════════════════════════════════════════
+
+        private final class Subtask<T> extends FutureTask<T> implements Supplier<T> {
+
+            Subtask(Supplier<T> query) {
+                super(query::get);
+            }
+
+            @Override
+            protected void done() {
+                completed.add(this);
+            }
+
+            Throwable failure() {
+                try {
+                    super.get();
+                    return null;
+                } catch (ExecutionException e) {
+                    return e.getCause();
+                } catch (CancellationException | InterruptedException e) {
+                    return e;
+                }
+            }
+
+            /** Résultat de la sous-tâche (uniquement après un join() réussi) */
+            @Override
+            public T get() {
+                if (!joined || !isDone()) {
+                    throw new IllegalStateException("Subtask result read before join()");
+                }
+                try {
+                    return super.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                } catch (InterruptedException | CancellationException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.mondecole_pocket.service;
+
+import com.example.mondecole_pocket.dto.PurgeRequestResponse;
+import com.example.mondecole_pocket.entity.enums.PurgeTarget;
+import com.example.mondecole_pocket.service.job.CascadePurgeHandler;
+import com.example.mondecole_pocket.service.job.JobQueue;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Suppression en deux temps : l'entité est masquée (deleted_at) dans la transaction
+ * de l'appelant, puis CascadePurgeHandler supprime les lignes dépendantes par batches.
+ * La demande et son job sont insérés dans la même transaction que le soft delete.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PurgeService {
+
+    private static final String SELECT_COLUMNS = """
+            SELECT id, entity_type, entity_id, requested_by, status, current_step, rows_deleted,
+                   last_error, created_at, started_at, updated_at, finished_at
+            FROM purge_requests
+            """;
+
+    private static final RowMapper<PurgeRequestResponse> ROW_MAPPER = (rs, rowNum) -> new PurgeRequestResponse(
+            rs.getLong("id"),
+            rs.getString("entity_type"),
+            rs.getLong("entity_id"),
+            rs.getObject("requested_by", Long.class),
+            rs.getString("status"),
+            rs.getString("current_step"),
+            rs.getLong("rows_deleted"),
+            rs.getString("last_error"),
+            toLocalDateTime(rs.getTimestamp("created_at")),
+            toLocalDateTime(rs.getTimestamp("started_at")),
+            toLocalDateTime(rs.getTimestamp("updated_at")),
+            toLocalDateTime(rs.getTimestamp("finished_at"))
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JobQueue jobQueue;
+    private final CascadePurgeHandler cascadePurgeHandler;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long requestPurge(Long organizationId, PurgeTarget target, Long entityId, Long requestedBy) {
+        Long purgeRequestId = jdbcTemplate.queryForObject("""
+                INSERT INTO purge_requests (organization_id, entity_type, entity_id, requested_by)
+                VALUES (?, ?, ?, ?)
+                RETURNING id
+                """, Long.class, organizationId, target.name(), entityId, requestedBy);
+
+        jobQueue.enqueue(cascadePurgeHandler, new CascadePurgeHandler.Payload(purgeRequestId));
+
+        log.info("🗑️ Purge requested: {} {} (request {})", target, entityId, purgeRequestId);
+        return purgeRequestId;
+    }
+
+    @Transactional(readOnly = true)
+    public Page<PurgeRequestResponse> listPurges(Long organizationId, Pageable pageable) {
+        List<PurgeRequestResponse> content = jdbcTemplate.query(
+                SELECT_COLUMNS + " WHERE organization_id = ? ORDER BY created_at DESC, id DESC LIMIT ? OFFSET ?",
+                ROW_MAPPER, organizationId, pageable.getPageSize(), pageable.getOffset());
+        Long total = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM purge_requests WHERE organization_id = ?", Long.class, organizationId);
+        return new PageImpl<>(content, pageable, total != null ? total : 0);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<PurgeRequestResponse> getPurge(Long organizationId, Long purgeRequestId) {
+        return jdbcTemplate.query(SELECT_COLUMNS + " WHERE organization_id = ? AND id = ?",
+                        ROW_MAPPER, organizationId, purgeRequestId)
+                .stream()
+                .findFirst();
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
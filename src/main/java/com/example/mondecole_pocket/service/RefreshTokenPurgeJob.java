@@ -0,0 +1,199 @@
+package com.example.mondecole_pocket.service;
+
+import com.example.mondecole_pocket.config.ClusterJobRunner;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * ════════════════════════════════════════════════════════
+ * REFRESH TOKEN PURGE
+ * ════════════════════════════════════════════════════════
+ *
+ * Remplace le DELETE unique de 03:00 :
+ * - un seul replica par période (ClusterJobRunner : bail + heartbeat dans scheduled_locks)
+ * - strategy=chunked : DELETE ... WHERE id IN (SELECT ... LIMIT n), un commit par
+ *   chunk, pause entre chunks, arrêt au-delà de max-duration
+ * - strategy=partitions : si refresh_tokens est partitionnée par mois sur expires_at
+ *   (db/partitioning/refresh_tokens_monthly.sql), DROP des partitions expirées
+ *   et création des partitions à venir
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RefreshTokenPurgeJob {
+
+    private static final String JOB_NAME = "refresh-token-purge";
+
+    private static final String DELETE_CHUNK = """
+            DELETE FROM refresh_tokens
+            WHERE id IN (
+                SELECT id FROM refresh_tokens
+                WHERE expires_at < ?
+                LIMIT ?
+            )
+            """;
+
+    private static final String PARTITION_PREFIX = "refresh_tokens_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final ClusterJobRunner clusterJobRunner;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.security.refresh.purge.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.security.refresh.purge.strategy:chunked}")
+    private String strategy;
+
+    @Value("${app.security.refresh.purge.retention:7d}")
+    private Duration retention;
+
+    @Value("${app.security.refresh.purge.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${app.security.refresh.purge.pause:200ms}")
+    private Duration pause;
+
+    @Value("${app.security.refresh.purge.max-duration:30m}")
+    private Duration maxDuration;
+
+    @Value("${app.security.refresh.purge.partitions-ahead:3}")
+    private int partitionsAhead;
+
+    @Value("${app.security.refresh.purge.lease:2m}")
+    private Duration lease;
+
+    @Value("${app.security.refresh.purge.min-interval:1h}")
+    private Duration minInterval;
+
+    @Scheduled(cron = "${app.security.refresh.purge.cron:0 0 3 * * *}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        clusterJobRunner.run(JOB_NAME, lease, minInterval, this::purge);
+    }
+
+    private String purge() throws InterruptedException {
+        LocalDateTime threshold = LocalDateTime.now().minus(retention);
+
+        if ("partitions".equalsIgnoreCase(strategy)) {
+            if (isPartitioned()) {
+                return purgePartitions(threshold);
+            }
+            log.warn("⚠️ Purge strategy 'partitions' but refresh_tokens is not partitioned — falling back to chunks");
+        }
+        return purgeChunks(threshold);
+    }
+
+    // ════════════════════════════════════════════════════════
+    // CHUNKS
+    // ════════════════════════════════════════════════════════
+
+    private String purgeChunks(LocalDateTime threshold) throws InterruptedException {
+        Counter deletedRows = meterRegistry.counter("refresh_tokens.purge.deleted", "strategy", "chunked");
+        Counter chunks = meterRegistry.counter("refresh_tokens.purge.chunks");
+        long deadline = System.nanoTime() + maxDuration.toNanos();
+        Timestamp expiredBefore = Timestamp.valueOf(threshold);
+        long total = 0;
+
+        while (true) {
+            // Autocommit : chaque chunk est sa propre transaction (verrous et WAL bornés)
+            int deleted = jdbcTemplate.update(DELETE_CHUNK, expiredBefore, chunkSize);
+            total += deleted;
+            deletedRows.increment(deleted);
+            chunks.increment();
+
+            if (deleted < chunkSize) {
+                log.info("🧹 Refresh token purge: deleted={}, threshold={}", total, threshold);
+                return "completed";
+            }
+            if (System.nanoTime() > deadline) {
+                log.warn("⚠️ Refresh token purge stopped after {} (deleted={}), will resume next run",
+                        maxDuration, total);
+                return "budget_exhausted";
+            }
+            Thread.sleep(pause.toMillis());
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    // PARTITIONS
+    // ════════════════════════════════════════════════════════
+
+    private boolean isPartitioned() {
+        List<String> kinds = jdbcTemplate.queryForList(
+                "SELECT relkind::text FROM pg_class WHERE relname = 'refresh_tokens'", String.class);
+        return kinds.contains("p");
+    }
+
+    private String purgePartitions(LocalDateTime threshold) {
+        Counter droppedPartitions = meterRegistry.counter("refresh_tokens.purge.partitions.dropped");
+
+        List<String> partitions = jdbcTemplate.queryForList("""
+                SELECT c.relname
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = 'refresh_tokens'
+                """, String.class);
+
+        int dropped = 0;
+        for (String partition : partitions) {
+            YearMonth month = parseMonth(partition);
+            // Partition [mois, mois+1) entièrement expirée
+            if (month != null && !month.plusMonths(1).atDay(1).atStartOfDay().isAfter(threshold)) {
+                jdbcTemplate.execute("ALTER TABLE refresh_tokens DETACH PARTITION " + partition);
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                droppedPartitions.increment();
+                dropped++;
+            }
+        }
+
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= partitionsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+
+        log.info("🧹 Refresh token purge (partitions): dropped={}, threshold={}", dropped, threshold);
+        return "completed";
+    }
+
+    private void createPartition(YearMonth month) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        try {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + PARTITION_PREFIX + month.format(PARTITION_SUFFIX)
+                    + " PARTITION OF refresh_tokens FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        } catch (RuntimeException e) {
+            // Ex : lignes déjà présentes dans la partition DEFAULT pour ce mois
+            log.warn("⚠️ Cannot create refresh token partition for {}: {}", month, e.getMessage());
+        }
+    }
+
+    private static YearMonth parseMonth(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
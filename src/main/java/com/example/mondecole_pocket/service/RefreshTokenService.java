@@ -9,7 +9,6 @@ import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,7 +16,6 @@ import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.time.LocalDateTime;
 import java.util.HexFormat;
-import java.util.List;
 import java.util.UUID;
 
 @Slf4j
@@ -26,6 +24,7 @@ import java.util.UUID;
 public class RefreshTokenService {
 
     private final RefreshTokenRepository refreshTokenRepository;
+    private final LastSeenTracker lastSeenTracker;
 
     @Value("${app.security.refresh.days:30}")
     private int refreshDays;
@@ -47,34 +46,39 @@ public class RefreshTokenService {
         TokenType type = rememberMe ? TokenType.REMEMBER_ME : TokenType.REFRESH;
         int days = rememberMe ? rememberDays : refreshDays;
 
-        enforceMaxSessions(userId);
-
         String raw = UUID.randomUUID() + "." + UUID.randomUUID();
         String hash = sha256(raw);
 
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime exp = now.plusDays(days);
 
-        RefreshToken entity = RefreshToken.builder()
-                .tokenHash(hash)
-                .userId(userId)
-                .organizationId(organizationId)  // ✅ AJOUT
-                .tokenType(type)
-                .createdAt(now)
-                .lastUsedAt(now)
-                .expiresAt(exp)
-                .revoked(false)
-                .ipAddress(extractIp(request))
-                .userAgent(extractUserAgent(request))
-                .deviceName(extractDeviceName(request))
-                .build();
-
-        refreshTokenRepository.save(entity);
+        // Limite de sessions + insertion en une seule requête (la nouvelle compte dans la limite)
+        refreshTokenRepository.insertKeepingNewestSessions(
+                hash,
+                userId,
+                organizationId,
+                type.name(),
+                now,
+                exp,
+                extractIp(request),
+                extractUserAgent(request),
+                extractDeviceName(request),
+                Math.max(0, maxActiveSessions - 1)
+        );
         return new Issued(raw, exp, type, userId, organizationId);  // ✅ AJOUT
     }
 
+    // Pas de readOnly : toujours le primary (un replica en retard ignorerait une révocation ou un token tout juste émis)
     @Transactional
     public RefreshToken validate(String rawToken) {
+        RefreshToken token = findUsable(rawToken);
+
+        // last_used_at : écriture différée et regroupée (pas d'UPDATE par refresh)
+        lastSeenTracker.recordTokenUse(token.getId(), token.getLastUsedAt());
+        return token;
+    }
+
+    private RefreshToken findUsable(String rawToken) {
         if (rawToken == null || rawToken.isBlank()) {
             throw new InvalidTokenException("Invalid refresh token", ErrorCode.REFRESH_TOKEN_INVALID);
         }
@@ -89,15 +93,15 @@ public class RefreshTokenService {
             throw new InvalidTokenException("Invalid refresh token", ErrorCode.REFRESH_TOKEN_EXPIRED);
         }
 
-        token.markAsUsed();
-        return refreshTokenRepository.save(token);
+        return token;
     }
 
     @Transactional
     public Issued rotate(String rawToken, HttpServletRequest request) {
-        RefreshToken old = validate(rawToken);
+        RefreshToken old = findUsable(rawToken);
 
         if (!rotate) {
+            lastSeenTracker.recordTokenUse(old.getId(), old.getLastUsedAt());
             // ✅ AJOUT organizationId dans le return
             return new Issued(
                     rawToken,
@@ -137,27 +141,6 @@ public class RefreshTokenService {
         refreshTokenRepository.revokeAllByUserId(userId);
     }
 
-    @Scheduled(cron = "0 0 3 * * *")
-    @Transactional
-    public void cleanupExpiredTokens() {
-        LocalDateTime threshold = LocalDateTime.now().minusDays(7);
-        int deleted = refreshTokenRepository.deleteExpiredTokens(threshold);
-        log.info("Cleanup refresh tokens: deleted={}, threshold={}", deleted, threshold);
-    }
-
-    private void enforceMaxSessions(Long userId) {
-        long active = refreshTokenRepository.countActiveSessions(userId, LocalDateTime.now());
-        if (active < maxActiveSessions) return;
-
-        List<RefreshToken> tokens = refreshTokenRepository.findValidTokensByUserId(userId, LocalDateTime.now());
-        tokens.stream()
-                .min((a, b) -> a.getCreatedAt().compareTo(b.getCreatedAt()))
-                .ifPresent(oldest -> {
-                    oldest.revoke();
-                    refreshTokenRepository.save(oldest);
-                });
-    }
-
     private static String sha256(String raw) {
         try {
             MessageDigest md = MessageDigest.getInstance("SHA-256");
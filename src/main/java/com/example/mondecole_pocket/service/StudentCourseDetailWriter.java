@@ -0,0 +1,122 @@
+package com.example.mondecole_pocket.service;
+
+import com.example.mondecole_pocket.dto.CourseOutline;
+import com.example.mondecole_pocket.entity.CourseEnrollment;
+import com.example.mondecole_pocket.entity.LessonProgress;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * ════════════════════════════════════════════════════════
+ * STUDENT COURSE DETAIL (JSON streaming)
+ * ════════════════════════════════════════════════════════
+ *
+ * Writes the StudentCourseDetailResponse shape straight from the cached
+ * CourseOutline + the student's progress, with a JsonGenerator on the
+ * response stream: no per-lesson record, no response tree, no byte[] of the
+ * whole body. Heap per request stays flat whatever the number of lessons.
+ *
+ * The document is the StudentCourseDetailResponse shape (the API contract);
+ * StudentCourseDetailWriterTest checks both serialize to identical JSON.
+ */
+@Component
+@RequiredArgsConstructor
+public class StudentCourseDetailWriter {
+
+    private final ObjectMapper objectMapper;
+
+    public record Source(
+            CourseOutline outline,
+            CourseEnrollment enrollment,
+            Map<Long, LessonProgress> progress,
+            int totalStudents
+    ) {}
+
+    // ════════════════════════════════════════════════════════
+    // Streaming
+    // ════════════════════════════════════════════════════════
+
+    public void write(Source source, OutputStream out) throws IOException {
+        CourseOutline outline = source.outline();
+
+        try (JsonGenerator gen = objectMapper.createGenerator(out, JsonEncoding.UTF8)) {
+            // Le conteneur ferme le flux de la réponse, pas nous
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            gen.writeStartObject();
+            gen.writePOJOField("id", outline.id());
+            gen.writeStringField("title", outline.title());
+            gen.writeStringField("slug", outline.slug());
+            gen.writeStringField("summary", outline.summary());
+            gen.writeStringField("description", outline.description());
+            gen.writeStringField("category", outline.category());
+            gen.writePOJOField("level", outline.level());
+            gen.writePOJOField("estimatedHours", outline.estimatedHours());
+            gen.writeStringField("thumbnailUrl", outline.thumbnailUrl());
+            gen.writeStringField("language", outline.language());
+            gen.writeStringField("objectives", outline.objectives());
+            gen.writeStringField("prerequisites", outline.prerequisites());
+
+            CourseOutline.TeacherInfo teacher = outline.teacher();
+            if (teacher == null) {
+                gen.writeNullField("teacher");
+            } else {
+                gen.writeObjectFieldStart("teacher");
+                gen.writePOJOField("id", teacher.id());
+                gen.writeStringField("username", teacher.username());
+                gen.writeStringField("fullName", teacher.fullName());
+                gen.writeEndObject();
+            }
+
+            gen.writeArrayFieldStart("sections");
+            for (CourseOutline.SectionInfo section : outline.sections()) {
+                gen.writeStartObject();
+                gen.writePOJOField("id", section.id());
+                gen.writeStringField("title", section.title());
+                gen.writeStringField("description", section.description());
+                gen.writePOJOField("orderIndex", section.orderIndex());
+                gen.writeArrayFieldStart("lessons");
+                for (CourseOutline.LessonInfo lesson : section.lessons()) {
+                    LessonProgress progress = source.progress().get(lesson.id());
+                    gen.writeStartObject();
+                    gen.writePOJOField("id", lesson.id());
+                    gen.writeStringField("title", lesson.title());
+                    gen.writeStringField("type", lesson.type());
+                    gen.writePOJOField("orderIndex", lesson.orderIndex());
+                    gen.writePOJOField("durationSeconds", lesson.durationSeconds());
+                    gen.writeBooleanField("completed", progress != null && progress.getCompleted());
+                    gen.writePOJOField("progressPercent", progress != null ? progress.getProgressPercent() : 0);
+                    gen.writeEndObject();
+                }
+                gen.writeEndArray();
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+
+            CourseEnrollment enrollment = source.enrollment();
+            if (enrollment == null) {
+                gen.writeNullField("enrollment");
+            } else {
+                gen.writeObjectFieldStart("enrollment");
+                gen.writePOJOField("enrollmentId", enrollment.getId());
+                gen.writePOJOField("progressPercent", enrollment.getProgressPercent());
+                gen.writePOJOField("completed", enrollment.getCompleted());
+                gen.writePOJOField("enrolledAt", enrollment.getEnrolledAt());
+                gen.writePOJOField("lastAccessedAt", enrollment.getLastAccessedAt());
+                gen.writeEndObject();
+            }
+
+            gen.writePOJOField("totalLessons", outline.totalLessons());
+            gen.writeNumberField("totalStudents", source.totalStudents());
+            gen.writePOJOField("publishedAt", outline.publishedAt());
+            gen.writeEndObject();
+        }
+    }
+}
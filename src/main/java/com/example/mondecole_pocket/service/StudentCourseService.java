@@ -4,19 +4,29 @@ import com.example.mondecole_pocket.dto.*;
 import com.example.mondecole_pocket.entity.*;
 import com.example.mondecole_pocket.exception.CourseNotFoundException;
 import com.example.mondecole_pocket.repository.*;
+import com.example.mondecole_pocket.repository.CourseEnrollmentRepository.EnrollmentCard;
+import com.example.mondecole_pocket.repository.CourseRepository.CourseCard;
 import com.example.mondecole_pocket.security.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -24,11 +34,16 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class StudentCourseService {
 
+    /** Mêmes pages par défaut que /catalog et /my-courses */
+    private static final Pageable HOME_CATALOG_PAGE = PageRequest.of(0, 12, Sort.by("publishedAt").descending());
+    private static final Pageable HOME_MY_COURSES_PAGE = PageRequest.of(0, 10, Sort.by("lastAccessedAt").descending());
+
     private final CourseRepository courseRepository;
     private final CourseEnrollmentRepository enrollmentRepository;
-    private final CourseSectionRepository sectionRepository;
-    private final LessonRepository lessonRepository;
     private final LessonProgressRepository progressRepository;
+    private final CourseOutlineService courseOutlineService;
+    private final ParallelQueries parallelQueries;
+    private final StudentCourseDetailWriter courseDetailWriter;
 
     /**
      * Browse available courses (catalog)
@@ -38,16 +53,17 @@ public class StudentCourseService {
         Long organizationId = TenantContext.getTenantId();
 
         // Get all published courses
-        Page<Course> courses = courseRepository.findByOrganizationIdAndPublishedTrue(organizationId, pageable);
+        Page<CourseCard> courses = courseRepository.findCardsByOrganizationIdAndPublishedTrue(organizationId, pageable);
 
         // Get student enrollments
-        List<CourseEnrollment> enrollments = enrollmentRepository.findByOrganizationIdAndStudentId(
-                organizationId, studentId, Pageable.unpaged()).getContent();
+        List<EnrollmentCard> enrollments = enrollmentRepository.findAllCardsByStudent(organizationId, studentId);
 
-        Map<Long, CourseEnrollment> enrollmentMap = enrollments.stream()
-                .collect(Collectors.toMap(CourseEnrollment::getCourseId, e -> e));
+        Map<Long, EnrollmentCard> enrollmentMap = enrollments.stream()
+                .collect(Collectors.toMap(EnrollmentCard::getId, e -> e));
+        Map<Long, Long> studentCounts = countStudents(organizationId, courses.getContent().stream().map(CourseCard::getId).toList());
 
-        return courses.map(course -> toStudentCourseListResponse(course, enrollmentMap.get(course.getId())));
+        return courses.map(course -> toStudentCourseListResponse(
+                course, enrollmentMap.get(course.getId()), studentCounts));
     }
 
     /**
@@ -57,65 +73,105 @@ public class StudentCourseService {
     public Page<StudentCourseListResponse> getMyEnrolledCourses(Long studentId, Boolean completed, Pageable pageable) {
         Long organizationId = TenantContext.getTenantId();
 
-        Page<CourseEnrollment> enrollments;
-        if (completed != null && completed) {
-            enrollments = enrollmentRepository.findByOrganizationIdAndStudentIdAndCompletedTrue(
-                    organizationId, studentId, pageable);
-        } else if (completed != null && !completed) {
-            enrollments = enrollmentRepository.findByOrganizationIdAndStudentIdAndCompletedFalse(
-                    organizationId, studentId, pageable);
-        } else {
-            enrollments = enrollmentRepository.findByOrganizationIdAndStudentId(
-                    organizationId, studentId, pageable);
-        }
+        // null → toutes les inscriptions, sinon filtrées sur completed
+        Page<EnrollmentCard> enrollments = enrollmentRepository.findCardsByStudent(
+                organizationId, studentId, completed, pageable);
 
-        List<StudentCourseListResponse> responses = enrollments.getContent().stream()
-                .map(enrollment -> {
-                    Course course = enrollment.getCourse();
-                    return toStudentCourseListResponse(course, enrollment);
-                })
-                .toList();
+        Map<Long, Long> studentCounts = countStudents(organizationId,
+                enrollments.getContent().stream().map(EnrollmentCard::getId).toList());
 
-        return new PageImpl<>(responses, pageable, enrollments.getTotalElements());
+        return enrollments.map(enrollment -> toStudentCourseListResponse(enrollment, enrollment, studentCounts));
     }
 
     /**
-     * Get course detail for student
+     * Get course detail for student, written with a JsonGenerator.
+     *
+     * Outline, inscription, progression et nombre d'élèves sont indépendants :
+     * requêtes lancées en parallèle (une transaction read-only chacune).
+     * Les requêtes sont faites ici (thread de la requête, contexte tenant) ;
+     * le corps retourné ne fait plus que sérialiser.
      */
-    @Transactional(readOnly = true)
-    public StudentCourseDetailResponse getCourseDetail(Long courseId, Long studentId) {
+    public StreamingResponseBody streamCourseDetail(Long courseId, Long studentId) {
+        StudentCourseDetailWriter.Source source = loadCourseDetail(courseId, studentId);
+        return out -> courseDetailWriter.write(source, out);
+    }
+
+    private StudentCourseDetailWriter.Source loadCourseDetail(Long courseId, Long studentId) {
         Long organizationId = TenantContext.getTenantId();
 
-        Course course = courseRepository.findByIdAndOrganizationIdAndPublishedTrue(courseId, organizationId)
-                .orElseThrow(() -> new CourseNotFoundException("Course not found or not published"));
+        try (ParallelQueries.Scope scope = parallelQueries.open()) {
+            // ✅ Partie commune à tous les élèves (cours + sections + leçons) → cache
+            Supplier<CourseOutline> outline = scope.fork(() ->
+                    courseOutlineService.getPublishedOutline(organizationId, courseId));
 
-        // Get enrollment if exists
-        CourseEnrollment enrollment = enrollmentRepository
-                .findByOrganizationIdAndStudentIdAndCourseId(organizationId, studentId, courseId)
-                .orElse(null);
+            Supplier<CourseEnrollment> enrollment = scope.fork(() -> enrollmentRepository
+                    .findByOrganizationIdAndStudentIdAndCourseId(organizationId, studentId, courseId)
+                    .orElse(null));
 
-        // Get sections with lessons
-        List<CourseSection> sections = sectionRepository
-                .findByOrganizationIdAndCourseIdOrderByOrderIndexAsc(organizationId, courseId);
+            // Progression lue en parallèle, ignorée si l'élève n'est pas inscrit
+            Supplier<List<LessonProgress>> progress = scope.fork(() ->
+                    progressRepository.findByStudentAndCourse(organizationId, studentId, courseId));
 
-        // Get lesson progress if enrolled
-        Map<Long, LessonProgress> progressMap = Map.of();
-        if (enrollment != null) {
-            List<LessonProgress> progressList = progressRepository
-                    .findByStudentAndCourse(organizationId, studentId, courseId);
-            progressMap = progressList.stream()
-                    .collect(Collectors.toMap(LessonProgress::getLessonId, p -> p));
+            Supplier<Long> totalStudents = scope.fork(() ->
+                    enrollmentRepository.countByOrganizationIdAndCourseId(organizationId, courseId));
+
+            scope.join();
+
+            Map<Long, LessonProgress> progressMap = enrollment.get() == null ? Map.of() :
+                    progress.get().stream().collect(Collectors.toMap(LessonProgress::getLessonId, p -> p));
+
+            return new StudentCourseDetailWriter.Source(outline.get(), enrollment.get(), progressMap,
+                    totalStudents.get().intValue());
+        }
+    }
+
+    /**
+     * Student home screen: dashboard + first catalog page + first my-courses page
+     *
+     * Les inscriptions de l'élève sont chargées une seule fois (carte du cours + auteur) et
+     * partagées par les trois vues ; nombre d'élèves en une requête groupée.
+     * 4 requêtes au total, au lieu de 3 appels HTTP et ~3 requêtes par cours affiché.
+     */
+    public StudentHomeResponse getHome(Long studentId) {
+        Long organizationId = TenantContext.getTenantId();
+
+        List<EnrollmentCard> enrollments;
+        Page<CourseCard> catalogCourses;
+        try (ParallelQueries.Scope scope = parallelQueries.open()) {
+            Supplier<List<EnrollmentCard>> enrollmentsFork = scope.fork(() ->
+                    enrollmentRepository.findAllCardsByStudent(organizationId, studentId));
+            Supplier<Page<CourseCard>> catalogFork = scope.fork(() ->
+                    courseRepository.findCardsByOrganizationIdAndPublishedTrue(organizationId, HOME_CATALOG_PAGE));
+            scope.join();
+            enrollments = enrollmentsFork.get();
+            catalogCourses = catalogFork.get();
         }
 
-        // Count total lessons
-        int totalLessons = sections.stream()
-                .mapToInt(s -> s.getLessons().size())
-                .sum();
+        // My courses : même tri que /my-courses (lastAccessedAt DESC, NULLS FIRST comme PostgreSQL)
+        List<EnrollmentCard> myCourses = enrollments.stream()
+                .sorted(Comparator.comparing(EnrollmentCard::getLastAccessedAt,
+                        Comparator.nullsFirst(Comparator.<LocalDateTime>reverseOrder())))
+                .limit(HOME_MY_COURSES_PAGE.getPageSize())
+                .toList();
+
+        Set<Long> listedCourseIds = new HashSet<>();
+        catalogCourses.forEach(course -> listedCourseIds.add(course.getId()));
+        myCourses.forEach(enrollment -> listedCourseIds.add(enrollment.getId()));
+        Map<Long, Long> studentCounts = countStudents(organizationId, listedCourseIds);
+
+        Map<Long, EnrollmentCard> enrollmentMap = enrollments.stream()
+                .collect(Collectors.toMap(EnrollmentCard::getId, e -> e));
 
-        // Count total students
-        int totalStudents = (int) enrollmentRepository.countByOrganizationIdAndCourseId(organizationId, courseId);
+        Page<StudentCourseListResponse> catalog = catalogCourses.map(course ->
+                toStudentCourseListResponse(course, enrollmentMap.get(course.getId()), studentCounts));
+        Page<StudentCourseListResponse> myCoursesPage = new PageImpl<>(
+                myCourses.stream()
+                        .map(enrollment -> toStudentCourseListResponse(enrollment, enrollment, studentCounts))
+                        .toList(),
+                HOME_MY_COURSES_PAGE,
+                enrollments.size());
 
-        return toStudentCourseDetailResponse(course, sections, enrollment, progressMap, totalLessons, totalStudents);
+        return new StudentHomeResponse(toDashboard(enrollments), catalog, myCoursesPage);
     }
 
     /**
@@ -167,18 +223,24 @@ public class StudentCourseService {
     public StudentDashboardResponse getDashboardStats(Long studentId) {
         Long organizationId = TenantContext.getTenantId();
 
-        // Get all enrollments
-        List<CourseEnrollment> enrollments = enrollmentRepository
-                .findByOrganizationIdAndStudentId(organizationId, studentId, Pageable.unpaged())
-                .getContent();
+        // Get all enrollments (carte du cours + auteur dans la même requête)
+        List<EnrollmentCard> enrollments = enrollmentRepository.findAllCardsByStudent(organizationId, studentId);
+
+        return toDashboard(enrollments);
+    }
+
+    // ════════════════════════════════════════════════════════
+    // HELPERS
+    // ════════════════════════════════════════════════════════
 
+    private StudentDashboardResponse toDashboard(List<EnrollmentCard> enrollments) {
         int totalEnrolled = enrollments.size();
-        int completed = (int) enrollments.stream().filter(CourseEnrollment::getCompleted).count();
+        int completed = (int) enrollments.stream().filter(EnrollmentCard::getCompleted).count();
         int inProgress = totalEnrolled - completed;
 
         int avgProgress = enrollments.isEmpty() ? 0 :
                 (int) enrollments.stream()
-                        .mapToInt(CourseEnrollment::getProgressPercent)
+                        .mapToInt(EnrollmentCard::getProgressPercent)
                         .average()
                         .orElse(0);
 
@@ -208,25 +270,32 @@ public class StudentCourseService {
         return new StudentDashboardResponse(stats, recentCourses, inProgressCourses);
     }
 
-    // ════════════════════════════════════════════════════════
-    // HELPERS
-    // ════════════════════════════════════════════════════════
+    /** Nombre d'élèves par cours, une seule requête GROUP BY */
+    private Map<Long, Long> countStudents(Long organizationId, Collection<Long> courseIds) {
+        if (courseIds.isEmpty()) {
+            return Map.of();
+        }
+        return enrollmentRepository.countStudentsByCourseIds(organizationId, courseIds).stream()
+                .collect(Collectors.toMap(CourseEnrollmentRepository.CourseStudentCount::getCourseId,
+                        CourseEnrollmentRepository.CourseStudentCount::getStudents));
+    }
 
-    private StudentCourseListResponse toStudentCourseListResponse(Course course, CourseEnrollment enrollment) {
+    private StudentCourseListResponse toStudentCourseListResponse(CourseCard course,
+                                                                  EnrollmentCard enrollment,
+                                                                  Map<Long, Long> studentCounts) {
         StudentCourseListResponse.TeacherInfo teacherInfo = null;
-        if (course.getAuthor() != null) {
-            User teacher = course.getAuthor();
+        if (course.getAuthorId() != null) {
             teacherInfo = new StudentCourseListResponse.TeacherInfo(
-                    teacher.getId(),
-                    teacher.getUsername(),
-                    teacher.getFullName()
+                    course.getAuthorId(),
+                    course.getAuthorUsername(),
+                    course.getAuthorFullName()
             );
         }
 
         StudentCourseListResponse.EnrollmentInfo enrollmentInfo = null;
         if (enrollment != null) {
             enrollmentInfo = new StudentCourseListResponse.EnrollmentInfo(
-                    enrollment.getId(),
+                    enrollment.getEnrollmentId(),
                     enrollment.getProgressPercent(),
                     enrollment.getCompleted(),
                     enrollment.getEnrolledAt(),
@@ -234,8 +303,7 @@ public class StudentCourseService {
             );
         }
 
-        int totalStudents = (int) enrollmentRepository.countByOrganizationIdAndCourseId(
-                course.getOrganizationId(), course.getId());
+        int totalStudents = studentCounts.getOrDefault(course.getId(), 0L).intValue();
 
         return new StudentCourseListResponse(
                 course.getId(),
@@ -252,92 +320,13 @@ public class StudentCourseService {
         );
     }
 
-    private StudentCourseDetailResponse toStudentCourseDetailResponse(
-            Course course,
-            List<CourseSection> sections,
-            CourseEnrollment enrollment,
-            Map<Long, LessonProgress> progressMap,
-            int totalLessons,
-            int totalStudents) {
-
-        StudentCourseDetailResponse.TeacherInfo teacherInfo = null;
-        if (course.getAuthor() != null) {
-            User teacher = course.getAuthor();
-            teacherInfo = new StudentCourseDetailResponse.TeacherInfo(
-                    teacher.getId(),
-                    teacher.getUsername(),
-                    teacher.getFullName()
-            );
-        }
-
-        List<StudentCourseDetailResponse.SectionInfo> sectionInfos = sections.stream()
-                .map(section -> {
-                    List<StudentCourseDetailResponse.LessonInfo> lessonInfos = section.getLessons().stream()
-                            .map(lesson -> {
-                                LessonProgress progress = progressMap.get(lesson.getId());
-                                return new StudentCourseDetailResponse.LessonInfo(
-                                        lesson.getId(),
-                                        lesson.getTitle(),
-                                        lesson.getType().name(),
-                                        lesson.getOrderIndex(),
-                                        lesson.getDurationSeconds(),
-                                        progress != null && progress.getCompleted(),
-                                        progress != null ? progress.getProgressPercent() : 0
-                                );
-                            })
-                            .toList();
-
-                    return new StudentCourseDetailResponse.SectionInfo(
-                            section.getId(),
-                            section.getTitle(),
-                            section.getDescription(),
-                            section.getOrderIndex(),
-                            lessonInfos
-                    );
-                })
-                .toList();
-
-        StudentCourseDetailResponse.EnrollmentInfo enrollmentInfo = null;
-        if (enrollment != null) {
-            enrollmentInfo = new StudentCourseDetailResponse.EnrollmentInfo(
-                    enrollment.getId(),
-                    enrollment.getProgressPercent(),
-                    enrollment.getCompleted(),
-                    enrollment.getEnrolledAt(),
-                    enrollment.getLastAccessedAt()
-            );
-        }
-
-        return new StudentCourseDetailResponse(
-                course.getId(),
-                course.getTitle(),
-                course.getSlug(),
-                course.getSummary(),
-                course.getDescription(),
-                course.getCategory(),
-                course.getLevel(),
-                course.getEstimatedHours(),
-                course.getThumbnailUrl(),
-                course.getLanguage(),
-                course.getObjectives(),
-                course.getPrerequisites(),
-                teacherInfo,
-                sectionInfos,
-                enrollmentInfo,
-                totalLessons,
-                totalStudents,
-                course.getPublishedAt()
-        );
-    }
-
-    private StudentDashboardResponse.EnrolledCourseInfo toEnrolledCourseInfo(CourseEnrollment enrollment) {
-        Course course = enrollment.getCourse();
-        String teacherName = course.getAuthor() != null ? course.getAuthor().getFullName() : "Unknown";
+    private StudentDashboardResponse.EnrolledCourseInfo toEnrolledCourseInfo(EnrollmentCard enrollment) {
+        String teacherName = enrollment.getAuthorId() != null ? enrollment.getAuthorFullName() : "Unknown";
 
         return new StudentDashboardResponse.EnrolledCourseInfo(
-                course.getId(),
-                course.getTitle(),
-                course.getThumbnailUrl(),
+                enrollment.getId(),
+                enrollment.getTitle(),
+                enrollment.getThumbnailUrl(),
                 enrollment.getProgressPercent(),
                 teacherName,
                 enrollment.getLastAccessedAt()
@@ -2,14 +2,17 @@ package com.example.mondecole_pocket.service;
 
 import com.example.mondecole_pocket.dto.*;
 import com.example.mondecole_pocket.entity.*;
+import com.example.mondecole_pocket.entity.enums.PurgeTarget;
 import com.example.mondecole_pocket.exception.CourseNotFoundException;
 import com.example.mondecole_pocket.repository.*;
+import com.example.mondecole_pocket.repository.LessonRepository.LessonSummary;
 import com.example.mondecole_pocket.security.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -21,6 +24,8 @@ public class TeacherCourseSectionService {
     private final CourseSectionRepository sectionRepository;
     private final CourseRepository courseRepository;
     private final LessonRepository lessonRepository;
+    private final CourseOutlineService courseOutlineService;
+    private final PurgeService purgeService;
 
     /**
      * Get all sections for a course
@@ -62,7 +67,7 @@ public class TeacherCourseSectionService {
         }
 
         // Get lessons
-        List<Lesson> lessons = lessonRepository.findBySectionIdOrderByOrderIndexAsc(sectionId);
+        List<LessonSummary> lessons = lessonRepository.findSummariesBySectionId(sectionId);
 
         return toCourseSectionDetailResponse(section, lessons);
     }
@@ -87,6 +92,7 @@ public class TeacherCourseSectionService {
                 .build();
 
         section = sectionRepository.save(section);
+        courseOutlineService.evict(organizationId, courseId);
 
         log.info("✅ Section created: id={}, title={}, course={}",
                 section.getId(), section.getTitle(), courseId);
@@ -129,6 +135,7 @@ public class TeacherCourseSectionService {
         }
 
         section = sectionRepository.save(section);
+        courseOutlineService.evict(organizationId, courseId);
 
         log.info("✅ Section updated: id={}, title={}", section.getId(), section.getTitle());
 
@@ -137,7 +144,8 @@ public class TeacherCourseSectionService {
     }
 
     /**
-     * Delete section (and all its lessons CASCADE)
+     * Delete section : masquée immédiatement (soft delete), leçons et progression
+     * purgées en arrière-plan par batches (CascadePurgeHandler)
      */
     @Transactional
     public void deleteSection(Long sectionId, Long courseId, Long teacherId) {
@@ -154,15 +162,12 @@ public class TeacherCourseSectionService {
             throw new IllegalStateException("Section does not belong to this course");
         }
 
-        // Delete all lessons first (if not CASCADE)
-        List<Lesson> lessons = lessonRepository.findBySectionIdOrderByOrderIndexAsc(sectionId);
-        lessonRepository.deleteAll(lessons);
+        section.setDeletedAt(LocalDateTime.now());
+        sectionRepository.save(section);
+        courseOutlineService.evict(organizationId, courseId);
+        purgeService.requestPurge(organizationId, PurgeTarget.SECTION, sectionId, teacherId);
 
-        // Delete section
-        sectionRepository.delete(section);
-
-        log.info("✅ Section deleted: id={}, title={}, lessons={}",
-                section.getId(), section.getTitle(), lessons.size());
+        log.info("✅ Section deleted (purge scheduled): id={}, title={}", section.getId(), section.getTitle());
     }
 
     /**
@@ -188,6 +193,8 @@ public class TeacherCourseSectionService {
             sectionRepository.save(section);
         }
 
+        courseOutlineService.evict(organizationId, courseId);
+
         log.info("✅ Sections reordered in course {}", courseId);
     }
 
@@ -208,7 +215,7 @@ public class TeacherCourseSectionService {
 
     private CourseSectionDetailResponse toCourseSectionDetailResponse(
             CourseSection section,
-            List<Lesson> lessons) {
+            List<LessonSummary> lessons) {
 
         List<CourseSectionDetailResponse.LessonSummary> lessonSummaries = lessons.stream()
                 .map(lesson -> new CourseSectionDetailResponse.LessonSummary(
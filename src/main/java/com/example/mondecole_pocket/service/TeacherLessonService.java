@@ -5,6 +5,7 @@ import com.example.mondecole_pocket.entity.*;
 import com.example.mondecole_pocket.entity.enums.LessonType;
 import com.example.mondecole_pocket.exception.CourseNotFoundException;
 import com.example.mondecole_pocket.repository.*;
+import com.example.mondecole_pocket.repository.LessonRepository.LessonSummary;
 import com.example.mondecole_pocket.security.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,6 +24,9 @@ public class TeacherLessonService {
     private final LessonRepository lessonRepository;
     private final CourseSectionRepository sectionRepository;
     private final CourseRepository courseRepository;
+    private final CourseOutlineService courseOutlineService;
+    private final LessonFileService lessonFileService;
+    private final LessonUploadService lessonUploadService;
 
     /**
      * Get all lessons in a section
@@ -39,7 +43,7 @@ public class TeacherLessonService {
                         section.getCourseId(), organizationId, teacherId)
                 .orElseThrow(() -> new CourseNotFoundException("Course not found or unauthorized"));
 
-        List<Lesson> lessons = lessonRepository.findBySectionIdOrderByOrderIndexAsc(sectionId);
+        List<LessonSummary> lessons = lessonRepository.findSummariesBySectionId(sectionId);
 
         return lessons.stream()
                 .map(this::toLessonListResponse)
@@ -100,6 +104,7 @@ public class TeacherLessonService {
                 .build();
 
         lesson = lessonRepository.save(lesson);
+        courseOutlineService.evict(organizationId, section.getCourseId());
 
         log.info("✅ Lesson created: id={}, title={}, section={}",
                 lesson.getId(), lesson.getTitle(), sectionId);
@@ -157,6 +162,7 @@ public class TeacherLessonService {
         }
 
         lesson = lessonRepository.save(lesson);
+        courseOutlineService.evict(organizationId, section.getCourseId());
 
         log.info("✅ Lesson updated: id={}, title={}", lesson.getId(), lesson.getTitle());
 
@@ -181,7 +187,10 @@ public class TeacherLessonService {
                         section.getCourseId(), organizationId, teacherId)
                 .orElseThrow(() -> new CourseNotFoundException("Unauthorized"));
 
+        lessonFileService.releaseOnCommit(lesson);
+        lessonUploadService.discardForLesson(organizationId, lessonId);
         lessonRepository.delete(lesson);
+        courseOutlineService.evict(organizationId, section.getCourseId());
 
         log.info("✅ Lesson deleted: id={}, title={}", lesson.getId(), lesson.getTitle());
     }
@@ -201,18 +210,21 @@ public class TeacherLessonService {
                         section.getCourseId(), organizationId, teacherId)
                 .orElseThrow(() -> new CourseNotFoundException("Unauthorized"));
 
+        // ✅ UPDATE direct : les leçons (et leur content) ne sont pas chargées
+        LocalDateTime now = LocalDateTime.now();
         for (ReorderRequest request : requests) {
-            Lesson lesson = lessonRepository.findById(request.id())
-                    .orElseThrow(() -> new CourseNotFoundException("Lesson not found: " + request.id()));
+            int updated = lessonRepository.updateOrderIndex(request.id(), sectionId, request.orderIndex(), now);
 
-            if (!lesson.getSectionId().equals(sectionId)) {
+            if (updated == 0) {
+                if (!lessonRepository.existsById(request.id())) {
+                    throw new CourseNotFoundException("Lesson not found: " + request.id());
+                }
                 throw new IllegalStateException("Lesson does not belong to this section");
             }
-
-            lesson.setOrderIndex(request.orderIndex());
-            lessonRepository.save(lesson);
         }
 
+        courseOutlineService.evict(organizationId, section.getCourseId());
+
         log.info("✅ Lessons reordered in section {}", sectionId);
     }
 
@@ -220,7 +232,7 @@ public class TeacherLessonService {
     // MAPPERS
     // ════════════════════════════════════════════════════════
 
-    private LessonListResponse toLessonListResponse(Lesson lesson) {
+    private LessonListResponse toLessonListResponse(LessonSummary lesson) {
         return new LessonListResponse(
                 lesson.getId(),
                 lesson.getTitle(),
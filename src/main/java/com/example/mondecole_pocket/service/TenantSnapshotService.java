@@ -0,0 +1,42 @@
+package com.example.mondecole_pocket.service;
+
+import com.example.mondecole_pocket.dto.TenantSnapshot;
+import com.example.mondecole_pocket.repository.OrganizationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class TenantSnapshotService {
+
+    private final OrganizationRepository organizationRepository;
+
+    /**
+     * Get the organization snapshot (null if unknown — cached as well)
+     */
+    @Cacheable(cacheNames = "tenantSnapshot", key = "#organizationId")
+    @Transactional(readOnly = true)
+    public TenantSnapshot find(Long organizationId) {
+        return organizationRepository.findById(organizationId)
+                .map(org -> new TenantSnapshot(
+                        org.getId(),
+                        org.getName(),
+                        org.getSlug(),
+                        org.getPlan(),
+                        org.getMaxUsers(),
+                        org.getMaxStorageMB(),
+                        org.isActive()
+                ))
+                .orElse(null);
+    }
+
+    /**
+     * Drop the snapshot after an organization update
+     */
+    @CacheEvict(cacheNames = "tenantSnapshot", key = "#organizationId")
+    public void evict(Long organizationId) {
+    }
+}
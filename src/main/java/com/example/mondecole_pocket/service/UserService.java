@@ -3,13 +3,16 @@ package com.example.mondecole_pocket.service;
 import com.example.mondecole_pocket.dto.*;
 import com.example.mondecole_pocket.entity.Organization;
 import com.example.mondecole_pocket.entity.User;
+import com.example.mondecole_pocket.entity.enums.PurgeTarget;
 import com.example.mondecole_pocket.entity.enums.UserRole;
 import com.example.mondecole_pocket.exception.OrganizationNotFoundException;
 import com.example.mondecole_pocket.exception.UserNotFoundException;
 import com.example.mondecole_pocket.repository.CourseEnrollmentRepository;
+import com.example.mondecole_pocket.repository.CourseRepository;
 import com.example.mondecole_pocket.repository.OrganizationRepository;
 import com.example.mondecole_pocket.repository.UserRepository;
 import com.example.mondecole_pocket.security.TenantContext;
+import com.example.mondecole_pocket.security.UsernameDirectory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -19,6 +22,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -29,6 +33,11 @@ public class UserService {
     private final UserRepository userRepository;
     private final OrganizationRepository organizationRepository;
     private final CourseEnrollmentRepository courseEnrollmentRepository;
+    private final UsernameDirectory usernameDirectory;
+    private final CourseRepository courseRepository;
+    private final CourseOutlineService courseOutlineService;
+    private final RefreshTokenService refreshTokenService;
+    private final PurgeService purgeService;
 
     private Organization getCurrentOrganization(){
         Long organizationId = TenantContext.getTenantId();
@@ -135,8 +144,13 @@ public class UserService {
         return PageResponse.from(usersPage, UserResponse::from);
     }
 
+    /**
+     * Soft delete : le user (et ses cours s'il est auteur) disparaît immédiatement,
+     * ses sessions sont révoquées ; inscriptions, progression et cours sont purgés
+     * en arrière-plan (CascadePurgeHandler)
+     */
     @Transactional
-    public void deleteUser(Long userId) {
+    public void deleteUser(Long userId, Long requestedBy) {
         Organization organization = getCurrentOrganization();
 
         User user = userRepository.findById(userId)
@@ -150,7 +164,21 @@ public class UserService {
             throw new IllegalStateException("Cannot delete admin user");
         }
 
-        userRepository.delete(user);
+        LocalDateTime now = LocalDateTime.now();
+        user.setDeletedAt(now);
+        userRepository.save(user);
+
+        List<Long> authoredCourseIds = courseRepository.findIdsByOrganizationIdAndAuthorId(organization.getId(), userId);
+        if (!authoredCourseIds.isEmpty()) {
+            courseRepository.softDeleteByIds(authoredCourseIds, now);
+            authoredCourseIds.forEach(courseId -> courseOutlineService.evict(organization.getId(), courseId));
+        }
+
+        refreshTokenService.revokeAll(userId);
+        usernameDirectory.unregister(user.getUsername());
+        purgeService.requestPurge(organization.getId(), PurgeTarget.USER, userId, requestedBy);
+
+        log.info("✅ User deleted (purge scheduled): id={}, authoredCourses={}", userId, authoredCourseIds.size());
     }
 
     @Transactional
@@ -0,0 +1,321 @@
+package com.example.mondecole_pocket.service.job;
+
+import com.example.mondecole_pocket.entity.enums.PurgeTarget;
+import com.example.mondecole_pocket.service.storage.StoredFileRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ════════════════════════════════════════════════════════
+ * CASCADE PURGE
+ * ════════════════════════════════════════════════════════
+ *
+ * Supprime les lignes dépendantes d'une entité soft-deleted, feuilles d'abord,
+ * par DELETE ... WHERE id IN (SELECT ... LIMIT n) en autocommit (verrous courts),
+ * avec une pause entre batches. Avancement dans purge_requests.
+ *
+ * Fichiers des leçons : chaque batch de DELETE décrémente les références
+ * (stored_files) dans la même instruction ; les contenus qui n'ont plus de
+ * référence rendent leur quota et leur objet est supprimé.
+ *
+ * Idempotent : une reprise (retry, reaper) recommence les étapes, déjà vides.
+ * La ligne racine n'est supprimée que si elle est toujours soft-deleted.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CascadePurgeHandler implements JobHandler<CascadePurgeHandler.Payload> {
+
+    public static final String TYPE = "cascade.purge";
+
+    public record Payload(Long purgeRequestId) {}
+
+    private record PurgeRequest(Long id, Long organizationId, PurgeTarget target, Long entityId) {}
+
+    // Leçons supprimées (CTE doomed) : une référence de moins sur leur fichier, dans le même DELETE
+    private static final String RELEASE_FILE_REFERENCES = """
+                UPDATE stored_files f
+                SET ref_count = GREATEST(f.ref_count - d.refs, 0)
+                FROM (SELECT storage_key, COUNT(*) AS refs FROM doomed
+                      WHERE storage_key IS NOT NULL GROUP BY storage_key) d
+                WHERE f.storage_key = d.storage_key
+            """;
+
+    // Uploads en cours (CTE doomed) : réservation rendue au quota (les .part sont balayés par LessonUploadCleanupJob)
+    private static final String RELEASE_UPLOAD_RESERVATIONS = """
+                UPDATE organizations o
+                SET storage_used_bytes = GREATEST(o.storage_used_bytes - d.bytes, 0)
+                FROM (SELECT organization_id, SUM(total_bytes) AS bytes FROM doomed GROUP BY organization_id) d
+                WHERE o.id = d.organization_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StoredFileRegistry storedFiles;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.purge.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.purge.pause:100ms}")
+    private Duration pause;
+
+    @Override
+    public String type() {
+        return TYPE;
+    }
+
+    @Override
+    public Class<Payload> payloadType() {
+        return Payload.class;
+    }
+
+    @Override
+    public int maxAttempts() {
+        return 10;
+    }
+
+    @Override
+    public void handle(Payload payload) throws Exception {
+        List<PurgeRequest> found = jdbcTemplate.query("""
+                        SELECT id, organization_id, entity_type, entity_id FROM purge_requests
+                        WHERE id = ? AND status NOT IN ('DONE', 'CANCELLED')
+                        """,
+                (rs, rowNum) -> new PurgeRequest(
+                        rs.getLong("id"),
+                        rs.getLong("organization_id"),
+                        PurgeTarget.valueOf(rs.getString("entity_type")),
+                        rs.getLong("entity_id")),
+                payload.purgeRequestId());
+        if (found.isEmpty()) {
+            return;
+        }
+        PurgeRequest request = found.getFirst();
+
+        jdbcTemplate.update("""
+                UPDATE purge_requests
+                SET status = 'RUNNING', started_at = COALESCE(started_at, now()), updated_at = now()
+                WHERE id = ?
+                """, request.id());
+
+        try {
+            if (!isStillSoftDeleted(request)) {
+                finish(request, "CANCELLED");
+                log.info("Purge {} cancelled: {} {} is not soft-deleted anymore",
+                        request.id(), request.target(), request.entityId());
+                return;
+            }
+
+            switch (request.target()) {
+                case COURSE -> purgeCourse(request, request.entityId());
+                case SECTION -> purgeSection(request);
+                case USER -> purgeUser(request);
+            }
+            finish(request, "DONE");
+            log.info("🗑️ Purge {} done: {} {}", request.id(), request.target(), request.entityId());
+        } catch (Exception e) {
+            jdbcTemplate.update("""
+                    UPDATE purge_requests SET status = 'FAILED', last_error = ?, updated_at = now()
+                    WHERE id = ?
+                    """, e.getClass().getSimpleName() + ": " + e.getMessage(), request.id());
+            throw e;
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    // ÉTAPES PAR TYPE (feuilles → racine)
+    // ════════════════════════════════════════════════════════
+
+    private void purgeCourse(PurgeRequest request, Long courseId) throws InterruptedException {
+        Long organizationId = request.organizationId();
+
+        deleteInChunks(request, "lesson_progress", """
+                DELETE FROM lesson_progress WHERE id IN (
+                    SELECT lp.id FROM lesson_progress lp
+                    JOIN lessons l ON l.id = lp.lesson_id
+                    JOIN course_sections s ON s.id = l.section_id
+                    WHERE s.organization_id = ? AND s.course_id = ?
+                    LIMIT ?)
+                """, organizationId, courseId);
+        deleteInChunks(request, "course_enrollments", """
+                DELETE FROM course_enrollments WHERE id IN (
+                    SELECT id FROM course_enrollments
+                    WHERE organization_id = ? AND course_id = ?
+                    LIMIT ?)
+                """, organizationId, courseId);
+        deleteInChunks(request, "lesson_uploads", """
+                WITH doomed AS (
+                    SELECT u.id, u.organization_id, u.total_bytes FROM lesson_uploads u
+                    JOIN lessons l ON l.id = u.lesson_id
+                    JOIN course_sections s ON s.id = l.section_id
+                    WHERE s.organization_id = ? AND s.course_id = ?
+                    LIMIT ?
+                ), quota AS (
+                """ + RELEASE_UPLOAD_RESERVATIONS + """
+                )
+                DELETE FROM lesson_uploads WHERE id IN (SELECT id FROM doomed)
+                """, organizationId, courseId);
+        deleteInChunks(request, "lessons", """
+                WITH doomed AS (
+                    SELECT l.id, l.storage_key FROM lessons l
+                    JOIN course_sections s ON s.id = l.section_id
+                    WHERE s.organization_id = ? AND s.course_id = ?
+                    LIMIT ?
+                ), refs AS (
+                """ + RELEASE_FILE_REFERENCES + """
+                )
+                DELETE FROM lessons WHERE id IN (SELECT id FROM doomed)
+                """, organizationId, courseId);
+        collectUnreferencedFiles(request);
+        deleteInChunks(request, "course_sections", """
+                DELETE FROM course_sections WHERE id IN (
+                    SELECT id FROM course_sections
+                    WHERE organization_id = ? AND course_id = ?
+                    LIMIT ?)
+                """, organizationId, courseId);
+        deleteRoot(request, "courses",
+                "DELETE FROM courses WHERE id = ? AND organization_id = ? AND deleted_at IS NOT NULL",
+                courseId, organizationId);
+    }
+
+    private void purgeSection(PurgeRequest request) throws InterruptedException {
+        Long organizationId = request.organizationId();
+        Long sectionId = request.entityId();
+
+        deleteInChunks(request, "lesson_progress", """
+                DELETE FROM lesson_progress WHERE id IN (
+                    SELECT lp.id FROM lesson_progress lp
+                    JOIN lessons l ON l.id = lp.lesson_id
+                    WHERE l.organization_id = ? AND l.section_id = ?
+                    LIMIT ?)
+                """, organizationId, sectionId);
+        deleteInChunks(request, "lesson_uploads", """
+                WITH doomed AS (
+                    SELECT u.id, u.organization_id, u.total_bytes FROM lesson_uploads u
+                    JOIN lessons l ON l.id = u.lesson_id
+                    WHERE l.organization_id = ? AND l.section_id = ?
+                    LIMIT ?
+                ), quota AS (
+                """ + RELEASE_UPLOAD_RESERVATIONS + """
+                )
+                DELETE FROM lesson_uploads WHERE id IN (SELECT id FROM doomed)
+                """, organizationId, sectionId);
+        deleteInChunks(request, "lessons", """
+                WITH doomed AS (
+                    SELECT id, storage_key FROM lessons
+                    WHERE organization_id = ? AND section_id = ?
+                    LIMIT ?
+                ), refs AS (
+                """ + RELEASE_FILE_REFERENCES + """
+                )
+                DELETE FROM lessons WHERE id IN (SELECT id FROM doomed)
+                """, organizationId, sectionId);
+        collectUnreferencedFiles(request);
+        deleteRoot(request, "course_sections",
+                "DELETE FROM course_sections WHERE id = ? AND organization_id = ? AND deleted_at IS NOT NULL",
+                sectionId, organizationId);
+    }
+
+    private void purgeUser(PurgeRequest request) throws InterruptedException {
+        Long organizationId = request.organizationId();
+        Long userId = request.entityId();
+
+        deleteInChunks(request, "lesson_progress", """
+                DELETE FROM lesson_progress WHERE id IN (
+                    SELECT id FROM lesson_progress
+                    WHERE organization_id = ? AND student_id = ?
+                    LIMIT ?)
+                """, organizationId, userId);
+        deleteInChunks(request, "course_enrollments", """
+                DELETE FROM course_enrollments WHERE id IN (
+                    SELECT id FROM course_enrollments
+                    WHERE organization_id = ? AND student_id = ?
+                    LIMIT ?)
+                """, organizationId, userId);
+        deleteInChunks(request, "refresh_tokens", """
+                DELETE FROM refresh_tokens WHERE id IN (
+                    SELECT id FROM refresh_tokens
+                    WHERE user_id = ?
+                    LIMIT ?)
+                """, userId);
+
+        // Cours de l'auteur (soft-deleted avec lui) : même cascade que ON DELETE CASCADE, par batches
+        List<Long> authoredCourseIds = jdbcTemplate.queryForList(
+                "SELECT id FROM courses WHERE organization_id = ? AND author_id = ?",
+                Long.class, organizationId, userId);
+        for (Long courseId : authoredCourseIds) {
+            jdbcTemplate.update("UPDATE courses SET deleted_at = COALESCE(deleted_at, now()) WHERE id = ?", courseId);
+            purgeCourse(request, courseId);
+        }
+
+        deleteRoot(request, "users",
+                "DELETE FROM users WHERE id = ? AND organization_id = ? AND deleted_at IS NOT NULL",
+                userId, organizationId);
+    }
+
+    // ════════════════════════════════════════════════════════
+    // HELPERS
+    // ════════════════════════════════════════════════════════
+
+    private boolean isStillSoftDeleted(PurgeRequest request) {
+        String table = switch (request.target()) {
+            case COURSE -> "courses";
+            case SECTION -> "course_sections";
+            case USER -> "users";
+        };
+        List<Boolean> deleted = jdbcTemplate.queryForList(
+                "SELECT deleted_at IS NOT NULL FROM " + table + " WHERE id = ?", Boolean.class, request.entityId());
+        // Ligne déjà absente : reprise après la dernière étape
+        return deleted.isEmpty() || deleted.getFirst();
+    }
+
+    /** sql se termine par LIMIT ? (ajouté après keys) */
+    private void deleteInChunks(PurgeRequest request, String table, String sql, Object... keys)
+            throws InterruptedException {
+        Object[] args = Arrays.copyOf(keys, keys.length + 1);
+        args[keys.length] = chunkSize;
+
+        while (true) {
+            int deleted = jdbcTemplate.update(sql, args);
+            progress(request, table, deleted);
+            if (deleted < chunkSize) {
+                return;
+            }
+            Thread.sleep(pause.toMillis());
+        }
+    }
+
+    /** Fichiers sans référence après la suppression des leçons : quota rendu, objets supprimés */
+    private void collectUnreferencedFiles(PurgeRequest request) {
+        progress(request, "stored_files", storedFiles.collectUnreferenced(request.organizationId(), chunkSize));
+    }
+
+    private void deleteRoot(PurgeRequest request, String table, String sql, Object... args) {
+        progress(request, table, jdbcTemplate.update(sql, args));
+    }
+
+    private void progress(PurgeRequest request, String table, int deleted) {
+        jdbcTemplate.update("""
+                UPDATE purge_requests
+                SET current_step = ?, rows_deleted = rows_deleted + ?, updated_at = now()
+                WHERE id = ?
+                """, table, deleted, request.id());
+        meterRegistry.counter("purge.rows.deleted", "target", request.target().name(), "table", table)
+                .increment(deleted);
+    }
+
+    private void finish(PurgeRequest request, String status) {
+        jdbcTemplate.update("""
+                UPDATE purge_requests
+                SET status = ?, current_step = NULL, last_error = NULL, finished_at = now(), updated_at = now()
+                WHERE id = ?
+                """, status, request.id());
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.mondecole_pocket.service.job;
+
+/**
+ * Traitement d'un type de job de la file (bean Spring, découvert par JobWorkers).
+ *
+ * handle() doit être idempotent : un job peut être rejoué après un crash
+ * du worker (reaper) ou un échec partiel.
+ */
+public interface JobHandler<P> {
+
+    /** Valeur de jobs.type */
+    String type();
+
+    /** Classe du payload JSON */
+    Class<P> payloadType();
+
+    void handle(P payload) throws Exception;
+
+    /** Tentatives avant DEAD */
+    default int maxAttempts() {
+        return 5;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.mondecole_pocket.service.job;
+
+import com.example.mondecole_pocket.config.ClusterJobRunner;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entretien de la file de jobs :
+ * - reaper : RUNNING sans heartbeat depuis plus de stuck-timeout (worker mort) → PENDING
+ *   (JobWorkers prolonge locked_at toutes les stuck-timeout/3)
+ * - nettoyage des DONE au-delà de la rétention (par chunks)
+ * - gauges de la file (prêts, lag du plus ancien, DEAD), rafraîchies par replica
+ */
+@Slf4j
+@Component
+public class JobMaintenance {
+
+    private static final String REAP = """
+            UPDATE jobs
+            SET status = 'PENDING', locked_at = NULL, locked_by = NULL,
+                last_error = 'Worker lost (stuck in RUNNING)'
+            WHERE status = 'RUNNING' AND locked_at < now() - make_interval(secs => ?)
+            """;
+
+    private static final String DELETE_DONE_CHUNK = """
+            DELETE FROM jobs
+            WHERE id IN (
+                SELECT id FROM jobs
+                WHERE status = 'DONE' AND finished_at < now() - make_interval(secs => ?)
+                LIMIT ?
+            )
+            """;
+
+    private static final String QUEUE_STATS = """
+            SELECT
+                COUNT(*) FILTER (WHERE status = 'PENDING' AND run_at <= now()) AS ready,
+                COALESCE(EXTRACT(EPOCH FROM now() - MIN(run_at) FILTER (
+                    WHERE status = 'PENDING' AND run_at <= now())), 0) AS lag_seconds,
+                COUNT(*) FILTER (WHERE status = 'RUNNING') AS running,
+                COUNT(*) FILTER (WHERE status = 'DEAD') AS dead
+            FROM jobs
+            WHERE status IN ('PENDING', 'RUNNING', 'DEAD')
+            """;
+
+    private static final int CLEANUP_CHUNK_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ClusterJobRunner clusterJobRunner;
+
+    private final AtomicLong ready = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final AtomicLong running = new AtomicLong();
+    private final AtomicLong dead = new AtomicLong();
+
+    @Value("${app.jobs.stuck-timeout:15m}")
+    private Duration stuckTimeout;
+
+    @Value("${app.jobs.done-retention:7d}")
+    private Duration doneRetention;
+
+    public JobMaintenance(JdbcTemplate jdbcTemplate,
+                          ClusterJobRunner clusterJobRunner,
+                          MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clusterJobRunner = clusterJobRunner;
+
+        Gauge.builder("jobs.queue.ready", ready, AtomicLong::get)
+                .description("Jobs ready to run and not yet claimed")
+                .register(meterRegistry);
+        Gauge.builder("jobs.queue.lag", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest ready job")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("jobs.queue.running", running, AtomicLong::get)
+                .register(meterRegistry);
+        Gauge.builder("jobs.queue.dead", dead, AtomicLong::get)
+                .description("Dead-lettered jobs")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.jobs.maintenance-interval:1m}")
+    public void maintain() {
+        clusterJobRunner.run("jobs-maintenance", Duration.ofMinutes(2), Duration.ofSeconds(30), () -> {
+            int reaped = jdbcTemplate.update(REAP, (double) stuckTimeout.toSeconds());
+            if (reaped > 0) {
+                log.warn("⚠️ Jobs reaper: {} stuck jobs re-queued", reaped);
+            }
+
+            long retentionSeconds = doneRetention.toSeconds();
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(DELETE_DONE_CHUNK, (double) retentionSeconds, CLEANUP_CHUNK_SIZE);
+            } while (deleted == CLEANUP_CHUNK_SIZE);
+            return "completed";
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.jobs.stats-interval:15s}")
+    public void refreshQueueStats() {
+        try {
+            Map<String, Object> stats = jdbcTemplate.queryForMap(QUEUE_STATS);
+            ready.set(((Number) stats.get("ready")).longValue());
+            lagSeconds.set(((Number) stats.get("lag_seconds")).longValue());
+            running.set(((Number) stats.get("running")).longValue());
+            dead.set(((Number) stats.get("dead")).longValue());
+        } catch (RuntimeException e) {
+            log.debug("Job queue stats unavailable: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.mondecole_pocket.service.job;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Enqueue de jobs durables.
+ *
+ * Appelé dans une transaction JPA, l'INSERT utilise la même connexion :
+ * le job n'existe que si la transaction métier commit.
+ */
+@Service
+@RequiredArgsConstructor
+public class JobQueue {
+
+    private static final String INSERT = """
+            INSERT INTO jobs (type, payload, priority, max_attempts, run_at)
+            VALUES (?, ?::jsonb, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public long enqueue(JobHandler<?> handler, Object payload) {
+        return enqueue(handler.type(), payload, 0, handler.maxAttempts(), LocalDateTime.now());
+    }
+
+    public long enqueue(JobHandler<?> handler, Object payload, int priority) {
+        return enqueue(handler.type(), payload, priority, handler.maxAttempts(), LocalDateTime.now());
+    }
+
+    public long enqueue(String type, Object payload, int priority, int maxAttempts, LocalDateTime runAt) {
+        String json = toJson(payload);
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT, new String[]{"id"});
+            statement.setString(1, type);
+            statement.setString(2, json);
+            statement.setInt(3, priority);
+            statement.setInt(4, maxAttempts);
+            statement.setTimestamp(5, Timestamp.valueOf(runAt));
+            return statement;
+        }, keyHolder);
+
+        return keyHolder.getKey().longValue();
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Job payload is not serializable: " + payload.getClass().getName(), e);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.mondecole_pocket.service.job;
+
+public enum JobStatus {
+    PENDING,
+    RUNNING,
+    DONE,
+    DEAD
+}
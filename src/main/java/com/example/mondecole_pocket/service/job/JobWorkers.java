@@ -0,0 +1,328 @@
+package com.example.mondecole_pocket.service.job;
+
+import com.example.mondecole_pocket.config.ClusterJobRunner;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * ════════════════════════════════════════════════════════
+ * JOB WORKERS
+ * ════════════════════════════════════════════════════════
+ *
+ * Pool de workers qui vident la table jobs :
+ * - claim par batch : UPDATE ... FROM (SELECT ... FOR UPDATE SKIP LOCKED LIMIT n)
+ *   → plusieurs workers / replicas sans se bloquer ni prendre le même job
+ * - locked_at reposé au démarrage de chaque job puis prolongé toutes les
+ *   stuck-timeout/3 pendant qu'il tourne : le reaper ne reprend que les jobs
+ *   d'un worker mort ; un job du batch repris entre-temps par le reaper
+ *   (locked_by changé) n'est pas exécuté
+ * - succès → DONE ; échec → PENDING avec backoff exponentiel (+ jitter) ;
+ *   max_attempts atteint ou type inconnu → DEAD (dead-letter, last_error conservé)
+ * - arrêt propre : plus de claim, les jobs en cours se terminent (shutdown-timeout)
+ */
+@Slf4j
+@Component
+public class JobWorkers implements SmartLifecycle {
+
+    private static final String CLAIM = """
+            WITH claimed AS (
+                SELECT id FROM jobs
+                WHERE status = 'PENDING' AND run_at <= now()
+                ORDER BY priority DESC, run_at, id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            UPDATE jobs j
+            SET status = 'RUNNING', locked_at = now(), locked_by = ?, attempts = j.attempts + 1
+            FROM claimed
+            WHERE j.id = claimed.id
+            RETURNING j.id, j.type, j.payload::text AS payload, j.attempts, j.max_attempts, j.run_at
+            """;
+
+    // Démarrage et heartbeat : 0 ligne = job repris par le reaper, plus à nous
+    private static final String TOUCH = """
+            UPDATE jobs SET locked_at = now()
+            WHERE id = ? AND locked_by = ? AND status = 'RUNNING'
+            """;
+
+    private static final String MARK_DONE = """
+            UPDATE jobs
+            SET status = 'DONE', finished_at = now(), locked_at = NULL, locked_by = NULL, last_error = NULL
+            WHERE id = ? AND locked_by = ?
+            """;
+
+    private static final String MARK_RETRY = """
+            UPDATE jobs
+            SET status = 'PENDING', run_at = now() + make_interval(secs => ?),
+                locked_at = NULL, locked_by = NULL, last_error = ?
+            WHERE id = ? AND locked_by = ?
+            """;
+
+    private static final String MARK_DEAD = """
+            UPDATE jobs
+            SET status = 'DEAD', finished_at = now(), locked_at = NULL, locked_by = NULL, last_error = ?
+            WHERE id = ? AND locked_by = ?
+            """;
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private record ClaimedJob(long id, String type, String payload, int attempts,
+                              int maxAttempts, LocalDateTime runAt) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<JobHandler<?>> handlerProvider;
+    private final String instanceId;
+
+    @Value("${app.jobs.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.jobs.workers:2}")
+    private int workers;
+
+    @Value("${app.jobs.batch-size:5}")
+    private int batchSize;
+
+    @Value("${app.jobs.poll-interval:1s}")
+    private Duration pollInterval;
+
+    @Value("${app.jobs.backoff-base:10s}")
+    private Duration backoffBase;
+
+    @Value("${app.jobs.backoff-max:1h}")
+    private Duration backoffMax;
+
+    @Value("${app.jobs.shutdown-timeout:30s}")
+    private Duration shutdownTimeout;
+
+    @Value("${app.jobs.stuck-timeout:15m}")
+    private Duration stuckTimeout;
+
+    private Map<String, JobHandler<?>> handlers = Map.of();
+    private ExecutorService executor;
+    private ScheduledExecutorService heartbeats;
+    private CountDownLatch stopSignal;
+    private volatile boolean running;
+
+    public JobWorkers(JdbcTemplate jdbcTemplate,
+                      ObjectMapper objectMapper,
+                      MeterRegistry meterRegistry,
+                      ObjectProvider<JobHandler<?>> handlerProvider,
+                      ClusterJobRunner clusterJobRunner) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.handlerProvider = handlerProvider;
+        this.instanceId = clusterJobRunner.getInstanceId();
+    }
+
+    @Override
+    public void start() {
+        handlers = handlerProvider.orderedStream()
+                .collect(Collectors.toMap(JobHandler::type, Function.identity()));
+        running = true;
+
+        if (!enabled || workers <= 0) {
+            log.info("Job workers disabled");
+            return;
+        }
+
+        stopSignal = new CountDownLatch(1);
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "job-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "job-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 1; i <= workers; i++) {
+            String workerId = instanceId + "#" + i;
+            executor.submit(() -> workLoop(workerId));
+        }
+
+        log.info("⚙️ Job workers started: {} workers, handlers={}", workers, handlers.keySet());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (executor == null) {
+            return;
+        }
+
+        stopSignal.countDown();
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                // Les jobs interrompus restent RUNNING → repris par le reaper
+                log.warn("⚠️ Job workers still busy after {}, interrupting", shutdownTimeout);
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        heartbeats.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void workLoop(String workerId) {
+        while (running) {
+            try {
+                List<ClaimedJob> claimed = claim(workerId);
+                if (claimed.isEmpty()) {
+                    idle();
+                    continue;
+                }
+                for (ClaimedJob job : claimed) {
+                    process(job, workerId);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Job worker {} error: {}", workerId, e.getMessage());
+                try {
+                    idle();
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void idle() throws InterruptedException {
+        stopSignal.await(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private List<ClaimedJob> claim(String workerId) {
+        return jdbcTemplate.query(CLAIM,
+                (rs, rowNum) -> new ClaimedJob(
+                        rs.getLong("id"),
+                        rs.getString("type"),
+                        rs.getString("payload"),
+                        rs.getInt("attempts"),
+                        rs.getInt("max_attempts"),
+                        rs.getTimestamp("run_at").toLocalDateTime()
+                ),
+                batchSize, workerId);
+    }
+
+    private void process(ClaimedJob job, String workerId) {
+        meterRegistry.timer("jobs.wait", "type", job.type())
+                .record(Duration.between(job.runAt(), LocalDateTime.now()));
+
+        JobHandler<?> handler = handlers.get(job.type());
+        if (handler == null) {
+            log.error("❌ No handler for job type '{}' (job {})", job.type(), job.id());
+            jdbcTemplate.update(MARK_DEAD, "No handler for type " + job.type(), job.id(), workerId);
+            count(job.type(), "dead");
+            return;
+        }
+
+        if (jdbcTemplate.update(TOUCH, job.id(), workerId) == 0) {
+            // Resté trop longtemps dans le batch : remis en PENDING par le reaper, peut-être déjà repris
+            log.warn("⚠️ Job {} ({}) no longer owned by {}, skipped", job.id(), job.type(), workerId);
+            count(job.type(), "lost");
+            return;
+        }
+
+        long heartbeatMs = Math.max(1000, stuckTimeout.toMillis() / 3);
+        ScheduledFuture<?> heartbeat = heartbeats.scheduleWithFixedDelay(
+                () -> touch(job, workerId), heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        try {
+            execute(handler, job.payload());
+            meterRegistry.timer("jobs.execution", "type", job.type())
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            jdbcTemplate.update(MARK_DONE, job.id(), workerId);
+            count(job.type(), "success");
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            fail(job, workerId, e);
+        } finally {
+            heartbeat.cancel(false);
+        }
+    }
+
+    private void touch(ClaimedJob job, String workerId) {
+        try {
+            if (jdbcTemplate.update(TOUCH, job.id(), workerId) == 0) {
+                log.warn("⚠️ Job {} ({}) lost by {} while running", job.id(), job.type(), workerId);
+            }
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Heartbeat failed for job {}: {}", job.id(), e.getMessage());
+        }
+    }
+
+    private <P> void execute(JobHandler<P> handler, String payload) throws Exception {
+        handler.handle(objectMapper.readValue(payload, handler.payloadType()));
+    }
+
+    private void fail(ClaimedJob job, String workerId, Exception e) {
+        String error = describe(e);
+
+        if (job.attempts() >= job.maxAttempts()) {
+            log.error("❌ Job {} ({}) dead after {} attempts: {}", job.id(), job.type(), job.attempts(), error);
+            jdbcTemplate.update(MARK_DEAD, error, job.id(), workerId);
+            count(job.type(), "dead");
+            return;
+        }
+
+        double delaySeconds = backoffSeconds(job.attempts());
+        log.warn("⚠️ Job {} ({}) failed (attempt {}/{}), retry in {}s: {}",
+                job.id(), job.type(), job.attempts(), job.maxAttempts(), (long) delaySeconds, error);
+        jdbcTemplate.update(MARK_RETRY, delaySeconds, error, job.id(), workerId);
+        count(job.type(), "retry");
+    }
+
+    /** base × 2^(attempt-1), plafonné, jitter 50–100 % (évite les retries synchronisés) */
+    private double backoffSeconds(int attempt) {
+        double exponential = backoffBase.toMillis() * Math.pow(2, Math.min(attempt - 1, 30));
+        double capped = Math.min(exponential, backoffMax.toMillis());
+        return capped * ThreadLocalRandom.current().nextDouble(0.5, 1.0) / 1000.0;
+    }
+
+    private void count(String type, String outcome) {
+        meterRegistry.counter("jobs.processed", "type", type, "outcome", outcome).increment();
+    }
+
+    private static String describe(Exception e) {
+        String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
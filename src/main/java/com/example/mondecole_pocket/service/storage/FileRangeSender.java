@@ -0,0 +1,175 @@
+package com.example.mondecole_pocket.service.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * ════════════════════════════════════════════════════════
+ * FILE RANGE SENDER (200 / 206 / 304 / 416)
+ * ════════════════════════════════════════════════════════
+ *
+ * Serves a stored object with HTTP Range support (video seeking):
+ * - One byte range → 206 + Content-Range; multiple ranges are answered with
+ *   the full body (allowed by RFC 9110, browsers only send one)
+ * - If-Range / If-None-Match against the storage key (immutable objects)
+ * - Body: Tomcat sendfile when the object is a local file (the container
+ *   writes it with zero copy after the servlet returns), otherwise
+ *   FileStorage.transferTo on the response stream
+ * - The MIME type comes from the uploader: only video, audio, raster images
+ *   and PDF are served inline, anything else (HTML, SVG, ...) as an
+ *   attachment; nosniff + CSP sandbox on every response, which may be served
+ *   ahead of Spring Security's headers
+ *
+ * Metrics: storage.download.bytes{mode=sendfile|stream}
+ */
+@Component
+public class FileRangeSender {
+
+    // Attributs Tomcat (NIO / NIO2) pour l'envoi par sendfile
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofHours(1)).cachePrivate();
+
+    // Types affichés par le navigateur sans exécuter de script dans notre origine
+    private static final List<MediaType> INLINE_TYPES = List.of(
+            MediaType.parseMediaType("video/*"),
+            MediaType.parseMediaType("audio/*"),
+            MediaType.IMAGE_PNG,
+            MediaType.IMAGE_JPEG,
+            MediaType.IMAGE_GIF,
+            MediaType.parseMediaType("image/webp"),
+            MediaType.APPLICATION_PDF);
+
+    private final FileStorage storage;
+    private final Counter sendfileBytes;
+    private final Counter streamBytes;
+
+    public FileRangeSender(FileStorage storage, MeterRegistry meterRegistry) {
+        this.storage = storage;
+        this.sendfileBytes = downloadBytes(meterRegistry, "sendfile");
+        this.streamBytes = downloadBytes(meterRegistry, "stream");
+    }
+
+    private static Counter downloadBytes(MeterRegistry registry, String mode) {
+        return Counter.builder("storage.download.bytes")
+                .description("Lesson file bytes served, by transfer mode")
+                .baseUnit("bytes")
+                .tag("mode", mode)
+                .register(registry);
+    }
+
+    /** Type déclaré à l'upload, octet-stream s'il est absent, invalide ou générique (text/*) */
+    private static MediaType contentType(String mimeType) {
+        if (mimeType == null) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+        try {
+            MediaType type = MediaType.parseMediaType(mimeType);
+            return type.isConcrete() ? type : MediaType.APPLICATION_OCTET_STREAM;
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+
+    /**
+     * @param attachment true → Content-Disposition: attachment (téléchargement), inline sinon
+     *                   (forcé à attachment hors INLINE_TYPES)
+     */
+    public void send(String storageKey, String fileName, String mimeType, boolean attachment,
+                     HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long length = storage.size(storageKey);
+        String etag = "\"" + storageKey.substring(storageKey.lastIndexOf('/') + 1) + "\"";
+
+        MediaType contentType = contentType(mimeType);
+        boolean inline = !attachment && INLINE_TYPES.stream().anyMatch(type -> type.includes(contentType));
+
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        // Le lecteur PDF intégré de Chrome ne s'ouvre pas dans un document sandboxé
+        if (!inline || !MediaType.APPLICATION_PDF.includes(contentType)) {
+            response.setHeader("Content-Security-Policy", "sandbox");
+        }
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL.getHeaderValue());
+
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rangeHeader != null && length > 0 && (ifRange == null || ifRange.equals(etag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.getFirst();
+                try {
+                    start = range.getRangeStart(length);
+                    end = range.getRangeEnd(length);
+                } catch (IllegalArgumentException e) {
+                    start = length;
+                }
+                // HttpRange ne valide pas le début par rapport à la taille : bytes=50- sur 20 octets
+                if (start >= length || start > end) {
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(contentType.toString());
+        response.setContentLengthLong(count);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                (inline ? ContentDisposition.inline() : ContentDisposition.attachment())
+                        .filename(fileName != null ? fileName : "file", StandardCharsets.UTF_8)
+                        .build()
+                        .toString());
+
+        if ("HEAD".equals(request.getMethod()) || count <= 0) {
+            return;
+        }
+
+        Path file = storage.localPath(storageKey);
+        if (file != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // ✅ Zero-copy : Tomcat envoie le fichier (sendfile) une fois la servlet terminée
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            sendfileBytes.increment(count);
+            return;
+        }
+
+        long sent = storage.transferTo(storageKey, start, count, Channels.newChannel(response.getOutputStream()));
+        streamBytes.increment(sent);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.mondecole_pocket.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * ════════════════════════════════════════════════════════
+ * FILE STORAGE (lesson files)
+ * ════════════════════════════════════════════════════════
+ *
+ * Opaque keys → immutable objects: an object is written once under a new key
+ * and never modified (replacing a file = new key + delete of the old one), so
+ * a key doubles as a strong ETag.
+ *
+ * Missing objects surface as java.nio.file.NoSuchFileException.
+ */
+public interface FileStorage {
+
+    /**
+     * Writes the stream under `key` (visible only once complete).
+     *
+     * @return bytes written
+     * @throws IOException if the stream holds more than maxBytes (nothing is kept)
+     */
+    long write(String key, InputStream content, long maxBytes) throws IOException;
+
+    /**
+     * Moves a complete local file (chunked upload) under `key`; the source is
+     * consumed. Default: streamed copy through write(), then delete.
+     *
+     * @return bytes stored
+     */
+    default long importFile(String key, Path source) throws IOException {
+        long size = Files.size(source);
+        long written;
+        try (InputStream in = Files.newInputStream(source)) {
+            written = write(key, in, size);
+        }
+        Files.delete(source);
+        return written;
+    }
+
+    long size(String key) throws IOException;
+
+    /**
+     * Copies [position, position + count) of the object to the target, using the
+     * backend's cheapest path (FileChannel.transferTo for local files).
+     */
+    long transferTo(String key, long position, long count, WritableByteChannel target) throws IOException;
+
+    /**
+     * @return the file backing the object when it lives on the local file system
+     *         (lets the servlet container use sendfile), null otherwise
+     */
+    Path localPath(String key);
+
+    /** Idempotent : une clé absente n'est pas une erreur */
+    void delete(String key) throws IOException;
+}
@@ -0,0 +1,125 @@
+package com.example.mondecole_pocket.service.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+/**
+ * FileStorage on a local (or mounted) directory: one file per key under `root`.
+ *
+ * Writes go to a temp file in the target directory, forced to disk, then
+ * atomically renamed: readers never see a partial object.
+ * Reads use FileChannel.transferTo (sendfile when the target is a socket).
+ * Chunked uploads staged on the same file system are imported by rename.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "local", matchIfMissing = true)
+public class LocalFileStorage implements FileStorage {
+
+    /** Taille max d'un transferFrom : la copie se fait par tranches, mémoire constante */
+    private static final long TRANSFER_CHUNK = 8L * 1024 * 1024;
+
+    private final Path root;
+
+    public LocalFileStorage(@Value("${app.storage.local.root:./data/storage}") Path root) throws IOException {
+        this.root = Files.createDirectories(root).toAbsolutePath().normalize();
+        log.info("📁 Stockage local des fichiers : {}", this.root);
+    }
+
+    @Override
+    public long write(String key, InputStream content, long maxBytes) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".part");
+
+        try {
+            long written = 0;
+            ReadableByteChannel source = Channels.newChannel(content);
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                long transferred;
+                // maxBytes + 1 : détecte un flux plus long que prévu sans le lire en entier
+                while ((transferred = out.transferFrom(source, written, Math.min(TRANSFER_CHUNK, maxBytes + 1 - written))) > 0) {
+                    written += transferred;
+                    if (written > maxBytes) {
+                        throw new IOException("Content exceeds " + maxBytes + " bytes");
+                    }
+                }
+                out.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            return written;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public long importFile(String key, Path source) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        long size = Files.size(source);
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        try {
+            // ✅ Même système de fichiers (staging sous root) : simple rename, aucune copie
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+            return size;
+        } catch (AtomicMoveNotSupportedException e) {
+            return FileStorage.super.importFile(key, source);
+        }
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        return Files.size(resolve(key));
+    }
+
+    @Override
+    public long transferTo(String key, long position, long count, WritableByteChannel target) throws IOException {
+        try (FileChannel in = FileChannel.open(resolve(key), StandardOpenOption.READ)) {
+            long sent = 0;
+            while (sent < count) {
+                long transferred = in.transferTo(position + sent, count - sent, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                sent += transferred;
+            }
+            return sent;
+        }
+    }
+
+    @Override
+    public Path localPath(String key) {
+        return resolve(key);
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new IllegalArgumentException("Invalid storage key: " + key);
+        }
+        return path;
+    }
+}
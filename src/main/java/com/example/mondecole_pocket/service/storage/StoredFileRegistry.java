@@ -0,0 +1,140 @@
+package com.example.mondecole_pocket.service.storage;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * ════════════════════════════════════════════════════════
+ * STORED FILES (content-addressed, reference counted)
+ * ════════════════════════════════════════════════════════
+ *
+ * One row per distinct content (SHA-256) per organization, pointing to one
+ * stored object; ref_count = lessons using it. Lessons cloned or re-using the
+ * same video share the object and the quota is charged once.
+ *
+ * All transitions are single statements (row lock, no read-modify-write):
+ * - acquire   → INSERT ... ON CONFLICT (organization_id, sha256) DO UPDATE +1
+ *               created = this caller's object became the content
+ * - release   → -1, then DELETE WHERE ref_count = 0: whoever deletes the row
+ *               owns giving the quota back and deleting the object
+ *
+ * Object keys are never reused (new key per upload), so an object deleted
+ * after its last release can not be the target of a concurrent upload.
+ *
+ * Dedup is per organization and only after the server has received and
+ * hashed the bytes: acquiring by a hash alone would let anyone who knows it
+ * attach content they never had.
+ *
+ * Runs in the caller's transaction (JdbcTemplate on the JPA connection).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StoredFileRegistry {
+
+    public record Reference(String storageKey, long sizeBytes, boolean created) {}
+
+    private static final RowMapper<Reference> REFERENCE = (rs, rowNum) -> new Reference(
+            rs.getString("storage_key"),
+            rs.getLong("size_bytes"),
+            rs.getBoolean("created"));
+
+    private static final String ACQUIRE = """
+            INSERT INTO stored_files (organization_id, sha256, storage_key, size_bytes, ref_count)
+            VALUES (?, ?, ?, ?, 1)
+            ON CONFLICT (organization_id, sha256) DO UPDATE SET ref_count = stored_files.ref_count + 1
+            RETURNING storage_key, size_bytes, (xmax = 0) AS created
+            """;
+
+    private static final String DECREMENT = """
+            UPDATE stored_files SET ref_count = ref_count - 1
+            WHERE storage_key = ? AND ref_count > 0
+            """;
+
+    private static final String DELETE_IF_UNREFERENCED = """
+            DELETE FROM stored_files WHERE storage_key = ? AND ref_count = 0
+            RETURNING size_bytes
+            """;
+
+    // Purge : lignes à 0 (décrémentées en masse), quota rendu dans la même instruction.
+    // ref_count revérifié par le DELETE : un acquire entre la sous-requête et la suppression
+    // ranime la ligne (READ COMMITTED relit la version à jour), elle doit rester
+    private static final String COLLECT_UNREFERENCED = """
+            WITH freed AS (
+                DELETE FROM stored_files
+                WHERE id IN (
+                    SELECT id FROM stored_files
+                    WHERE organization_id = ? AND ref_count = 0
+                    LIMIT ?
+                )
+                AND ref_count = 0
+                RETURNING storage_key, size_bytes
+            ), quota AS (
+                UPDATE organizations
+                SET storage_used_bytes = GREATEST(storage_used_bytes - (SELECT COALESCE(SUM(size_bytes), 0) FROM freed), 0)
+                WHERE id = ?
+            )
+            SELECT storage_key FROM freed
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FileStorage storage;
+
+    /**
+     * The object at `newKey` (already written) holds content `sha256`.
+     *
+     * @return the content's reference: created=false when the organization
+     *         already had it (newKey is then redundant and can be deleted)
+     */
+    public Reference acquire(Long organizationId, String sha256, String newKey, long sizeBytes) {
+        return jdbcTemplate.queryForObject(ACQUIRE, REFERENCE, organizationId, sha256, newKey, sizeBytes);
+    }
+
+    /**
+     * -1 reference.
+     *
+     * @return the size to give back to the quota when this was the last
+     *         reference (the caller then deletes the object after commit)
+     */
+    public OptionalLong release(String storageKey) {
+        if (jdbcTemplate.update(DECREMENT, storageKey) == 0) {
+            log.warn("⚠️ Release of untracked stored object {}", storageKey);
+            return OptionalLong.empty();
+        }
+        List<Long> freed = jdbcTemplate.queryForList(DELETE_IF_UNREFERENCED, Long.class, storageKey);
+        return freed.isEmpty() ? OptionalLong.empty() : OptionalLong.of(freed.getFirst());
+    }
+
+    /**
+     * Contents left without references by bulk deletes (purge): rows removed and
+     * quota given back in one statement per batch, then objects deleted.
+     * Outside any transaction (autocommit per batch).
+     *
+     * @return objects deleted
+     */
+    public int collectUnreferenced(Long organizationId, int batchSize) {
+        int deleted = 0;
+        while (true) {
+            List<String> keys = jdbcTemplate.queryForList(COLLECT_UNREFERENCED, String.class,
+                    organizationId, batchSize, organizationId);
+            for (String key : keys) {
+                try {
+                    storage.delete(key);
+                    deleted++;
+                } catch (IOException | RuntimeException e) {
+                    log.warn("⚠️ Could not delete stored object {}: {}", key, e.getMessage());
+                }
+            }
+            if (keys.size() < batchSize) {
+                return deleted;
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+-- ════════════════════════════════════════════════════════════════
+-- Synchronisation incrémentale du filtre de Bloom des usernames
+-- (WHERE created_at > :since sur toutes les organisations)
+-- ════════════════════════════════════════════════════════════════
+
+CREATE INDEX IF NOT EXISTS idx_users_created_at
+  ON users(created_at);
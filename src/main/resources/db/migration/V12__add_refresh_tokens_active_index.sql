@@ -0,0 +1,8 @@
+-- ════════════════════════════════════════════════════════════════
+-- Sessions actives d'un user, de la plus récente à la plus ancienne
+-- (limite max-active-sessions appliquée en une requête à l'émission)
+-- ════════════════════════════════════════════════════════════════
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_user_active
+  ON refresh_tokens(user_id, created_at DESC, id DESC)
+  WHERE revoked = FALSE;
@@ -0,0 +1,19 @@
+-- ════════════════════════════════════════════════════════════════
+-- Verrous des jobs planifiés (une exécution par job et par période
+-- sur tout le cluster) + dernier run, exposé via /actuator/scheduledjobs
+-- ════════════════════════════════════════════════════════════════
+
+CREATE TABLE IF NOT EXISTS scheduled_locks (
+    name VARCHAR(64) PRIMARY KEY,
+
+    -- Bail courant (prolongé par heartbeat tant que le job tourne)
+    locked_until TIMESTAMP NOT NULL,
+    locked_at TIMESTAMP NOT NULL,
+    locked_by VARCHAR(255) NOT NULL,
+
+    -- Dernier run terminé
+    last_started_at TIMESTAMP,
+    last_finished_at TIMESTAMP,
+    last_duration_ms BIGINT,
+    last_outcome VARCHAR(32)
+);
@@ -0,0 +1,40 @@
+-- ════════════════════════════════════════════════════════════════
+-- File de jobs durable (workers : FOR UPDATE SKIP LOCKED)
+-- PENDING → RUNNING → DONE | PENDING (retry + backoff) | DEAD
+-- ════════════════════════════════════════════════════════════════
+
+CREATE TABLE IF NOT EXISTS jobs (
+    id BIGSERIAL PRIMARY KEY,
+
+    type VARCHAR(64) NOT NULL,
+    payload JSONB NOT NULL,
+    priority INT NOT NULL DEFAULT 0,
+
+    status VARCHAR(16) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    max_attempts INT NOT NULL DEFAULT 5,
+    last_error TEXT,
+
+    -- Timestamps
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    run_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    locked_at TIMESTAMP,
+    locked_by VARCHAR(255),
+    finished_at TIMESTAMP,
+
+    CONSTRAINT chk_jobs_status CHECK (status IN ('PENDING', 'RUNNING', 'DONE', 'DEAD'))
+);
+
+-- Claim : jobs prêts, par priorité puis ancienneté
+CREATE INDEX IF NOT EXISTS idx_jobs_ready
+  ON jobs(priority DESC, run_at, id)
+  WHERE status = 'PENDING';
+
+-- Reaper (RUNNING bloqués) et nettoyage des DONE
+CREATE INDEX IF NOT EXISTS idx_jobs_running
+  ON jobs(locked_at)
+  WHERE status = 'RUNNING';
+
+CREATE INDEX IF NOT EXISTS idx_jobs_finished
+  ON jobs(finished_at)
+  WHERE status = 'DONE';
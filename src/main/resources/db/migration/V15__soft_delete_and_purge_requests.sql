@@ -0,0 +1,38 @@
+-- ════════════════════════════════════════════════════════════════
+-- Soft delete (masqué immédiatement) + purge asynchrone par batches
+-- ════════════════════════════════════════════════════════════════
+
+ALTER TABLE courses ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP;
+ALTER TABLE course_sections ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP;
+
+CREATE TABLE IF NOT EXISTS purge_requests (
+    id BIGSERIAL PRIMARY KEY,
+
+    -- Multi-tenant
+    organization_id BIGINT NOT NULL,
+
+    -- Cible : COURSE, SECTION, USER
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    requested_by BIGINT,
+
+    -- Avancement : PENDING → RUNNING → DONE (FAILED entre deux tentatives,
+    -- CANCELLED si l'entité n'est plus soft-deleted)
+    status VARCHAR(16) NOT NULL DEFAULT 'PENDING',
+    current_step VARCHAR(64),
+    rows_deleted BIGINT NOT NULL DEFAULT 0,
+    last_error TEXT,
+
+    -- Timestamps
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    finished_at TIMESTAMP,
+
+    CONSTRAINT fk_purge_organization FOREIGN KEY (organization_id)
+        REFERENCES organizations (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_purge_requests_org_created
+  ON purge_requests(organization_id, created_at DESC);
@@ -0,0 +1,10 @@
+-- ════════════════════════════════════════════════════════════════
+-- Fichiers de leçons (stockage pluggable) + quota de stockage par tenant
+-- ════════════════════════════════════════════════════════════════
+
+-- Clé de l'objet dans le stockage (NULL : pas de fichier hébergé par l'app)
+ALTER TABLE lessons ADD COLUMN IF NOT EXISTS storage_key VARCHAR(255);
+
+-- Octets utilisés, tenus à jour à chaque upload / remplacement / suppression
+-- (comparés à max_storage_mb, jamais recalculés par un scan)
+ALTER TABLE organizations ADD COLUMN IF NOT EXISTS storage_used_bytes BIGINT NOT NULL DEFAULT 0;
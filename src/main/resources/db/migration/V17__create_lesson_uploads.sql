@@ -0,0 +1,34 @@
+-- ════════════════════════════════════════════════════════════════
+-- Uploads de fichiers de leçons en plusieurs morceaux (reprise possible)
+-- Session créée → chunks (offset = received_bytes) → finalisation | expiration
+-- ════════════════════════════════════════════════════════════════
+
+CREATE TABLE IF NOT EXISTS lesson_uploads (
+    id UUID PRIMARY KEY,
+
+    organization_id BIGINT NOT NULL REFERENCES organizations(id) ON DELETE CASCADE,
+    lesson_id BIGINT NOT NULL REFERENCES lessons(id) ON DELETE CASCADE,
+    section_id BIGINT NOT NULL,
+    teacher_id BIGINT NOT NULL,
+
+    file_name VARCHAR(255) NOT NULL,
+    mime_type VARCHAR(100),
+
+    -- total_bytes est réservé dans le quota dès la création de la session
+    total_bytes BIGINT NOT NULL,
+    received_bytes BIGINT NOT NULL DEFAULT 0,
+
+    -- SHA-256 annoncé par le client (hex), vérifié à la finalisation
+    expected_sha256 CHAR(64),
+
+    -- Timestamps
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+
+    CONSTRAINT chk_lesson_uploads_bytes CHECK (received_bytes >= 0 AND received_bytes <= total_bytes)
+);
+
+-- Job de nettoyage : sessions abandonnées
+CREATE INDEX IF NOT EXISTS idx_lesson_uploads_expires
+  ON lesson_uploads(expires_at);
@@ -0,0 +1,39 @@
+-- ════════════════════════════════════════════════════════════════
+-- Fichiers de leçons adressés par contenu (SHA-256) + compteur de références
+-- Un contenu = un objet stocké par organisation, partagé par toutes les leçons
+-- qui l'utilisent ; quota compté une fois, rendu au dernier déréférencement
+-- ════════════════════════════════════════════════════════════════
+
+CREATE TABLE IF NOT EXISTS stored_files (
+    id BIGSERIAL PRIMARY KEY,
+
+    organization_id BIGINT NOT NULL REFERENCES organizations(id) ON DELETE CASCADE,
+
+    -- NULL : fichier antérieur à la déduplication (hash inconnu, jamais partagé)
+    sha256 CHAR(64),
+    storage_key VARCHAR(255) NOT NULL,
+    size_bytes BIGINT NOT NULL,
+
+    -- Nombre de leçons pointant sur storage_key ; 0 = en cours de libération
+    ref_count INT NOT NULL DEFAULT 1,
+
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT uq_stored_files_key UNIQUE (storage_key),
+    -- Cible de INSERT ... ON CONFLICT (déduplication par organisation)
+    CONSTRAINT uq_stored_files_org_sha256 UNIQUE (organization_id, sha256),
+    CONSTRAINT chk_stored_files_ref_count CHECK (ref_count >= 0)
+);
+
+-- Libération en masse (purge) : contenus qui ne sont plus référencés
+CREATE INDEX IF NOT EXISTS idx_stored_files_unreferenced
+  ON stored_files(organization_id)
+  WHERE ref_count = 0;
+
+-- Fichiers existants : une ligne par clé, déjà comptés dans storage_used_bytes
+INSERT INTO stored_files (organization_id, sha256, storage_key, size_bytes, ref_count)
+SELECT organization_id, NULL, storage_key, COALESCE(MAX(file_size_bytes), 0), COUNT(*)
+FROM lessons
+WHERE storage_key IS NOT NULL
+GROUP BY organization_id, storage_key
+ON CONFLICT (storage_key) DO NOTHING;
@@ -0,0 +1,71 @@
+-- ════════════════════════════════════════════════════════════════
+-- OPTIONNEL : partitionnement mensuel de refresh_tokens sur expires_at
+--
+-- Hors db/migration : Flyway ne l'exécute pas. À lancer manuellement
+-- (fenêtre de maintenance, copie complète de la table), puis :
+--   app.security.refresh.purge.strategy=partitions
+-- RefreshTokenPurgeJob supprime alors les partitions expirées (DROP)
+-- et crée les partitions des mois à venir.
+--
+-- ⚠️ token_hash n'est plus unique globalement mais par (token_hash, expires_at)
+--    (tokens aléatoires 2×UUID : collision négligeable)
+-- ════════════════════════════════════════════════════════════════
+
+BEGIN;
+
+ALTER TABLE refresh_tokens RENAME TO refresh_tokens_legacy;
+ALTER SEQUENCE refresh_tokens_id_seq OWNED BY NONE;
+
+CREATE TABLE refresh_tokens (
+    id BIGINT NOT NULL DEFAULT nextval('refresh_tokens_id_seq'),
+    organization_id BIGINT NOT NULL,
+    token_hash VARCHAR(64) NOT NULL,
+    user_id BIGINT NOT NULL,
+    token_type VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_used_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+    revoked BOOLEAN NOT NULL DEFAULT FALSE,
+    ip_address VARCHAR(45),
+    user_agent VARCHAR(500),
+    device_name VARCHAR(100),
+
+    PRIMARY KEY (id, expires_at),
+    CONSTRAINT uk_refresh_token_hash UNIQUE (token_hash, expires_at),
+    CONSTRAINT fk_refresh_user_p FOREIGN KEY (user_id)
+        REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT fk_refresh_organization_p FOREIGN KEY (organization_id)
+        REFERENCES organizations (id) ON DELETE CASCADE
+) PARTITION BY RANGE (expires_at);
+
+ALTER SEQUENCE refresh_tokens_id_seq OWNED BY refresh_tokens.id;
+
+CREATE INDEX idx_refresh_p_token_hash ON refresh_tokens(token_hash);
+CREATE INDEX idx_refresh_p_user_id ON refresh_tokens(user_id);
+CREATE INDEX idx_refresh_p_user_active
+  ON refresh_tokens(user_id, created_at DESC, id DESC)
+  WHERE revoked = FALSE;
+
+-- Filet de sécurité : lignes hors des partitions mensuelles
+CREATE TABLE refresh_tokens_default PARTITION OF refresh_tokens DEFAULT;
+
+-- Une partition par mois, du plus ancien token jusqu'à +3 mois
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', COALESCE(
+        (SELECT MIN(expires_at) FROM refresh_tokens_legacy), now()))::date;
+    last_month DATE := (date_trunc('month', now()) + INTERVAL '3 months')::date;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        EXECUTE format(
+            'CREATE TABLE refresh_tokens_p%s PARTITION OF refresh_tokens FOR VALUES FROM (%L) TO (%L)',
+            to_char(month_start, 'YYYYMM'), month_start, (month_start + INTERVAL '1 month')::date);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+INSERT INTO refresh_tokens SELECT * FROM refresh_tokens_legacy;
+
+DROP TABLE refresh_tokens_legacy;
+
+COMMIT;
@@ -0,0 +1,246 @@
+package com.example.mondecole_pocket.config;
+
+import com.example.mondecole_pocket.entity.enums.UserRole;
+import com.example.mondecole_pocket.security.RequestContext;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.transaction.TransactionExecution;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires du routage read-only : fenêtre read-your-writes, garde de lag, choix du pool.
+ */
+class ReadReplicaRoutingTest {
+
+    private static final Duration MAX_LAG = Duration.ofSeconds(10);
+    private static final Duration CHECK_INTERVAL = Duration.ofHours(1);
+    private static final RequestContext STUDENT = new RequestContext(7L, 42L, UserRole.STUDENT);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReplicaLagGuard lagGuard = new ReplicaLagGuard(Duration.ofMinutes(1), 100);
+    private ReadReplicaRoutingDataSource dataSource;
+
+    // Lus par les mocks : le thread de vérification du lag tourne en parallèle, on ne re-stubbe jamais
+    private volatile double replicaLagSeconds;
+    private volatile boolean replicaDown;
+    private volatile boolean replicaNotStreaming;
+
+    @AfterEach
+    void tearDown() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    // Fenêtre read-your-writes
+    // ════════════════════════════════════════════════════════
+
+    @Test
+    @DisplayName("readYourWritesWindow — non configurée : max-lag + intervalle de vérification")
+    void readYourWritesWindow_shouldDefaultToMaxLagPlusCheckInterval() {
+        assertThat(ReadReplicaConfig.readYourWritesWindow(null, Duration.ofSeconds(10), Duration.ofSeconds(5)))
+                .isEqualTo(Duration.ofSeconds(15));
+        assertThat(ReadReplicaConfig.readYourWritesWindow(Duration.ofSeconds(30), Duration.ofSeconds(10), Duration.ofSeconds(5)))
+                .isEqualTo(Duration.ofSeconds(30));
+    }
+
+    @Test
+    @DisplayName("readYourWritesWindow — plus courte que le lag toléré : refus au démarrage")
+    void readYourWritesWindow_shouldRejectWindowShorterThanTolerableLag() {
+        assertThatThrownBy(() -> ReadReplicaConfig.readYourWritesWindow(
+                Duration.ofSeconds(5), Duration.ofSeconds(10), Duration.ofSeconds(5)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("read-your-writes-window");
+    }
+
+    // ════════════════════════════════════════════════════════
+    // ReplicaLagGuard
+    // ════════════════════════════════════════════════════════
+
+    @Test
+    @DisplayName("lag guard — seul un commit read-write réussi épingle l'utilisateur courant")
+    void lagGuard_shouldPinOnlyUsersWithCommittedWrites() {
+        RequestContext.runWith(STUDENT, () -> {
+            lagGuard.afterCommit(transaction(true, true), null);
+            lagGuard.afterCommit(transaction(false, false), null);
+            lagGuard.afterCommit(transaction(false, true), new RuntimeException("rollback"));
+            assertThat(lagGuard.mustReadFromPrimary()).isFalse();
+
+            lagGuard.afterCommit(transaction(false, true), null);
+            assertThat(lagGuard.mustReadFromPrimary()).isTrue();
+        });
+
+        RequestContext.runWith(STUDENT.withUser(43L, UserRole.STUDENT),
+                () -> assertThat(lagGuard.mustReadFromPrimary()).isFalse());
+        // Jobs et trafic anonyme : jamais épinglés
+        RequestContext.runWith(RequestContext.EMPTY, () -> {
+            lagGuard.afterCommit(transaction(false, true), null);
+            assertThat(lagGuard.mustReadFromPrimary()).isFalse();
+        });
+    }
+
+    // ════════════════════════════════════════════════════════
+    // Choix du pool
+    // ════════════════════════════════════════════════════════
+
+    @Test
+    @DisplayName("routage — read-only vers le replica, écriture récente ou replica en retard vers le primary")
+    void routing_shouldPickReplicaUnlessPinnedOrLagging() throws Exception {
+        Connection primaryConnection = connection();
+        Connection replicaConnection = connection();
+        HikariDataSource primary = pool("primary", primaryConnection);
+        HikariDataSource replica = replicaPool(replicaConnection);
+        dataSource = new ReadReplicaRoutingDataSource(primary, List.of(replica), lagGuard,
+                MAX_LAG, CHECK_INTERVAL, permits(), meterRegistry);
+        dataSource.checkLag(MAX_LAG);
+
+        assertThat(readOnlyTarget()).isSameAs(replicaConnection);
+        assertThat(readWriteTarget()).isSameAs(primaryConnection);
+
+        RequestContext.runWith(STUDENT, () -> {
+            lagGuard.afterCommit(transaction(false, true), null);
+            assertThat(uncheckedReadOnlyTarget()).isSameAs(primaryConnection);
+        });
+
+        replicaLagSeconds = 30;
+        dataSource.checkLag(MAX_LAG);
+        assertThat(readOnlyTarget()).isSameAs(primaryConnection);
+
+        replicaLagSeconds = 2;
+        dataSource.checkLag(MAX_LAG);
+        assertThat(readOnlyTarget()).isSameAs(replicaConnection);
+
+        assertThat(meterRegistry.get("db.readonly.route").tag("reason", "read_only").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("db.readonly.route").tag("reason", "recent_write").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("db.readonly.route").tag("reason", "no_replica").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("routage — replica injoignable : écarté, lecture sur le primary")
+    void routing_shouldFallBackToPrimaryWhenReplicaFails() throws Exception {
+        Connection primaryConnection = connection();
+        HikariDataSource primary = pool("primary", primaryConnection);
+        HikariDataSource replica = replicaPool(connection());
+        dataSource = new ReadReplicaRoutingDataSource(primary, List.of(replica), lagGuard,
+                MAX_LAG, CHECK_INTERVAL, permits(), meterRegistry);
+        dataSource.checkLag(MAX_LAG);
+
+        replicaDown = true;
+
+        assertThat(readOnlyTarget()).isSameAs(primaryConnection);
+        // Écarté après l'échec : primary jusqu'à la prochaine vérification de lag
+        assertThat(readOnlyTarget()).isSameAs(primaryConnection);
+        assertThat(meterRegistry.get("db.readonly.route").tag("reason", "no_replica").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("db.readonly.route").tag("reason", "read_only").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("routage — WAL receiver déconnecté : écarté même sans lag mesuré, réintégré quand il streame")
+    void routing_shouldSkipReplicaWhoseReceiverIsNotStreaming() throws Exception {
+        Connection primaryConnection = connection();
+        Connection replicaConnection = connection();
+        HikariDataSource primary = pool("primary", primaryConnection);
+        HikariDataSource replica = replicaPool(replicaConnection);
+        dataSource = new ReadReplicaRoutingDataSource(primary, List.of(replica), lagGuard,
+                MAX_LAG, CHECK_INTERVAL, permits(), meterRegistry);
+
+        replicaNotStreaming = true;
+        dataSource.checkLag(MAX_LAG);
+        assertThat(readOnlyTarget()).isSameAs(primaryConnection);
+
+        replicaNotStreaming = false;
+        dataSource.checkLag(MAX_LAG);
+        assertThat(readOnlyTarget()).isSameAs(replicaConnection);
+    }
+
+    // ════════════════════════════════════════════════════════
+    // Helpers
+    // ════════════════════════════════════════════════════════
+
+    /** La connexion physique n'est obtenue qu'au premier statement, une fois le flag read-only posé */
+    private Connection readOnlyTarget() throws SQLException {
+        try (Connection con = dataSource.getConnection()) {
+            con.setReadOnly(true);
+            con.createStatement();
+            return ((ConnectionProxy) con).getTargetConnection();
+        }
+    }
+
+    private Connection uncheckedReadOnlyTarget() {
+        try {
+            return readOnlyTarget();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Connection readWriteTarget() throws SQLException {
+        try (Connection con = dataSource.getConnection()) {
+            con.createStatement();
+            return ((ConnectionProxy) con).getTargetConnection();
+        }
+    }
+
+    private static HikariDataSource pool(String name, Connection connection) throws SQLException {
+        HikariDataSource pool = mock(HikariDataSource.class);
+        when(pool.getPoolName()).thenReturn(name);
+        when(pool.getConnection()).thenReturn(connection);
+        return pool;
+    }
+
+    private HikariDataSource replicaPool(Connection connection) throws SQLException {
+        HikariDataSource pool = mock(HikariDataSource.class);
+        when(pool.getPoolName()).thenReturn("replica-1");
+        when(pool.getConnection()).thenAnswer(invocation -> {
+            if (replicaDown) {
+                throw new SQLException("connection refused");
+            }
+            return connection;
+        });
+        return pool;
+    }
+
+    /** Connexion dont la requête de lag renvoie replicaLagSeconds */
+    private Connection connection() throws SQLException {
+        ResultSet lag = mock(ResultSet.class);
+        when(lag.next()).thenReturn(true);
+        when(lag.getDouble(1)).thenAnswer(invocation -> replicaNotStreaming ? 0 : replicaLagSeconds);
+        when(lag.wasNull()).thenAnswer(invocation -> replicaNotStreaming);
+        Statement statement = mock(Statement.class);
+        when(statement.executeQuery(anyString())).thenReturn(lag);
+
+        Connection connection = mock(Connection.class);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.getTransactionIsolation()).thenReturn(Connection.TRANSACTION_READ_COMMITTED);
+        when(connection.createStatement()).thenReturn(statement);
+        return connection;
+    }
+
+    private static TransactionExecution transaction(boolean readOnly, boolean newTransaction) {
+        TransactionExecution transaction = mock(TransactionExecution.class);
+        when(transaction.isReadOnly()).thenReturn(readOnly);
+        when(transaction.isNewTransaction()).thenReturn(newTransaction);
+        return transaction;
+    }
+
+    @SuppressWarnings("unchecked")
+    private JdbcConnectionPermits permits() {
+        return new JdbcConnectionPermits(false, Duration.ofSeconds(1), mock(ObjectProvider.class));
+    }
+}
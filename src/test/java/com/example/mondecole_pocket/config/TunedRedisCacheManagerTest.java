@@ -0,0 +1,115 @@
+package com.example.mondecole_pocket.config;
+
+import com.example.mondecole_pocket.dto.CourseOutline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires des écritures différées au commit : budget d'octets et panne Redis.
+ */
+class TunedRedisCacheManagerTest {
+
+    private static final String KEY = "42:7";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RedisCacheWriter cacheWriter = mock(RedisCacheWriter.class);
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, CacheSpec> specs = Map.of(
+                "courseoutline", new CacheSpec(Duration.ofMinutes(5), DataSize.ofBytes(512), 100, false),
+                CacheSpec.DEFAULT, new CacheSpec(Duration.ofMinutes(5), DataSize.ofKilobytes(512), 0, true));
+
+        TunedRedisCacheManager cacheManager =
+                new TunedRedisCacheManager(cacheWriter, specs, new ToStringSerializer(), meterRegistry);
+        cacheManager.setTransactionAware(true);
+        cacheManager.afterPropertiesSet();
+        cache = cacheManager.getCache("courseOutline");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Outline trop volumineux lu en transaction : refusé au commit sans erreur, ni Redis ni L1")
+    void oversizedOutlineIsDroppedAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.put(KEY, outline("x".repeat(2_000)));
+
+        assertThatCode(() -> TransactionSynchronizationUtils.triggerAfterCommit()).doesNotThrowAnyException();
+        verify(cacheWriter, never()).put(anyString(), any(), any(), any());
+        assertThat(cache.get(KEY)).isNull();
+        assertThat(meterRegistry.counter("cache.entries.rejected", "cache", "courseOutline", "reason", "oversize").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Redis indisponible au commit : l'écriture est abandonnée et comptée")
+    void redisFailureIsDroppedAfterCommit() {
+        doThrow(new RedisConnectionFailureException("down"))
+                .when(cacheWriter).put(anyString(), any(), any(), any());
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.put(KEY, outline("court"));
+
+        assertThatCode(() -> TransactionSynchronizationUtils.triggerAfterCommit()).doesNotThrowAnyException();
+        assertThat(cache.get(KEY)).isNull();
+        assertThat(meterRegistry.counter("cache.entries.rejected", "cache", "courseOutline", "reason", "error").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Outline dans le budget : écrit dans Redis au commit seulement")
+    void outlineWithinBudgetIsWrittenOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.put(KEY, outline("court"));
+        verify(cacheWriter, never()).put(anyString(), any(), any(), any());
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        verify(cacheWriter).put(eq("courseOutline"), any(), any(), any());
+    }
+
+    private static CourseOutline outline(String description) {
+        return new CourseOutline(7L, 42L, "Algèbre", "algebre", null, description, null, null,
+                null, null, "fr", null, null, null, List.of(), 0, null);
+    }
+
+    /** Sérialisation minimale : seule la taille compte pour le budget */
+    private static class ToStringSerializer implements RedisSerializer<Object> {
+        @Override
+        public byte[] serialize(Object value) {
+            return value == null ? null : value.toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public Object deserialize(byte[] bytes) {
+            return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
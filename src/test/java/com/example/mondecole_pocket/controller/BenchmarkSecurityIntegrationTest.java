@@ -0,0 +1,28 @@
+package com.example.mondecole_pocket.controller;
+
+import com.example.mondecole_pocket.config.AbstractIntegrationTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Les endpoints de benchmark (CPU / mémoire) sont réservés aux administrateurs.
+ */
+class BenchmarkSecurityIntegrationTest extends AbstractIntegrationTest {
+
+    @Test
+    @DisplayName("GET /api/benchmark/password/bcrypt sans token → 401")
+    void bcryptBenchmark_shouldRejectAnonymous() throws Exception {
+        mockMvc.perform(get("/api/benchmark/password/bcrypt").param("costs", "14"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("GET /api/benchmark/course-detail/serialization sans token → 401")
+    void courseDetailBenchmark_shouldRejectAnonymous() throws Exception {
+        mockMvc.perform(get("/api/benchmark/course-detail/serialization"))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.mondecole_pocket.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests unitaires du filtre de Bloom des usernames.
+ */
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("mightContain — tout élément inséré est retrouvé (aucun faux négatif)")
+    void mightContain_shouldNeverMissInsertedValues() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("student." + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("student." + i)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("mightContain — taux de faux positifs proche du taux configuré")
+    void mightContain_shouldKeepFalsePositivesNearConfiguredRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("student." + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("unknown." + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+    }
+
+    @Test
+    @DisplayName("constructeur — dimensionnement invalide → IllegalArgumentException")
+    void constructor_shouldRejectInvalidSizing() {
+        assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(100, 1.5)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.mondecole_pocket.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests unitaires du scan streaming du body de login.
+ */
+class LoginBodyReaderTest {
+
+    private static String read(String json) {
+        return LoginBodyReader.readUsername(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("readUsername — body standard → retourne le username")
+    void readUsername_shouldReturnUsername() {
+        assertThat(read("{\"username\":\"eleve.martin\",\"password\":\"x\"}")).isEqualTo("eleve.martin");
+    }
+
+    @Test
+    @DisplayName("readUsername — username après des objets imbriqués → ignore les champs imbriqués")
+    void readUsername_shouldIgnoreNestedFields() {
+        String json = "{\"device\":{\"username\":\"fake\",\"tags\":[1,{\"a\":2}]},\"password\":\"p\",\"username\":\"real\"}";
+
+        assertThat(read(json)).isEqualTo("real");
+    }
+
+    @Test
+    @DisplayName("readUsername — caractères échappés et unicode → décodés")
+    void readUsername_shouldDecodeEscapes() {
+        assertThat(read("{\"username\":\"jos\\u00e9 \\\"le\\\" prof\"}")).isEqualTo("josé \"le\" prof");
+    }
+
+    @Test
+    @DisplayName("readUsername — absent, non-string, JSON invalide ou vide → null")
+    void readUsername_shouldReturnNull_whenMissingOrInvalid() {
+        assertThat(read("{\"password\":\"x\"}")).isNull();
+        assertThat(read("{\"username\":42}")).isNull();
+        assertThat(read("[\"username\"]")).isNull();
+        assertThat(read("{\"username\":")).isNull();
+        assertThat(LoginBodyReader.readUsername(new byte[0])).isNull();
+    }
+}
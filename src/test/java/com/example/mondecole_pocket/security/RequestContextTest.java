@@ -0,0 +1,54 @@
+package com.example.mondecole_pocket.security;
+
+import com.example.mondecole_pocket.entity.enums.UserRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests unitaires du RequestContext (binding borné + propagation).
+ */
+class RequestContextTest {
+
+    private static final RequestContext STUDENT = new RequestContext(7L, 42L, UserRole.STUDENT);
+
+    @AfterEach
+    void tearDown() {
+        RequestContext.clear();
+    }
+
+    @Test
+    @DisplayName("runWith — le contexte précédent est restauré après l'appel, même imbriqué")
+    void runWith_shouldRestorePreviousContext() {
+        TenantContext.setTenantId(1L);
+
+        RequestContext.runWith(STUDENT, () -> {
+            assertThat(TenantContext.getTenantId()).isEqualTo(7L);
+            RequestContext.runWith(RequestContext.EMPTY, () -> assertThat(RequestContext.current().userId()).isNull());
+            assertThat(RequestContext.current()).isEqualTo(STUDENT);
+        });
+
+        assertThat(TenantContext.getTenantId()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("wrap — le contexte capturé à la soumission est visible dans le thread worker puis nettoyé")
+    void wrap_shouldPropagateToExecutorThread() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CompletableFuture<RequestContext> seen = RequestContext.callWith(STUDENT, () ->
+                    CompletableFuture.supplyAsync(RequestContext.wrapSupplier(RequestContext::current), executor));
+
+            assertThat(seen.get()).isEqualTo(STUDENT);
+            assertThat(executor.submit(RequestContext::current).get()).isSameAs(RequestContext.EMPTY);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.mondecole_pocket.security;
+
+import com.example.mondecole_pocket.service.storage.FileRangeSender;
+import com.example.mondecole_pocket.service.storage.LocalFileStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires du filtre des URLs média signées (servlet mock, FileRangeSender mocké).
+ */
+@ExtendWith(MockitoExtension.class)
+class SignedMediaFilterTest {
+
+    private final SignedMediaUrls urls = new SignedMediaUrls("test-secret-with-enough-entropy-0123456789", Duration.ofMinutes(30));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private FileRangeSender fileRangeSender;
+
+    @Mock
+    private FilterChain chain;
+
+    private SignedMediaFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new SignedMediaFilter(urls, fileRangeSender, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("URL valide — fichier servi sans passer par le reste de la chaîne")
+    void doFilter_shouldServeValidUrl() throws Exception {
+        MockHttpServletResponse response = filter("GET", 12L, token(12L, validUntil()));
+
+        verify(fileRangeSender).send(eq("org-3/blobs/abc"), eq("cours.mp4"), eq("video/mp4"), eq(false), any(), any());
+        verifyNoInteractions(chain);
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).startsWith("private, max-age=");
+        assertThat(outcome("served")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("HTML déposé par un enseignant : servi en attachment, nosniff et CSP sandbox (hors chaîne Security)")
+    void doFilter_shouldNeverRenderUploadedHtmlInline(@TempDir Path root) throws Exception {
+        LocalFileStorage storage = new LocalFileStorage(root);
+        storage.write("org-3/blobs/abc", new ByteArrayInputStream("<script>alert(1)</script>".getBytes(StandardCharsets.UTF_8)), 25);
+        filter = new SignedMediaFilter(urls, new FileRangeSender(storage, meterRegistry), meterRegistry);
+
+        MockHttpServletResponse response = filter("GET", 12L, token(12L, validUntil(), "text/html"));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_DISPOSITION)).startsWith("attachment");
+        assertThat(response.getHeader("X-Content-Type-Options")).isEqualTo("nosniff");
+        assertThat(response.getHeader("Content-Security-Policy")).isEqualTo("sandbox");
+        verifyNoInteractions(chain);
+    }
+
+    @Test
+    @DisplayName("token d'une autre leçon que celle du chemin : 403")
+    void doFilter_shouldRejectLessonMismatch() throws Exception {
+        MockHttpServletResponse response = filter("GET", 13L, token(12L, validUntil()));
+
+        assertThat(response.getStatus()).isEqualTo(403);
+        verifyNoInteractions(fileRangeSender, chain);
+        assertThat(outcome("invalid")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("URL expirée : 403")
+    void doFilter_shouldRejectExpiredUrl() throws Exception {
+        MockHttpServletResponse response = filter("GET", 12L, token(12L, Instant.now().minusSeconds(1).getEpochSecond()));
+
+        assertThat(response.getStatus()).isEqualTo(403);
+        verifyNoInteractions(fileRangeSender, chain);
+        assertThat(outcome("expired")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("méthode autre que GET/HEAD : 405 avec Allow, token non vérifié")
+    void doFilter_shouldRejectNonGetMethods() throws Exception {
+        for (String method : new String[]{"POST", "PUT", "DELETE"}) {
+            MockHttpServletResponse response = filter(method, 12L, token(12L, validUntil()));
+
+            assertThat(response.getStatus()).isEqualTo(405);
+            assertThat(response.getHeader(HttpHeaders.ALLOW)).isEqualTo("GET, HEAD");
+        }
+        verifyNoInteractions(fileRangeSender, chain);
+    }
+
+    @Test
+    @DisplayName("objet supprimé depuis l'émission de l'URL : 404 non cachable")
+    void doFilter_shouldAnswerNotFoundWhenObjectIsGone() throws Exception {
+        doThrow(new NoSuchFileException("org-3/blobs/abc"))
+                .when(fileRangeSender).send(anyString(), anyString(), anyString(), anyBoolean(), any(), any());
+
+        MockHttpServletResponse response = filter("GET", 12L, token(12L, validUntil()));
+
+        assertThat(response.getStatus()).isEqualTo(404);
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-store");
+        assertThat(outcome("gone")).isEqualTo(1);
+    }
+
+    private MockHttpServletResponse filter(String method, Long pathLessonId, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, SignedMediaUrls.PATH_PREFIX + pathLessonId + "/file");
+        request.setServletPath(SignedMediaUrls.PATH_PREFIX + pathLessonId + "/file");
+        request.setParameter("token", token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private String token(Long lessonId, long expiresAtEpochSecond) {
+        return token(lessonId, expiresAtEpochSecond, "video/mp4");
+    }
+
+    private String token(Long lessonId, long expiresAtEpochSecond, String mimeType) {
+        return urls.token(new SignedMediaUrls.Grant(3L, 7L, lessonId, expiresAtEpochSecond, false,
+                "org-3/blobs/abc", mimeType, "cours.mp4"));
+    }
+
+    private static long validUntil() {
+        return Instant.now().plusSeconds(600).getEpochSecond();
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.get("media.signed.requests").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.mondecole_pocket.security;
+
+import com.example.mondecole_pocket.dto.LessonFileAccess;
+import com.example.mondecole_pocket.dto.SignedMediaUrlResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests unitaires des URLs média signées (HMAC, sans base).
+ */
+class SignedMediaUrlsTest {
+
+    private final SignedMediaUrls urls = new SignedMediaUrls("test-secret-with-enough-entropy-0123456789", Duration.ofMinutes(30));
+
+    private final LessonFileAccess file = new LessonFileAccess(
+            12L, "org-3/blobs/abc", "Cours 1 : dérivées.mp4", "video/mp4", 1024L, true);
+
+    @Test
+    @DisplayName("sign / verify — l'URL porte tout ce qu'il faut pour servir le fichier")
+    void verify_shouldRoundTripSignedUrl() {
+        SignedMediaUrlResponse signed = urls.sign(3L, 7L, file, true);
+
+        assertThat(signed.url()).startsWith("/api/media/lessons/12/file?token=");
+        SignedMediaUrls.Grant grant = urls.verify(token(signed));
+
+        assertThat(grant).isNotNull();
+        assertThat(grant.organizationId()).isEqualTo(3L);
+        assertThat(grant.studentId()).isEqualTo(7L);
+        assertThat(grant.lessonId()).isEqualTo(12L);
+        assertThat(grant.download()).isTrue();
+        assertThat(grant.storageKey()).isEqualTo("org-3/blobs/abc");
+        assertThat(grant.mimeType()).isEqualTo("video/mp4");
+        assertThat(grant.fileName()).isEqualTo("Cours 1 : dérivées.mp4");
+        assertThat(grant.isExpired(Instant.now())).isFalse();
+    }
+
+    @Test
+    @DisplayName("verify — payload modifié, signature tronquée ou autre clé : refusé")
+    void verify_shouldRejectTamperedTokens() {
+        String token = token(urls.sign(3L, 7L, file, false));
+        String payload = token.substring(0, token.indexOf('.'));
+        String signature = token.substring(token.indexOf('.') + 1);
+
+        // Autre clé de stockage, même signature
+        String forged = urls.token(new SignedMediaUrls.Grant(3L, 7L, 12L, Long.MAX_VALUE, true,
+                "org-4/blobs/other", "video/mp4", "x.mp4"));
+        String forgedPayload = forged.substring(0, forged.indexOf('.'));
+
+        assertThat(urls.verify(forgedPayload + "." + signature)).isNull();
+        assertThat(urls.verify(payload + "." + signature.substring(1))).isNull();
+        assertThat(urls.verify(payload)).isNull();
+        assertThat(urls.verify("%%%." + signature)).isNull();
+        assertThat(new SignedMediaUrls("another-secret-with-enough-entropy-987654", Duration.ofMinutes(30))
+                .verify(token)).isNull();
+    }
+
+    @Test
+    @DisplayName("isExpired — signature valide mais date dépassée")
+    void verify_shouldExposeExpiry() {
+        SignedMediaUrls shortLived = new SignedMediaUrls("test-secret-with-enough-entropy-0123456789", Duration.ZERO);
+
+        SignedMediaUrls.Grant grant = shortLived.verify(token(shortLived.sign(3L, 7L, file, false)));
+
+        assertThat(grant).isNotNull();
+        assertThat(grant.isExpired(Instant.now())).isTrue();
+    }
+
+    private static String token(SignedMediaUrlResponse signed) {
+        return signed.url().substring(signed.url().indexOf("token=") + 6);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.mondecole_pocket.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests unitaires de l'encodeur de mots de passe (coût cible + rehash).
+ */
+class UpgradingPasswordEncoderTest {
+
+    private final UpgradingPasswordEncoder encoder = new UpgradingPasswordEncoder(5);
+
+    @Test
+    @DisplayName("encode — hash préfixé {bcrypt} au coût cible, pas de rehash")
+    void encode_shouldUseTargetCostWithPrefix() {
+        String hash = encoder.encode("secret");
+
+        assertThat(hash).startsWith("{bcrypt}$2a$05$");
+        assertThat(encoder.matches("secret", hash)).isTrue();
+        assertThat(encoder.upgradeEncoding(hash)).isFalse();
+    }
+
+    @Test
+    @DisplayName("matches — hash legacy sans préfixe, au bon coût, accepté sans rehash")
+    void matches_shouldAcceptLegacyHashWithoutUpgrade() {
+        String legacy = new BCryptPasswordEncoder(5).encode("secret");
+
+        assertThat(encoder.matches("secret", legacy)).isTrue();
+        assertThat(encoder.upgradeEncoding(legacy)).isFalse();
+    }
+
+    @Test
+    @DisplayName("upgradeEncoding — coût plus faible ou plus fort que la cible")
+    void upgradeEncoding_shouldFlagAnyOtherCost() {
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+        assertThat(encoder.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(6).encode("secret"))).isTrue();
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.mondecole_pocket.service;
+
+import com.example.mondecole_pocket.dto.CourseOutline;
+import com.example.mondecole_pocket.entity.enums.CourseLevel;
+import com.example.mondecole_pocket.entity.enums.LessonType;
+import com.example.mondecole_pocket.repository.CourseEnrollmentRepository;
+import com.example.mondecole_pocket.repository.LessonRepository;
+import com.example.mondecole_pocket.repository.LessonRepository.LessonPackageRow;
+import com.example.mondecole_pocket.security.TenantContext;
+import com.example.mondecole_pocket.service.storage.LocalFileStorage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.LongStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires de l'export hors ligne : ZIP relu entrée par entrée, stockage réel (@TempDir).
+ */
+@ExtendWith(MockitoExtension.class)
+class CoursePackageServiceTest {
+
+    private static final Long ORG_ID = 1L;
+    private static final Long COURSE_ID = 10L;
+    private static final Long STUDENT_ID = 7L;
+
+    @Mock
+    private CourseOutlineService courseOutlineService;
+
+    @Mock
+    private CourseEnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private LessonRepository lessonRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path root;
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("write — plan, leçons et fichiers téléchargeables ; fichier absent ou non téléchargeable ignoré")
+    void write_shouldStreamOutlineLessonsAndDownloadableFiles() throws IOException {
+        LocalFileStorage storage = new LocalFileStorage(root);
+        byte[] pdf = "%PDF-1.7 exercices corrigés".getBytes(StandardCharsets.UTF_8);
+        storage.write("org-1/blobs/pdf", new ByteArrayInputStream(pdf), 1024);
+        storage.write("org-1/blobs/video", new ByteArrayInputStream(new byte[]{1, 2, 3}), 1024);
+
+        when(lessonRepository.findPackagePage(eq(ORG_ID), eq(COURSE_ID), any(), any(), any(), any())).thenReturn(List.of(
+                row(100L, LessonType.TEXT, "Cours", "org-1/blobs/pdf", "../chap1/exos.pdf", true),
+                row(101L, LessonType.VIDEO, null, "org-1/blobs/video", "video.mp4", false),
+                row(102L, LessonType.DOCUMENT, null, "org-1/blobs/purged", "gone.pdf", true)));
+
+        CoursePackageService service = service(storage);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.write(new CoursePackageService.CoursePackage(ORG_ID, outline(), "maths.zip"), out);
+
+        Map<String, byte[]> entries = unzip(out.toByteArray());
+        assertThat(entries.keySet()).containsExactly(
+                "course.json",
+                "lessons/100/lesson.json",
+                "lessons/101/lesson.json",
+                "lessons/102/lesson.json",
+                "lessons/100/files/__chap1_exos.pdf");
+        assertThat(entries.get("lessons/100/files/__chap1_exos.pdf")).isEqualTo(pdf);
+        assertThat(new String(entries.get("course.json"), StandardCharsets.UTF_8)).contains("mathematiques");
+        assertThat(new String(entries.get("lessons/100/lesson.json"), StandardCharsets.UTF_8))
+                .contains("\"content\" : \"Cours\"", "\"path\" : \"lessons/100/files/__chap1_exos.pdf\"");
+        assertThat(new String(entries.get("lessons/101/lesson.json"), StandardCharsets.UTF_8))
+                .contains("\"name\" : \"video.mp4\"", "\"path\" : null");
+    }
+
+    @Test
+    @DisplayName("write — leçons lues par pages keyset, la suivante reprend après la dernière ligne écrite")
+    void write_shouldReadLessonsInKeysetPages() throws IOException {
+        List<LessonPackageRow> firstPage = LongStream.range(0, CoursePackageService.PAGE_SIZE)
+                .mapToObj(i -> row(100L + i, LessonType.TEXT, "Cours", null, null, false))
+                .toList();
+        LessonPackageRow lastOfFirstPage = firstPage.getLast();
+        when(lessonRepository.findPackagePage(ORG_ID, COURSE_ID, Integer.MIN_VALUE, Integer.MIN_VALUE, Long.MIN_VALUE,
+                Limit.of(CoursePackageService.PAGE_SIZE))).thenReturn(firstPage);
+        when(lessonRepository.findPackagePage(ORG_ID, COURSE_ID, lastOfFirstPage.getSectionOrderIndex(),
+                lastOfFirstPage.getOrderIndex(), lastOfFirstPage.getId(), Limit.of(CoursePackageService.PAGE_SIZE)))
+                .thenReturn(List.of(row(500L, LessonType.TEXT, "Fin", null, null, false)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service(new LocalFileStorage(root)).write(new CoursePackageService.CoursePackage(ORG_ID, outline(), "maths.zip"), out);
+
+        Map<String, byte[]> entries = unzip(out.toByteArray());
+        assertThat(entries).hasSize(1 + CoursePackageService.PAGE_SIZE + 1).containsKey("lessons/500/lesson.json");
+        // Page incomplète : pas de troisième requête ; une transaction par page
+        verify(lessonRepository, times(2)).findPackagePage(any(), any(), any(), any(), any(), any());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    @DisplayName("preparePackage — élève non inscrit refusé avant tout octet écrit")
+    void preparePackage_shouldRejectStudentNotEnrolled() throws IOException {
+        TenantContext.setTenantId(ORG_ID);
+        when(courseOutlineService.getPublishedOutline(ORG_ID, COURSE_ID)).thenReturn(outline());
+        when(enrollmentRepository.findByOrganizationIdAndStudentIdAndCourseId(ORG_ID, STUDENT_ID, COURSE_ID))
+                .thenReturn(Optional.empty());
+
+        CoursePackageService service = service(new LocalFileStorage(root));
+
+        assertThatThrownBy(() -> service.preparePackage(COURSE_ID, STUDENT_ID))
+                .isInstanceOf(AccessDeniedException.class);
+        // L'auteur n'a pas besoin d'inscription
+        assertThat(service.preparePackage(COURSE_ID, 3L).fileName()).isEqualTo("mathematiques.zip");
+    }
+
+    private CoursePackageService service(LocalFileStorage storage) {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        return new CoursePackageService(courseOutlineService, enrollmentRepository, lessonRepository, storage,
+                transactionManager, new SimpleMeterRegistry(), objectMapper);
+    }
+
+    private static CourseOutline outline() {
+        return new CourseOutline(COURSE_ID, ORG_ID, "Mathématiques", "mathematiques", null, null, null,
+                CourseLevel.BEGINNER, 10, null, "fr", null, null,
+                new CourseOutline.TeacherInfo(3L, "prof", "Prof"), List.of(), 3, LocalDateTime.now());
+    }
+
+    private static LessonPackageRow row(Long id, LessonType type, String content,
+                                        String storageKey, String fileName, boolean downloadable) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("id", id);
+        values.put("sectionId", 20L);
+        values.put("sectionOrderIndex", 0);
+        values.put("title", "Leçon " + id);
+        values.put("type", type);
+        values.put("orderIndex", (int) (id - 100));
+        values.put("content", content);
+        values.put("storageKey", storageKey);
+        values.put("fileName", fileName);
+        values.put("mimeType", "application/octet-stream");
+        values.put("downloadable", downloadable);
+        return new SpelAwareProxyProjectionFactory().createProjection(LessonPackageRow.class, values);
+    }
+
+    private static Map<String, byte[]> unzip(byte[] zip) throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                entries.put(entry.getName(), in.readAllBytes());
+            }
+        }
+        return entries;
+    }
+}
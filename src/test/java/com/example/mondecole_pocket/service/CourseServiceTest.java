@@ -3,6 +3,7 @@ package com.example.mondecole_pocket.service;
 import com.example.mondecole_pocket.dto.*;
 import com.example.mondecole_pocket.entity.Course;
 import com.example.mondecole_pocket.entity.enums.CourseLevel;
+import com.example.mondecole_pocket.entity.enums.PurgeTarget;
 import com.example.mondecole_pocket.exception.CourseAlreadyPublishedException;
 import com.example.mondecole_pocket.exception.CourseNotFoundException;
 import com.example.mondecole_pocket.exception.CourseNotPublishedException;
@@ -35,6 +36,12 @@ class CourseServiceTest {
     @Mock
     private CourseRepository courseRepository;
 
+    @Mock
+    private CourseOutlineService courseOutlineService;
+
+    @Mock
+    private PurgeService purgeService;
+
     @InjectMocks
     private CourseService courseService;
 
@@ -60,11 +67,11 @@ class CourseServiceTest {
     @Test
     @DisplayName("getMyCourses — sans filtre published → retourne tous les cours mappés")
     void getMyCourses_shouldReturnAllCourses_whenPublishedFilterIsNull() {
-        Course c1 = buildCourse(1L, "Math", false);
-        Course c2 = buildCourse(2L, "Science", true);
+        CourseListResponse c1 = buildListItem(1L, "Math", false);
+        CourseListResponse c2 = buildListItem(2L, "Science", true);
         Pageable pageable = PageRequest.of(0, 10);
 
-        when(courseRepository.findByOrganizationIdAndAuthorId(ORG_ID, AUTHOR_ID, pageable))
+        when(courseRepository.findListByAuthor(ORG_ID, AUTHOR_ID, pageable))
                 .thenReturn(new PageImpl<>(List.of(c1, c2)));
 
         Page<CourseListResponse> result = courseService.getMyCourses(AUTHOR_ID, null, pageable);
@@ -73,18 +80,18 @@ class CourseServiceTest {
         assertThat(result.getContent().get(0).title()).isEqualTo("Math");
         assertThat(result.getContent().get(1).title()).isEqualTo("Science");
 
-        verify(courseRepository).findByOrganizationIdAndAuthorId(ORG_ID, AUTHOR_ID, pageable);
+        verify(courseRepository).findListByAuthor(ORG_ID, AUTHOR_ID, pageable);
         verify(courseRepository, never())
-                .findByOrganizationIdAndAuthorIdAndPublished(any(), any(), any(), any());
+                .findListByAuthorAndPublished(any(), any(), any(), any());
     }
 
     @Test
     @DisplayName("getMyCourses — avec published=true → filtre uniquement les publiés")
     void getMyCourses_shouldFilterByPublished_whenPublishedIsTrue() {
-        Course published = buildCourse(1L, "Math", true);
+        CourseListResponse published = buildListItem(1L, "Math", true);
         Pageable pageable = PageRequest.of(0, 10);
 
-        when(courseRepository.findByOrganizationIdAndAuthorIdAndPublished(ORG_ID, AUTHOR_ID, true, pageable))
+        when(courseRepository.findListByAuthorAndPublished(ORG_ID, AUTHOR_ID, true, pageable))
                 .thenReturn(new PageImpl<>(List.of(published)));
 
         Page<CourseListResponse> result = courseService.getMyCourses(AUTHOR_ID, true, pageable);
@@ -93,9 +100,9 @@ class CourseServiceTest {
         assertThat(result.getContent().get(0).title()).isEqualTo("Math");
 
         verify(courseRepository)
-                .findByOrganizationIdAndAuthorIdAndPublished(ORG_ID, AUTHOR_ID, true, pageable);
+                .findListByAuthorAndPublished(ORG_ID, AUTHOR_ID, true, pageable);
         verify(courseRepository, never())
-                .findByOrganizationIdAndAuthorId(any(), any(), any());
+                .findListByAuthor(any(), any(), any());
     }
 
     // ══════════════════════════════════════════════════════════════
@@ -244,8 +251,8 @@ class CourseServiceTest {
     // ══════════════════════════════════════════════════════════════
 
     @Test
-    @DisplayName("deleteCourse — cours trouvé → supprime")
-    void deleteCourse_shouldDelete_whenFound() {
+    @DisplayName("deleteCourse — cours trouvé → soft delete + purge planifiée")
+    void deleteCourse_shouldSoftDeleteAndSchedulePurge_whenFound() {
         Course course = buildCourse(COURSE_ID, "Histoire", false);
 
         when(courseRepository.findByIdAndOrganizationIdAndAuthorId(COURSE_ID, ORG_ID, AUTHOR_ID))
@@ -253,7 +260,10 @@ class CourseServiceTest {
 
         courseService.deleteCourse(COURSE_ID, AUTHOR_ID);
 
-        verify(courseRepository).delete(course);
+        assertThat(course.getDeletedAt()).isNotNull();
+        verify(courseRepository).save(course);
+        verify(courseRepository, never()).delete(any());
+        verify(purgeService).requestPurge(ORG_ID, PurgeTarget.COURSE, COURSE_ID, AUTHOR_ID);
     }
 
     @Test
@@ -266,6 +276,7 @@ class CourseServiceTest {
                 .isInstanceOf(CourseNotFoundException.class);
 
         verify(courseRepository, never()).delete(any());
+        verifyNoInteractions(purgeService);
     }
 
     // ══════════════════════════════════════════════════════════════
@@ -284,4 +295,8 @@ class CourseServiceTest {
         c.setActive(true);
         return c;
     }
-}
\ No newline at end of file
+
+    private CourseListResponse buildListItem(Long id, String title, boolean published) {
+        return new CourseListResponse(id, title, null, null, CourseLevel.BEGINNER, published, null, null);
+    }
+}
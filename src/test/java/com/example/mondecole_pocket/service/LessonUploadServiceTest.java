@@ -0,0 +1,141 @@
+package com.example.mondecole_pocket.service;
+
+import com.example.mondecole_pocket.dto.LessonUploadResponse;
+import com.example.mondecole_pocket.entity.LessonUpload;
+import com.example.mondecole_pocket.exception.ChecksumMismatchException;
+import com.example.mondecole_pocket.exception.UploadOffsetMismatchException;
+import com.example.mondecole_pocket.repository.LessonUploadRepository;
+import com.example.mondecole_pocket.repository.OrganizationRepository;
+import com.example.mondecole_pocket.security.TenantContext;
+import com.example.mondecole_pocket.service.storage.LocalFileStorage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires des chunks d'upload : fichier .part réel (@TempDir), repositories mockés.
+ */
+@ExtendWith(MockitoExtension.class)
+class LessonUploadServiceTest {
+
+    private static final Long ORG_ID = 1L;
+    private static final Long LESSON_ID = 5L;
+    private static final Long TEACHER_ID = 7L;
+    private static final byte[] CONTENT = "une vidéo de cours, en trois morceaux".getBytes(StandardCharsets.UTF_8);
+
+    @Mock
+    private LessonUploadRepository uploadRepository;
+
+    @Mock
+    private OrganizationRepository organizationRepository;
+
+    @Mock
+    private LessonFileService lessonFileService;
+
+    @TempDir
+    Path root;
+
+    private LessonUpload upload;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setTenantId(ORG_ID);
+        upload = LessonUpload.builder()
+                .id(UUID.randomUUID())
+                .organizationId(ORG_ID)
+                .lessonId(LESSON_ID)
+                .sectionId(3L)
+                .teacherId(TEACHER_ID)
+                .fileName("cours.mp4")
+                .totalBytes((long) CONTENT.length)
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+        lenient().when(uploadRepository.findByIdAndOrganizationIdAndTeacherId(upload.getId(), ORG_ID, TEACHER_ID))
+                .thenReturn(Optional.of(upload));
+        // Simule l'UPDATE conditionnel : avance seulement depuis l'offset courant
+        lenient().when(uploadRepository.advance(eq(upload.getId()), anyLong(), anyLong(), any(), any()))
+                .thenAnswer(invocation -> upload.getReceivedBytes() == (long) invocation.getArgument(1) ? 1 : 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    private LessonUploadService newService() throws Exception {
+        return new LessonUploadService(uploadRepository, organizationRepository, lessonFileService,
+                new LocalFileStorage(root.resolve("objects")), root.resolve("staging"),
+                Duration.ofHours(1), DataSize.ofMegabytes(1), 100);
+    }
+
+    private LessonUploadResponse send(LessonUploadService service, int from, int to, String chunkSha256) throws Exception {
+        return service.writeChunk(upload.getId(), LESSON_ID, TEACHER_ID, from, to - from, chunkSha256,
+                new ByteArrayInputStream(Arrays.copyOfRange(CONTENT, from, to)));
+    }
+
+    private static String sha256(byte[] bytes) {
+        return HexFormat.of().formatHex(LessonFileService.sha256().digest(bytes));
+    }
+
+    @Test
+    @DisplayName("writeChunk — morceaux successifs, reprise sur un autre service (digest recalculé) → fichier et SHA-256 complets")
+    void writeChunk_shouldAppendChunks_andRebuildDigestAfterRestart() throws Exception {
+        LessonUploadService service = newService();
+        assertThat(send(service, 0, 10, null).receivedBytes()).isEqualTo(10);
+        assertThat(send(service, 10, 20, sha256(Arrays.copyOfRange(CONTENT, 10, 20))).receivedBytes()).isEqualTo(20);
+
+        // Redémarrage : cache de digests vide, le .part est relu
+        LessonUploadService restarted = newService();
+        assertThat(send(restarted, 20, CONTENT.length, null).receivedBytes()).isEqualTo(CONTENT.length);
+        assertThat(Files.readAllBytes(restarted.partFile(upload.getId()))).isEqualTo(CONTENT);
+
+        upload.setExpectedSha256(sha256(CONTENT));
+        when(uploadRepository.deleteAndCount(upload.getId())).thenReturn(1);
+        restarted.complete(upload.getId(), LESSON_ID, TEACHER_ID);
+
+        verify(lessonFileService).attach(eq(ORG_ID), eq(3L), eq(LESSON_ID), eq(TEACHER_ID), anyString(),
+                eq(sha256(CONTENT)), eq("cours.mp4"), isNull(), eq((long) CONTENT.length));
+        assertThat(restarted.partFile(upload.getId())).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("writeChunk — mauvais offset → 409 avec l'offset courant ; chunk corrompu → rejeté, offset inchangé")
+    void writeChunk_shouldRejectWrongOffset_andCorruptedChunk() throws Exception {
+        LessonUploadService service = newService();
+        send(service, 0, 10, null);
+
+        assertThatThrownBy(() -> send(service, 5, 15, null))
+                .isInstanceOf(UploadOffsetMismatchException.class)
+                .extracting(e -> ((UploadOffsetMismatchException) e).getCurrentOffset())
+                .isEqualTo(10L);
+
+        assertThatThrownBy(() -> send(service, 10, 20, sha256("autre chose".getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(ChecksumMismatchException.class);
+        assertThat(upload.getReceivedBytes()).isEqualTo(10);
+
+        // Le même chunk renvoyé intact passe, par-dessus les octets rejetés
+        send(service, 10, CONTENT.length, null);
+        assertThat(Files.readAllBytes(service.partFile(upload.getId()))).isEqualTo(CONTENT);
+    }
+}
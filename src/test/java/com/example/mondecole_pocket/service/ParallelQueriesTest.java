@@ -0,0 +1,144 @@
+package com.example.mondecole_pocket.service;
+
+import com.example.mondecole_pocket.exception.CourseNotFoundException;
+import com.example.mondecole_pocket.exception.QueryDeadlineExceededException;
+import com.example.mondecole_pocket.security.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires du fan-out ParallelQueries (transaction manager mocké).
+ */
+class ParallelQueriesTest {
+
+    private ParallelQueries parallelQueries;
+
+    @BeforeEach
+    void setUp() {
+        parallelQueries = new ParallelQueries(mock(PlatformTransactionManager.class), new SimpleMeterRegistry(),
+                false, 4, Duration.ofMillis(500), 2);
+        TenantContext.setTenantId(1L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        parallelQueries.shutdown();
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("join — les sous-tâches tournent en parallèle et voient le tenant de l'appelant")
+    void join_shouldRunConcurrentlyWithCallerContext() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        try (ParallelQueries.Scope scope = parallelQueries.open()) {
+            Supplier<Long> a = scope.fork(() -> awaitPeer(bothStarted));
+            Supplier<Long> b = scope.fork(() -> awaitPeer(bothStarted));
+            scope.join();
+
+            assertThat(a.get()).isEqualTo(1L);
+            assertThat(b.get()).isEqualTo(1L);
+        }
+    }
+
+    @Test
+    @DisplayName("join — le premier échec est relancé tel quel et annule les autres sous-tâches")
+    void join_shouldRethrowFirstFailureAndCancelOthers() {
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        assertThatThrownBy(() -> {
+            try (ParallelQueries.Scope scope = parallelQueries.open()) {
+                scope.fork(() -> {
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                    return null;
+                });
+                scope.fork(() -> {
+                    throw new CourseNotFoundException("Course not found");
+                });
+                scope.join();
+            }
+        }).isInstanceOf(CourseNotFoundException.class);
+
+        assertThat(awaitQuietly(interrupted)).isTrue();
+    }
+
+    @Test
+    @DisplayName("fork — au-delà de max-per-request, les sous-tâches attendent un créneau de connexion")
+    void fork_shouldBoundConcurrentTransactionsPerScope() {
+        ParallelQueries bounded = new ParallelQueries(mock(PlatformTransactionManager.class), new SimpleMeterRegistry(),
+                false, 4, Duration.ofSeconds(2), 1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        try (ParallelQueries.Scope scope = bounded.open()) {
+            for (int i = 0; i < 3; i++) {
+                scope.fork(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    return null;
+                });
+            }
+            scope.join();
+        } finally {
+            bounded.shutdown();
+        }
+
+        assertThat(maxRunning.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("join — deadline dépassée → QueryDeadlineExceededException")
+    void join_shouldFailAfterDeadline() {
+        assertThatThrownBy(() -> {
+            try (ParallelQueries.Scope scope = parallelQueries.open()) {
+                scope.fork(() -> {
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException ignored) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return null;
+                });
+                scope.join();
+            }
+        }).isInstanceOf(QueryDeadlineExceededException.class);
+    }
+
+    private static Long awaitPeer(CountDownLatch bothStarted) {
+        bothStarted.countDown();
+        if (!awaitQuietly(bothStarted)) {
+            throw new IllegalStateException("Sub-tasks did not run concurrently");
+        }
+        return TenantContext.getTenantId();
+    }
+
+    private static boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            return latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.mondecole_pocket.service;
+
+import com.example.mondecole_pocket.config.JacksonConfig;
+import com.example.mondecole_pocket.dto.CourseOutline;
+import com.example.mondecole_pocket.dto.StudentCourseDetailResponse;
+import com.example.mondecole_pocket.entity.CourseEnrollment;
+import com.example.mondecole_pocket.entity.LessonProgress;
+import com.example.mondecole_pocket.entity.enums.CourseLevel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Le streaming doit produire exactement le JSON des records StudentCourseDetailResponse.
+ */
+class StudentCourseDetailWriterTest {
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private final StudentCourseDetailWriter writer = new StudentCourseDetailWriter(objectMapper);
+
+    @Test
+    @DisplayName("write — JSON identique à la sérialisation des records (élève inscrit avec progression)")
+    void write_shouldMatchRecordSerialization_whenEnrolled() throws Exception {
+        LocalDateTime enrolledAt = LocalDateTime.of(2025, 9, 1, 8, 0);
+        CourseEnrollment enrollment = CourseEnrollment.builder()
+                .id(42L).progressPercent(50).completed(false)
+                .enrolledAt(enrolledAt).lastAccessedAt(enrolledAt.plusDays(3).plusNanos(123_000))
+                .build();
+        LessonProgress progress = LessonProgress.builder()
+                .lessonId(11L).completed(true).progressPercent(100)
+                .build();
+
+        assertSameJson(new StudentCourseDetailWriter.Source(outline(), enrollment, Map.of(11L, progress), 3));
+    }
+
+    @Test
+    @DisplayName("write — JSON identique sans inscription, sans enseignant et avec des champs null")
+    void write_shouldMatchRecordSerialization_whenNotEnrolled() throws Exception {
+        CourseOutline outline = outline();
+        CourseOutline withoutTeacher = new CourseOutline(outline.id(), outline.organizationId(), outline.title(),
+                null, "Résumé \"entre guillemets\"", null, null, null, null, null, "fr", null, null,
+                null, outline.sections(), outline.totalLessons(), null);
+
+        assertSameJson(new StudentCourseDetailWriter.Source(withoutTeacher, null, Map.of(), 0));
+    }
+
+    private void assertSameJson(StudentCourseDetailWriter.Source source) throws Exception {
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        writer.write(source, streamed);
+
+        assertThat(streamed.toString())
+                .isEqualTo(objectMapper.writeValueAsString(toResponse(source)));
+    }
+
+    /** Même document construit en records : le contrat de l'API */
+    private static StudentCourseDetailResponse toResponse(StudentCourseDetailWriter.Source source) {
+        CourseOutline outline = source.outline();
+        CourseOutline.TeacherInfo teacher = outline.teacher();
+        CourseEnrollment enrollment = source.enrollment();
+
+        List<StudentCourseDetailResponse.SectionInfo> sections = outline.sections().stream()
+                .map(section -> new StudentCourseDetailResponse.SectionInfo(
+                        section.id(), section.title(), section.description(), section.orderIndex(),
+                        section.lessons().stream()
+                                .map(lesson -> {
+                                    LessonProgress progress = source.progress().get(lesson.id());
+                                    return new StudentCourseDetailResponse.LessonInfo(
+                                            lesson.id(), lesson.title(), lesson.type(), lesson.orderIndex(),
+                                            lesson.durationSeconds(),
+                                            progress != null && progress.getCompleted(),
+                                            progress != null ? progress.getProgressPercent() : 0);
+                                })
+                                .toList()))
+                .toList();
+
+        return new StudentCourseDetailResponse(
+                outline.id(), outline.title(), outline.slug(), outline.summary(), outline.description(),
+                outline.category(), outline.level(), outline.estimatedHours(), outline.thumbnailUrl(),
+                outline.language(), outline.objectives(), outline.prerequisites(),
+                teacher == null ? null : new StudentCourseDetailResponse.TeacherInfo(
+                        teacher.id(), teacher.username(), teacher.fullName()),
+                sections,
+                enrollment == null ? null : new StudentCourseDetailResponse.EnrollmentInfo(
+                        enrollment.getId(), enrollment.getProgressPercent(), enrollment.getCompleted(),
+                        enrollment.getEnrolledAt(), enrollment.getLastAccessedAt()),
+                outline.totalLessons(), source.totalStudents(), outline.publishedAt());
+    }
+
+    private static CourseOutline outline() {
+        List<CourseOutline.SectionInfo> sections = List.of(
+                new CourseOutline.SectionInfo(1L, "Chapitre 1", "Intro", 0, List.of(
+                        new CourseOutline.LessonInfo(10L, "Leçon 1", "VIDEO", 0, 300),
+                        new CourseOutline.LessonInfo(11L, "Leçon 2", "TEXT", 1, null))),
+                new CourseOutline.SectionInfo(2L, "Chapitre 2", null, 1, List.of()));
+
+        return new CourseOutline(5L, 1L, "Algèbre", "algebre", "Résumé", "Description", "Maths",
+                CourseLevel.BEGINNER, 12, "https://cdn.example.com/a.png", "fr", "Objectifs", "Aucun",
+                new CourseOutline.TeacherInfo(7L, "prof", "Claire Durand"), sections, 2,
+                LocalDateTime.of(2025, 8, 15, 10, 30));
+    }
+}
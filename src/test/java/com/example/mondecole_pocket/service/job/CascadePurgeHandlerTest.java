@@ -0,0 +1,106 @@
+package com.example.mondecole_pocket.service.job;
+
+import com.example.mondecole_pocket.service.storage.StoredFileRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires de la purge en cascade : ordre des étapes, batches, garde-fous (JdbcTemplate mocké).
+ */
+@ExtendWith(MockitoExtension.class)
+class CascadePurgeHandlerTest {
+
+    private static final long PURGE_ID = 9L;
+    private static final long ORG_ID = 1L;
+    private static final long COURSE_ID = 10L;
+    private static final int CHUNK_SIZE = 2;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private StoredFileRegistry storedFiles;
+
+    private CascadePurgeHandler handler;
+
+    /** Première ligne significative de chaque DELETE exécuté, dans l'ordre */
+    private final List<String> deletes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        handler = new CascadePurgeHandler(jdbcTemplate, storedFiles, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(handler, "chunkSize", CHUNK_SIZE);
+        ReflectionTestUtils.setField(handler, "pause", Duration.ZERO);
+
+        ResultSet row = mock(ResultSet.class);
+        when(row.getLong("id")).thenReturn(PURGE_ID);
+        when(row.getLong("organization_id")).thenReturn(ORG_ID);
+        when(row.getString("entity_type")).thenReturn("COURSE");
+        when(row.getLong("entity_id")).thenReturn(COURSE_ID);
+        when(jdbcTemplate.query(contains("FROM purge_requests"), any(RowMapper.class), eq(PURGE_ID)))
+                .thenAnswer(invocation -> List.of(invocation.<RowMapper<?>>getArgument(1).mapRow(row, 0)));
+    }
+
+    @Test
+    @DisplayName("handle — cours : feuilles d'abord, batches jusqu'au dernier incomplet, racine en dernier")
+    void handle_shouldPurgeCourseLeavesFirstInChunks() throws Exception {
+        when(jdbcTemplate.queryForList(contains("FROM courses WHERE id"), eq(Boolean.class), any(Object[].class)))
+                .thenReturn(List.of(true));
+        int[] lessonBatches = {CHUNK_SIZE, 1};
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            String statement = sql.strip().startsWith("WITH") ? sql.substring(sql.lastIndexOf("DELETE FROM")) : sql.strip();
+            if (!statement.startsWith("DELETE FROM")) {
+                return 1;
+            }
+            String table = statement.substring("DELETE FROM ".length()).split("\\s")[0];
+            deletes.add(table);
+            if (table.equals("lessons")) {
+                int call = (int) deletes.stream().filter("lessons"::equals).count() - 1;
+                return lessonBatches[call];
+            }
+            return 0;
+        });
+
+        handler.handle(new CascadePurgeHandler.Payload(PURGE_ID));
+
+        assertThat(deletes).containsExactly(
+                "lesson_progress", "course_enrollments", "lesson_uploads",
+                "lessons", "lessons",
+                "course_sections", "courses");
+        verify(storedFiles).collectUnreferenced(ORG_ID, CHUNK_SIZE);
+        // Racine supprimée seulement si toujours soft-deleted
+        verify(jdbcTemplate).update(contains("deleted_at IS NOT NULL"), eq(COURSE_ID), eq(ORG_ID));
+        verify(jdbcTemplate).update(contains("SET status = ?"), eq("DONE"), eq(PURGE_ID));
+    }
+
+    @Test
+    @DisplayName("handle — cours restauré entre-temps : purge annulée, rien n'est supprimé")
+    void handle_shouldCancelWhenCourseIsNoLongerSoftDeleted() throws Exception {
+        when(jdbcTemplate.queryForList(contains("FROM courses WHERE id"), eq(Boolean.class), any(Object[].class)))
+                .thenReturn(List.of(false));
+
+        handler.handle(new CascadePurgeHandler.Payload(PURGE_ID));
+
+        verify(jdbcTemplate, never()).update(startsWith("DELETE"), any(Object[].class));
+        verify(jdbcTemplate).update(contains("SET status = ?"), eq("CANCELLED"), eq(PURGE_ID));
+        verifyNoInteractions(storedFiles);
+    }
+}
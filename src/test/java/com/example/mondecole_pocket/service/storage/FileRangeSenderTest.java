@@ -0,0 +1,110 @@
+package com.example.mondecole_pocket.service.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests unitaires du stockage local + envoi avec Range (sans conteneur : pas de sendfile).
+ */
+class FileRangeSenderTest {
+
+    private static final String KEY = "org-1/lesson-5/abc";
+    private static final byte[] CONTENT = "0123456789abcdefghij".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path root;
+
+    private LocalFileStorage storage;
+    private FileRangeSender sender;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storage = new LocalFileStorage(root);
+        storage.write(KEY, new ByteArrayInputStream(CONTENT), CONTENT.length);
+        sender = new FileRangeSender(storage, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("send — Range sur un octet borné → 206, Content-Range et seulement la tranche demandée")
+    void send_shouldServePartialContent_whenSingleRange() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/student/lessons/5/file");
+        request.addHeader("Range", "bytes=5-9");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        sender.send(KEY, "cours.mp4", "video/mp4", false, request, response);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 5-9/20");
+        assertThat(response.getContentLengthLong()).isEqualTo(5);
+        assertThat(response.getContentAsString()).isEqualTo("56789");
+        assertThat(response.getHeader("Content-Disposition")).startsWith("inline");
+    }
+
+    @Test
+    @DisplayName("send — Range hors du fichier → 416 avec la taille réelle ; If-Range périmé → fichier complet")
+    void send_shouldRejectUnsatisfiableRange_andIgnoreStaleIfRange() throws Exception {
+        MockHttpServletRequest outOfBounds = new MockHttpServletRequest("GET", "/file");
+        outOfBounds.addHeader("Range", "bytes=50-");
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        sender.send(KEY, "cours.mp4", "video/mp4", false, outOfBounds, rejected);
+
+        assertThat(rejected.getStatus()).isEqualTo(416);
+        assertThat(rejected.getHeader("Content-Range")).isEqualTo("bytes */20");
+
+        MockHttpServletRequest staleIfRange = new MockHttpServletRequest("GET", "/file");
+        staleIfRange.addHeader("Range", "bytes=0-3");
+        staleIfRange.addHeader("If-Range", "\"old-version\"");
+        MockHttpServletResponse full = new MockHttpServletResponse();
+        sender.send(KEY, "cours.mp4", "video/mp4", true, staleIfRange, full);
+
+        assertThat(full.getStatus()).isEqualTo(200);
+        assertThat(full.getContentAsByteArray()).isEqualTo(CONTENT);
+        assertThat(full.getHeader("Content-Disposition")).startsWith("attachment");
+    }
+
+    @Test
+    @DisplayName("send — HTML / SVG / type invalide de l'upload → attachment ; vidéo et PDF inline ; nosniff partout")
+    void send_shouldForceAttachment_whenTypeIsNotInlineSafe() throws Exception {
+        for (String mimeType : new String[]{"text/html", "image/svg+xml", "not a type", null}) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            sender.send(KEY, "page.html", mimeType, false, new MockHttpServletRequest("GET", "/file"), response);
+
+            assertThat(response.getHeader("Content-Disposition")).as(mimeType).startsWith("attachment");
+            assertThat(response.getHeader("X-Content-Type-Options")).isEqualTo("nosniff");
+            assertThat(response.getHeader("Content-Security-Policy")).isEqualTo("sandbox");
+        }
+
+        MockHttpServletResponse video = new MockHttpServletResponse();
+        sender.send(KEY, "cours.mp4", "video/mp4", false, new MockHttpServletRequest("GET", "/file"), video);
+        assertThat(video.getHeader("Content-Disposition")).startsWith("inline");
+        assertThat(video.getHeader("Content-Security-Policy")).isEqualTo("sandbox");
+
+        MockHttpServletResponse pdf = new MockHttpServletResponse();
+        sender.send(KEY, "cours.pdf", "application/pdf", false, new MockHttpServletRequest("GET", "/file"), pdf);
+        assertThat(pdf.getHeader("Content-Disposition")).startsWith("inline");
+        assertThat(pdf.getHeader("X-Content-Type-Options")).isEqualTo("nosniff");
+    }
+
+    @Test
+    @DisplayName("write — flux plus long que la taille annoncée → refusé, aucun objet conservé")
+    void write_shouldRejectContentLongerThanMaxBytes() {
+        assertThatThrownBy(() -> storage.write("org-1/lesson-6/big", new ByteArrayInputStream(CONTENT), 10))
+                .isInstanceOf(IOException.class);
+
+        assertThat(root.resolve("org-1/lesson-6")).isEmptyDirectory();
+        assertThatThrownBy(() -> storage.write("../escape", new ByteArrayInputStream(CONTENT), 100))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}